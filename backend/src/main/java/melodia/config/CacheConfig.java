@@ -0,0 +1,105 @@
+package melodia.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Cache service-level untuk data katalog yang dibaca di setiap request
+ * (detail/stream lagu, daftar genre, daftar album di home page, detail album per version)
+ * dan cek "user terdaftar" di jalur play event.
+ *
+ * - Semua method @Cacheable di sini pakai sync = true → single-flight per key,
+ *   jadi saat miss hanya satu thread yang query ke DB, sisanya menunggu hasil yang sama.
+ * - TTL diberi jitter ±10% supaya entry yang di-load bersamaan tidak expire bersamaan.
+ * - Invalidasi lewat CatalogChangedEvent (lihat CatalogCacheInvalidator), setelah commit.
+ * - order = HIGHEST_PRECEDENCE: cache interceptor jalan di luar @Transactional,
+ *   jadi cache hit tidak meminjam koneksi dari pool Hikari.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    public static final String SONG_BY_ID = "songById";
+    public static final String GENRES = "genres";
+    public static final String ALBUM_SUMMARIES = "albumSummaries";
+    public static final String ALBUM_DETAILS = "albumDetails"; // * Key albumId:version → tidak perlu invalidasi eksplisit
+    public static final String REGISTERED_USERS = "registeredUsers";
+
+    @Value("${melodia.cache.song.max-size:5000}")
+    private long songMaxSize;
+
+    @Value("${melodia.cache.song.ttl:10m}")
+    private Duration songTtl;
+
+    @Value("${melodia.cache.album-detail.max-size:1000}")
+    private long albumDetailMaxSize;
+
+    @Value("${melodia.cache.catalog-list.ttl:5m}")
+    private Duration catalogListTtl;
+
+    @Value("${melodia.cache.user.max-size:10000}")
+    private long userMaxSize;
+
+    @Value("${melodia.cache.user.ttl:30m}")
+    private Duration userTtl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        // * Daftar cache statis: nama cache yang tidak terdaftar langsung error, bukan diam-diam dibuat baru.
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(
+            caffeineCache(SONG_BY_ID, songMaxSize, songTtl),
+            caffeineCache(GENRES, 16, catalogListTtl),
+            caffeineCache(ALBUM_SUMMARIES, 16, catalogListTtl),
+            caffeineCache(ALBUM_DETAILS, albumDetailMaxSize, songTtl),
+            caffeineCache(REGISTERED_USERS, userMaxSize, userTtl)
+        ));
+        return manager;
+    }
+
+    private static CaffeineCache caffeineCache(String name, long maxSize, Duration ttl) {
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(jitteredTtl(ttl))
+                .recordStats()
+                .build());
+    }
+
+    /**
+     * Expire setelah write dengan jitter ±10% dari TTL dasar.
+     * Update/read tidak memperpanjang umur entry.
+     */
+    private static Expiry<Object, Object> jitteredTtl(Duration ttl) {
+        long base = ttl.toNanos();
+        long spread = Math.max(1, base / 10);
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Object value, long currentTime) {
+                return base - spread + ThreadLocalRandom.current().nextLong(2 * spread);
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
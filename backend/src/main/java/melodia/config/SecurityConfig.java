@@ -56,6 +56,7 @@ public class SecurityConfig {
         configuration.setAllowedOriginPatterns(Arrays.asList("*"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList("ETag")); // * Supaya client bisa baca version playlist untuk delta sync
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
@@ -6,7 +6,9 @@ import org.springframework.web.bind.annotation.*;
 
 import melodia.model.dto.common.ApiResponse;
 import melodia.model.dto.response.admin.AdminStatsResponse;
+import melodia.model.dto.response.admin.CacheStatsResponse;
 import melodia.model.service.admin.AdminService;
+import melodia.model.service.admin.CacheStatsService;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -15,10 +17,20 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
     // ==================== DASHBOARD STATS ====================
     @GetMapping("/stats")
     public ResponseEntity<ApiResponse<AdminStatsResponse>> getAdminStats() {
         AdminStatsResponse stats = adminService.getAdminStats();
         return ResponseEntity.ok(ApiResponse.success("Admin statistics retrieved successfully", stats));
     }
+
+    // ==================== CACHE STATS ====================
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ApiResponse<CacheStatsResponse>> getCacheStats() {
+        CacheStatsResponse stats = cacheStatsService.getCacheStats();
+        return ResponseEntity.ok(ApiResponse.success("Cache statistics retrieved successfully", stats));
+    }
 }
@@ -28,6 +28,7 @@ import melodia.model.repository.ArtistRepository;
 import melodia.model.repository.GenreRepository;
 import melodia.model.repository.SongRepository;
 import melodia.model.service.music.FileStorageService;
+import melodia.model.service.music.MusicService;
 import melodia.model.service.music.SongDeletionService;
 
 @RestController
@@ -51,6 +52,9 @@ public class AdminSongController {
     @Autowired
     private SongDeletionService songDeletionService; // ✅ service baru untuk handle cascade delete
 
+    @Autowired
+    private MusicService musicService; // * Simpan lagu + update counter artist/genre dalam satu transaksi
+
     /**
      * Admin upload new song (select artist from dropdown)
      * POST /api/admin/songs/upload
@@ -160,9 +164,10 @@ public class AdminSongController {
             song.setDuration(duration);
             song.setReleaseYear(releaseYear);
             song.setFilePath(filePath);
+            song.setFileSize(audioFile.getSize());
             song.setUploadedAt(LocalDateTime.now());
 
-            Song savedSong = songRepository.save(song);
+            Song savedSong = musicService.saveUploadedSong(song);
 
             logger.info("Song uploaded successfully: {} (ID: {})", title, savedSong.getSongId());
 
@@ -243,6 +248,7 @@ public class AdminSongController {
             }
 
             // Update genres if provided
+            List<Genre> newGenres = null;
             if (genreIdsJson != null && !genreIdsJson.isBlank()) {
                 String trimmed = genreIdsJson.trim();
                 if (trimmed.startsWith("[")) trimmed = trimmed.substring(1);
@@ -264,12 +270,13 @@ public class AdminSongController {
                     }
 
                     if (!genres.isEmpty()) {
-                        song.setGenres(genres);
+                        newGenres = genres;
                     }
                 }
             }
 
-            Song updatedSong = songRepository.save(song);
+            // Genre baru di-set di service supaya counter genre lama/baru ikut disesuaikan
+            Song updatedSong = musicService.saveSongUpdate(song, newGenres);
             logger.info("Song updated successfully: {}", songId);
 
             return ResponseEntity.ok(ApiResponse.success("Song updated successfully", updatedSong));
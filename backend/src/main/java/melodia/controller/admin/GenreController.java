@@ -4,8 +4,10 @@ import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,8 +18,11 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import melodia.model.dto.common.ApiResponse;
+import melodia.model.dto.response.GenreResponse;
 import melodia.model.entity.Genre;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.GenreRepository;
+import melodia.model.service.admin.GenreService;
 
 @RestController
 @RequestMapping({"/api/genres", "/api/admin/genres"})
@@ -26,11 +31,21 @@ public class GenreController {
     @Autowired
     private GenreRepository genreRepository;
 
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher; // * Invalidasi cache genre/katalog setelah perubahan
+
+    // * Handler yang mengubah genre jalan dalam transaksi: listener BEFORE_COMMIT (version album & playlist
+    //   yang menampilkan genre ini) hanya dipanggil kalau event dipublish di dalam transaksi.
+
     // ==================== GET OPERATIONS ====================
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Genre>>> getAllGenres() {
-        List<Genre> genres = genreRepository.findAll();
+    public ResponseEntity<ApiResponse<List<GenreResponse>>> getAllGenres() {
+        // * Sekalian bawa songCount; hasilnya di-cache di GenreService.
+        List<GenreResponse> genres = genreService.getAllGenres();
         return ResponseEntity.ok(ApiResponse.success("Genres fetched successfully", genres));
     }
 
@@ -42,14 +57,15 @@ public class GenreController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Genre>>> searchGenres(@RequestParam String keyword) {
-        List<Genre> genres = genreRepository.findByNameContainingIgnoreCase(keyword);
+    public ResponseEntity<ApiResponse<List<GenreResponse>>> searchGenres(@RequestParam String keyword) {
+        List<GenreResponse> genres = genreService.searchGenres(keyword);
         return ResponseEntity.ok(ApiResponse.success("Genres searched successfully", genres));
     }
 
     // ==================== CREATE OPERATION ====================
 
     @PostMapping
+    @Transactional
     public ResponseEntity<ApiResponse<Genre>> createGenre(
         @RequestParam String name,
         @RequestParam(required = false) String description) {
@@ -75,12 +91,14 @@ public class GenreController {
             genre.setDescription(trimmedDescription);
         }
         genre = genreRepository.save(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.genre(genre.getId()));
         return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Genre created successfully", genre));
     }
 
     // ==================== UPDATE OPERATION ====================
 
     @PutMapping("/{genreId}")
+    @Transactional
     public ResponseEntity<ApiResponse<Genre>> updateGenre(
         @PathVariable String genreId,
         @RequestParam String newName,
@@ -101,16 +119,19 @@ public class GenreController {
             genre.setDescription(trimmedDescription);
         }
         genre = genreRepository.save(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.genre(genre.getId()));
         return ResponseEntity.ok(ApiResponse.success("Genre updated successfully", genre));
     }
 
     // ==================== DELETE OPERATION ====================
 
     @DeleteMapping("/{genreId}")
+    @Transactional
     public ResponseEntity<ApiResponse<?>> deleteGenre(@PathVariable String genreId) {
         Genre genre = genreRepository.findById(genreId)
             .orElseThrow(() -> new melodia.controller.exception.music.GenreNotFoundException(genreId));
         genreRepository.delete(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.genre(genreId));
         return ResponseEntity.ok(ApiResponse.success("Genre deleted successfully"));
     }
 
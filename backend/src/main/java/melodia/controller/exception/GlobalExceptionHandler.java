@@ -7,6 +7,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -75,6 +76,22 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    // ==================== Handle Concurrent Modification ====================
+
+    // * Sampai di sini hanya kalau retry optimistic (OptimisticRetry) sudah habis
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        logger.warn("Concurrent modification: {}", ex.getMessage());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("error", "Data sedang diubah oleh request lain, silakan coba lagi");
+        response.put("errorCode", "CONCURRENT_MODIFICATION");
+        response.put("status", 409);
+        response.put("timestamp", LocalDateTime.now());
+
+        return ResponseEntity.status(409).body(response);
+    }
+
     // ==================== Handle Database Constraint Violations ====================
 
     @ExceptionHandler(DataIntegrityViolationException.class)
@@ -0,0 +1,18 @@
+package melodia.controller.exception.music;
+
+import org.springframework.http.HttpStatus;
+import melodia.controller.exception.ApiException;
+
+/**
+ * Exception ketika semua slot download ZIP album/playlist sedang terpakai
+ */
+public class DownloadBusyException extends ApiException {
+
+    public DownloadBusyException() {
+        super(
+            "Terlalu banyak download berjalan, silakan coba lagi sebentar lagi",
+            HttpStatus.SERVICE_UNAVAILABLE,
+            "DOWNLOAD_BUSY"
+        );
+    }
+}
@@ -1,5 +1,6 @@
 package melodia.controller.user;
 
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -8,7 +9,11 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,11 +23,17 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import melodia.controller.exception.music.AlbumNotFoundException;
 import melodia.model.dto.common.ApiResponse;
+import melodia.model.dto.response.AlbumDetailResponse;
+import melodia.model.dto.response.AlbumSummaryResponse;
 import melodia.model.entity.Album;
 import melodia.model.entity.Song;
 import melodia.model.service.music.AlbumService;
+import melodia.model.service.music.ArchiveDownloadService;
 
 @RestController
 @RequestMapping("/api/albums")
@@ -33,6 +44,9 @@ public class AlbumController {
     @Autowired
     private AlbumService albumService;
 
+    @Autowired
+    private ArchiveDownloadService archiveDownloadService;
+
     // ==================== READ OPERATIONS ====================
 
     /**
@@ -40,54 +54,10 @@ public class AlbumController {
      * GET /api/albums
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Map<String, Object>>>> getAllAlbums() {
+    public ResponseEntity<ApiResponse<List<AlbumSummaryResponse>>> getAllAlbums() {
         try {
-            List<Album> albums = albumService.getAllAlbums();
-            
-            // ✅ Mapping langsung di controller (hindari Hibernate proxy error)
-            List<Map<String, Object>> albumList = albums.stream()
-                .map(album -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("albumId", album.getAlbumId());
-                    dto.put("title", album.getTitle());
-                    dto.put("releaseYear", album.getReleaseYear());
-                    dto.put("coverEmoji", album.getCoverEmoji());
-                    
-                    // ✅ Safe artist name extraction
-                    String artistName = "Unknown";
-                    if (album.getArtist() != null) {
-                        try {
-                            artistName = album.getArtist().getArtistName();
-                        } catch (Exception e) {
-                            artistName = "Unknown Artist";
-                        }
-                    }
-                    dto.put("artistName", artistName);
-                    
-                    // ✅ Safe genre names extraction
-                    List<String> genreNames = List.of();
-                    try {
-                        genreNames = album.getGenres().stream()
-                            .map(g -> g.getName())
-                            .collect(Collectors.toList());
-                    } catch (Exception e) {
-                        // Ignore lazy load error
-                    }
-                    dto.put("genreNames", genreNames);
-                    
-                    // ✅ Safe song count
-                    int songCount = 0;
-                    try {
-                        songCount = album.getSongs().size();
-                    } catch (Exception e) {
-                        // Ignore lazy load error
-                    }
-                    dto.put("songCount", songCount);
-                    
-                    return dto;
-                })
-                .collect(Collectors.toList());
-                
+            // ✅ DTO ringkasan dari service (artist + genres di-fetch sekali, hasil di-cache)
+            List<AlbumSummaryResponse> albumList = albumService.getAllAlbumSummaries();
             return ResponseEntity.ok(ApiResponse.success("Albums retrieved successfully", albumList));
         } catch (Exception e) {
             logger.error("Error fetching all albums: ", e);
@@ -99,71 +69,27 @@ public class AlbumController {
     /**
      * GET album berdasarkan ID - untuk detail album page
      * GET /api/albums/{albumId}
+     * Satu response berisi album, artist, genres, track urut + total durasi (satu fetch-join query).
+     * ETag = version album; If-None-Match yang cocok → 304 tanpa load detail.
      */
     @GetMapping("/{albumId}")
-    public ResponseEntity<ApiResponse<?>> getAlbumById(@PathVariable String albumId) {
+    public ResponseEntity<ApiResponse<AlbumDetailResponse>> getAlbumById(@PathVariable String albumId,
+                                                                        WebRequest webRequest) {
         try {
-            Album album = albumService.getAlbumById(albumId);
-            
-            // ✅ Detail page mapping (lebih lengkap)
-            Map<String, Object> dto = new HashMap<>();
-            dto.put("albumId", album.getAlbumId());
-            dto.put("title", album.getTitle());
-            dto.put("releaseYear", album.getReleaseYear());
-            dto.put("coverEmoji", album.getCoverEmoji());
-            
-            // Artist (safe)
-            Map<String, Object> artistDto = new HashMap<>();
-            if (album.getArtist() != null) {
-                try {
-                    artistDto.put("artistId", album.getArtist().getArtistId());
-                    artistDto.put("artistName", album.getArtist().getArtistName());
-                } catch (Exception e) {
-                    // Fallback
-                }
-            }
-            dto.put("artist", artistDto);
-            
-            // Genres
-            List<Map<String, Object>> genres = List.of();
-            try {
-                genres = album.getGenres().stream()
-                    .map(g -> {
-                        Map<String, Object> genreDto = new HashMap<>();
-                        genreDto.put("id", g.getId());
-                        genreDto.put("name", g.getName());
-                        return genreDto;
-                    })
-                    .collect(Collectors.toList());
-            } catch (Exception e) {
-                // Ignore
-            }
-            dto.put("genres", genres);
-            
-            // Songs (untuk player)
-            List<Map<String, Object>> songs = List.of();
-            try {
-                songs = album.getSongs().stream()
-                    .map(s -> {
-                        Map<String, Object> songDto = new HashMap<>();
-                        songDto.put("songId", s.getSongId());
-                        songDto.put("title", s.getTitle());
-                        return songDto;
-                    })
-                    .collect(Collectors.toList());
-            } catch (Exception e) {
-                // Ignore
+            long version = albumService.getAlbumVersion(albumId);
+            String etag = "\"" + version + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
-            dto.put("songs", songs);
-            
-            return ResponseEntity.ok(ApiResponse.success("Album retrieved successfully", dto));
-        } catch (IllegalArgumentException e) {
+
+            AlbumDetailResponse detail = albumService.getAlbumDetail(albumId, version); // cache per (albumId, version)
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success("Album retrieved successfully", detail));
+        } catch (AlbumNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error(e.getMessage()));
-        } catch (Exception e) {
-            logger.error("Error fetching album: ", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body(ApiResponse.error("Failed to fetch album"));
         }
     }
 
@@ -185,6 +111,23 @@ public class AlbumController {
         }
     }
 
+    /**
+     * Download seluruh album sebagai satu ZIP (dibangun sambil streaming, tanpa temp file)
+     * GET /api/albums/{albumId}/download
+     */
+    @GetMapping("/{albumId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadAlbum(@PathVariable String albumId) {
+        ArchiveDownloadService.Archive archive = archiveDownloadService.prepareAlbum(albumId); // 404 lewat GlobalExceptionHandler
+        logger.info("Album download {}: {} tracks", albumId, archive.tracks().size());
+
+        StreamingResponseBody body = archiveDownloadService.stream(archive); // 503 lewat GlobalExceptionHandler kalau slot penuh
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(archive.fileName(), StandardCharsets.UTF_8).build().toString())
+            .body(body);
+    }
+
     /**
      * GET album berdasarkan artist
      * GET /api/albums/artist/{artistId}
@@ -204,7 +147,7 @@ public class AlbumController {
                     dto.put("coverEmoji", album.getCoverEmoji());
                     dto.put("artistName", album.getArtist() != null ? album.getArtist().getArtistName() : null);
                     dto.put("genreNames", album.getGenres().stream().map(g -> g.getName()).collect(Collectors.toList()));
-                    dto.put("songCount", album.getSongs().size());
+                    dto.put("songCount", album.getTotalSongs());
                     return dto;
                 })
                 .collect(Collectors.toList());
@@ -0,0 +1,55 @@
+package melodia.controller.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import melodia.model.dto.common.ApiResponse;
+import melodia.model.dto.response.ChartResponse;
+import melodia.model.service.music.ChartService;
+
+@RestController
+@RequestMapping("/api/charts")
+public class ChartController {
+
+    @Autowired
+    private ChartService chartService;
+
+    // ==================== Charts (snapshot, dihitung di background) ====================
+
+    /**
+     * GET /api/charts/trending?genreId=&limit=
+     * Lagu trending berdasarkan play ter-decay (half-life, lihat melodia.charts.trending-half-life)
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<ApiResponse<ChartResponse>> getTrending(
+            @RequestParam(required = false) String genreId,
+            @RequestParam(defaultValue = "0") int limit) {
+
+        ChartResponse chart = chartService.getTrending(genreId, limit);
+        return ResponseEntity.ok(ApiResponse.success("Trending chart retrieved", chart));
+    }
+
+    /**
+     * GET /api/charts/top?window=24h|7d&genreId=&limit=
+     * Lagu paling banyak diputar dalam window waktu
+     */
+    @GetMapping("/top")
+    public ResponseEntity<ApiResponse<ChartResponse>> getTop(
+            @RequestParam(defaultValue = ChartService.WINDOW_24H) String window,
+            @RequestParam(required = false) String genreId,
+            @RequestParam(defaultValue = "0") int limit) {
+
+        try {
+            ChartResponse chart = chartService.getTop(window, genreId, limit);
+            return ResponseEntity.ok(ApiResponse.success("Top chart retrieved", chart));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package melodia.controller.user;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -15,10 +17,16 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
+import melodia.controller.exception.user.UserNotFoundException;
 import melodia.model.dto.common.ApiResponse;
 import melodia.model.dto.request.user.AddSongToHistoryRequestDTO;
+import melodia.model.dto.request.user.PlayEventBatchRequestDTO;
+import melodia.model.dto.request.user.PlayedStatusRequestDTO;
 import melodia.model.dto.response.history.HistoryResponseDTO;
+import melodia.model.dto.response.history.ListeningStatsResponseDTO;
+import melodia.model.dto.response.history.PlayEventBatchResponseDTO;
 import melodia.model.dto.response.history.PlayedSongsResponseDTO;
+import melodia.model.dto.response.history.PlayedStatusResponseDTO;
 import melodia.model.dto.response.history.SongPlayedCheckResponseDTO;
 import melodia.model.entity.Song;
 import melodia.model.repository.SongRepository;
@@ -90,8 +98,8 @@ public class HistoryController {
     /**
      * POST /api/history/{userId}/songs
      * Menambahkan lagu ke history (saat user play song)
-     * ✅ Auto-create history kalau belum ada
-     * ✅ Move to front kalau lagu sudah pernah diputar
+     * ✅ 202 Accepted: play masuk write-behind buffer + journal lokal, di-flush batch ke play_events
+     * ✅ Lagu yang diputar ulang otomatis muncul paling depan di "recently played" setelah flush
      */
     @PostMapping("/{userId}/songs")
     public ResponseEntity<ApiResponse<?>> addSongToHistory(
@@ -99,14 +107,14 @@ public class HistoryController {
             @Valid @RequestBody AddSongToHistoryRequestDTO request) {
         
         try {
-            Song song = songRepository.findById(request.getSongId())
-                .orElseThrow(() -> new IllegalArgumentException("Song tidak ditemukan"));
-
-            historyService.addSongToHistory(userId, song);
+            String eventId = historyService.recordPlay(userId, request.getSongId());
             
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponse.success("Song berhasil ditambahkan ke history"));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("Song berhasil ditambahkan ke history", eventId));
             
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest()
                     .body(ApiResponse.error(e.getMessage()));
@@ -116,6 +124,25 @@ public class HistoryController {
         }
     }
 
+    /**
+     * POST /api/history/{userId}/events:batch
+     * Sync banyak play event sekaligus (client offline / batching). Event ID & playedAt dari client;
+     * event yang sudah pernah diterima di-skip, jadi kirim ulang batch yang sama aman.
+     */
+    @PostMapping("/{userId}/events:batch")
+    public ResponseEntity<ApiResponse<PlayEventBatchResponseDTO>> ingestPlayEvents(
+            @PathVariable String userId,
+            @Valid @RequestBody PlayEventBatchRequestDTO request) {
+
+        try {
+            PlayEventBatchResponseDTO response = historyService.ingestPlayEvents(userId, request.getEvents());
+            return ResponseEntity.ok(ApiResponse.success("Play events synced", response));
+        } catch (UserNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     // ==================== Remove Song from History ====================
 
     /**
@@ -167,8 +194,7 @@ public class HistoryController {
             @PathVariable String userId,
             @PathVariable String songId) {
         
-        Song song = songRepository.findById(songId).orElse(null);
-        boolean hasPlayed = song != null && historyService.hasUserPlayedSong(userId, song);
+        boolean hasPlayed = historyService.hasUserPlayedSong(userId, songId);
         
         SongPlayedCheckResponseDTO response = new SongPlayedCheckResponseDTO(
             userId,
@@ -179,6 +205,23 @@ public class HistoryController {
         return ResponseEntity.ok(ApiResponse.success("Song play status retrieved", response));
     }
 
+    /**
+     * POST /api/history/{userId}/songs/played
+     * Status played untuk banyak lagu sekaligus (satu request per halaman list, bukan per lagu)
+     */
+    @PostMapping("/{userId}/songs/played")
+    public ResponseEntity<ApiResponse<PlayedStatusResponseDTO>> checkSongsPlayed(
+            @PathVariable String userId,
+            @Valid @RequestBody PlayedStatusRequestDTO request) {
+
+        PlayedStatusResponseDTO response = new PlayedStatusResponseDTO(
+            userId,
+            historyService.getPlayedStatus(userId, request.getSongIds())
+        );
+
+        return ResponseEntity.ok(ApiResponse.success("Songs play status retrieved", response));
+    }
+
     // ==================== Get History Summary ====================
 
     /**
@@ -197,4 +240,26 @@ public class HistoryController {
         
         return ResponseEntity.ok(ApiResponse.success("History summary retrieved", response));
     }
+
+    // ==================== Listening Stats ====================
+
+    /**
+     * GET /api/history/{userId}/stats?from=2025-01-01&to=2025-01-31&limit=10
+     * Top artist/genre/lagu user dalam rentang tanggal (default: bulan berjalan)
+     */
+    @GetMapping("/{userId}/stats")
+    public ResponseEntity<ApiResponse<ListeningStatsResponseDTO>> getListeningStats(
+            @PathVariable String userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        try {
+            ListeningStatsResponseDTO response = historyService.getListeningStats(userId, from, to, limit);
+            return ResponseEntity.ok(ApiResponse.success("Listening stats retrieved", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
 }
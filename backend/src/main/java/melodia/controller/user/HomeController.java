@@ -0,0 +1,47 @@
+package melodia.controller.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import melodia.model.dto.common.ApiResponse;
+import melodia.model.service.music.HomeFeedService;
+
+@RestController
+@RequestMapping("/api/home")
+public class HomeController {
+
+    @Autowired
+    private HomeFeedService homeFeedService;
+
+    /**
+     * GET /api/home/feed
+     * Lagu terbaru, album pilihan, genre dan lagu populer dalam satu response.
+     * Body sudah diserialisasi di background (lihat HomeFeedService): tanpa query DB per request.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<?> getHomeFeed(WebRequest webRequest) {
+        HomeFeedService.Snapshot feed = homeFeedService.getSnapshot();
+        if (feed == null) {
+            // Rebuild pertama setelah startup belum selesai
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(ApiResponse.error("Home feed is not ready yet"));
+        }
+        if (webRequest.checkNotModified(feed.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(feed.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(feed.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(feed.body());
+    }
+}
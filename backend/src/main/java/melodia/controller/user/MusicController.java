@@ -2,6 +2,7 @@ package melodia.controller.user;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,15 +19,20 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import melodia.model.dto.common.ApiResponse;
-import melodia.model.entity.Song;
+import melodia.model.dto.response.RecommendationResponse;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.service.music.ContentSimilarityService;
 import melodia.model.service.music.FileStorageService;
 import melodia.model.service.music.MusicService;
+import melodia.model.service.music.SongPlayCountService;
+import melodia.model.service.user.HistoryService;
 
 @RestController
 @RequestMapping("/api")
 public class MusicController {
 
     private static final Logger logger = LoggerFactory.getLogger(MusicController.class);
+    private static final int MAX_SIMILAR = 100;
 
     @Autowired
     private MusicService musicService;
@@ -34,20 +40,30 @@ public class MusicController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private SongPlayCountService songPlayCountService;
+
+    @Autowired
+    private ContentSimilarityService contentSimilarityService;
+
     // ==================== SONG ENDPOINTS ====================
+    // * Endpoint list menerima ?userId= opsional → tiap lagu ikut membawa flag "played" milik user tsb
 
     @GetMapping("/songs")
-    public ResponseEntity<ApiResponse<List<Song>>> getAllSongs() {
+    public ResponseEntity<ApiResponse<List<SongResponse>>> getAllSongs(@RequestParam(required = false) String userId) {
         logger.debug("Fetching all songs");
-        List<Song> songs = musicService.getAllSongs();
+        List<SongResponse> songs = musicService.getAllSongs();
         logger.info("✅ Found {} songs", songs.size());
-        return ResponseEntity.ok(ApiResponse.success("Songs fetched successfully", songs));
+        return ResponseEntity.ok(ApiResponse.success("Songs fetched successfully", historyService.annotatePlayed(userId, songs)));
     }
 
     @GetMapping("/songs/{id}")
-    public ResponseEntity<ApiResponse<Song>> getSongById(@PathVariable String id) {
+    public ResponseEntity<ApiResponse<SongResponse>> getSongById(@PathVariable String id) {
         logger.debug("Fetching song by id: {}", id);
-        Song song = musicService.getSongById(id);
+        SongResponse song = musicService.getSongResponseById(id); // cached
         if (song == null) {
             logger.warn("Song not found: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -57,52 +73,88 @@ public class MusicController {
         return ResponseEntity.ok(ApiResponse.success("Song fetched successfully", song));
     }
 
+    /**
+     * Total pemutaran lagu (tersimpan + delta yang belum di-flush)
+     * GET /api/songs/{id}/play-count
+     */
+    @GetMapping("/songs/{id}/play-count")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSongPlayCount(@PathVariable String id) {
+        Map<String, Long> counts = songPlayCountService.getPlayCounts(List.of(id));
+        if (!counts.containsKey(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("Song not found"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Play count fetched successfully",
+                Map.of("songId", id, "playCount", counts.get(id))));
+    }
+
+    /**
+     * Lagu mirip (genre, artist, tahun rilis, album) dari daftar yang sudah dihitung di background
+     * GET /api/songs/{id}/similar?limit=
+     */
+    @GetMapping("/songs/{id}/similar")
+    public ResponseEntity<ApiResponse<RecommendationResponse>> getSimilarSongs(@PathVariable String id,
+                                                                              @RequestParam(defaultValue = "20") int limit) {
+        try {
+            RecommendationResponse similar = contentSimilarityService.getSimilar(id, Math.max(1, Math.min(limit, MAX_SIMILAR)));
+            return ResponseEntity.ok(ApiResponse.success("Similar songs fetched successfully", similar));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/songs/search")
-    public ResponseEntity<ApiResponse<List<Song>>> searchSongs(@RequestParam String query) {
+    public ResponseEntity<ApiResponse<List<SongResponse>>> searchSongs(@RequestParam String query,
+                                                                      @RequestParam(required = false) String userId) {
         logger.debug("Searching songs with query: {}", query);
-        List<Song> songsByTitle = musicService.searchByTitle(query);
+        List<SongResponse> songsByTitle = musicService.searchByTitle(query);
         
         if (songsByTitle.isEmpty()) {
             logger.debug("No songs found by title, searching by artist");
-            List<Song> songsByArtist = musicService.searchByArtist(query);
+            List<SongResponse> songsByArtist = musicService.searchByArtist(query);
             logger.info("✅ Found {} songs by artist", songsByArtist.size());
-            return ResponseEntity.ok(ApiResponse.success("Songs found by artist", songsByArtist));
+            return ResponseEntity.ok(ApiResponse.success("Songs found by artist", historyService.annotatePlayed(userId, songsByArtist)));
         }
         
         logger.info("✅ Found {} songs by title", songsByTitle.size());
-        return ResponseEntity.ok(ApiResponse.success("Songs found by title", songsByTitle));
+        return ResponseEntity.ok(ApiResponse.success("Songs found by title", historyService.annotatePlayed(userId, songsByTitle)));
     }
 
     @GetMapping("/songs/search/title")
-    public ResponseEntity<ApiResponse<List<Song>>> searchByTitle(@RequestParam String query) {
+    public ResponseEntity<ApiResponse<List<SongResponse>>> searchByTitle(@RequestParam String query,
+                                                                        @RequestParam(required = false) String userId) {
         logger.debug("Searching songs by title: {}", query);
-        List<Song> songs = musicService.searchByTitle(query);
+        List<SongResponse> songs = musicService.searchByTitle(query);
         logger.info("✅ Found {} songs", songs.size());
-        return ResponseEntity.ok(ApiResponse.success("Songs found by title", songs));
+        return ResponseEntity.ok(ApiResponse.success("Songs found by title", historyService.annotatePlayed(userId, songs)));
     }
 
     @GetMapping("/songs/search/artist")
-    public ResponseEntity<ApiResponse<List<Song>>> searchByArtist(@RequestParam String query) {
+    public ResponseEntity<ApiResponse<List<SongResponse>>> searchByArtist(@RequestParam String query,
+                                                                         @RequestParam(required = false) String userId) {
         logger.debug("Searching songs by artist: {}", query);
-        List<Song> songs = musicService.searchByArtist(query);
+        List<SongResponse> songs = musicService.searchByArtist(query);
         logger.info("✅ Found {} songs", songs.size());
-        return ResponseEntity.ok(ApiResponse.success("Songs found by artist", songs));
+        return ResponseEntity.ok(ApiResponse.success("Songs found by artist", historyService.annotatePlayed(userId, songs)));
     }
 
     @GetMapping("/songs/filter/genre")
-    public ResponseEntity<ApiResponse<List<Song>>> filterByGenre(@RequestParam String name) {
+    public ResponseEntity<ApiResponse<List<SongResponse>>> filterByGenre(@RequestParam String name,
+                                                                        @RequestParam(required = false) String userId) {
         logger.debug("Filtering songs by genre: {}", name);
-        List<Song> songs = musicService.filterByGenre(name);
+        List<SongResponse> songs = musicService.filterByGenre(name);
         logger.info("✅ Found {} songs for genre: {}", songs.size(), name);
-        return ResponseEntity.ok(ApiResponse.success("Songs filtered by genre", songs));
+        return ResponseEntity.ok(ApiResponse.success("Songs filtered by genre", historyService.annotatePlayed(userId, songs)));
     }
 
     @GetMapping("/songs/filter/year")
-    public ResponseEntity<ApiResponse<List<Song>>> filterByYear(@RequestParam int year) {
+    public ResponseEntity<ApiResponse<List<SongResponse>>> filterByYear(@RequestParam int year,
+                                                                       @RequestParam(required = false) String userId) {
         logger.debug("Filtering songs by year: {}", year);
-        List<Song> songs = musicService.filterByReleaseYear(year);
+        List<SongResponse> songs = musicService.filterByReleaseYear(year);
         logger.info("✅ Found {} songs for year: {}", songs.size(), year);
-        return ResponseEntity.ok(ApiResponse.success("Songs filtered by year", songs));
+        return ResponseEntity.ok(ApiResponse.success("Songs filtered by year", historyService.annotatePlayed(userId, songs)));
     }
 
     /**
@@ -114,8 +166,8 @@ public class MusicController {
         logger.info("Streaming song request for id: {}", id);
         
         try {
-            // Get song from database
-            Song song = musicService.getSongById(id);
+            // Get song metadata (read-through cache, tidak ke DB di setiap stream)
+            SongResponse song = musicService.getSongResponseById(id);
             if (song == null) {
                 logger.error("Song not found in database: {}", id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
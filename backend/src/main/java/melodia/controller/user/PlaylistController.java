@@ -1,12 +1,17 @@
 package melodia.controller.user;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus; 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,10 +22,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.validation.Valid;
 import melodia.model.dto.common.ApiResponse;
+import melodia.model.dto.request.user.PlaylistBatchRequestDTO;
+import melodia.model.dto.response.PlaylistBatchResponse;
+import melodia.model.dto.response.PlaylistChangesResponse;
 import melodia.model.entity.Playlist;
 import melodia.model.entity.Song;
+import melodia.model.service.music.ArchiveDownloadService;
 import melodia.model.service.music.PlaylistService;
 
 @RestController
@@ -33,6 +45,9 @@ public class PlaylistController {
     @Autowired
     private PlaylistService playlistService;
 
+    @Autowired
+    private ArchiveDownloadService archiveDownloadService;
+
     /**
      * Create new playlist
      * POST /api/playlists
@@ -88,14 +103,24 @@ public class PlaylistController {
     }
 
     @GetMapping("/{playlistId}")
-    public ResponseEntity<ApiResponse<Playlist>> getPlaylistById(@PathVariable String playlistId) {
+    public ResponseEntity<ApiResponse<Playlist>> getPlaylistById(
+        @PathVariable String playlistId,
+        WebRequest webRequest
+    ) {
         logger.info("========== GET PLAYLIST BY ID ==========");
         logger.debug("playlistId: {}", playlistId);
         
         try {
             Playlist playlist = playlistService.getPlaylistById(playlistId);
+            String etag = versionETag(playlist.getVersion());
+            if (webRequest.checkNotModified(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             logger.info("✅ Playlist found: {}", playlist.getName());
-            return ResponseEntity.ok(ApiResponse.success("Playlist retrieved successfully", playlist));
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success("Playlist retrieved successfully", playlist));
         } catch (Exception e) {
             logger.error("❌ ERROR: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -187,6 +212,56 @@ public class PlaylistController {
         }
     }
 
+    /**
+     * POST /api/playlists/{playlistId}/songs:batch
+     * Banyak add/remove/move dalam satu request & satu transaksi (misalnya tambah satu album ke playlist).
+     * Kalau satu operasi gagal (lagu tidak ditemukan, bukan pemilik), tidak ada perubahan yang tersimpan.
+     */
+    @PostMapping("/{playlistId}/songs:batch")
+    public ResponseEntity<ApiResponse<?>> applyPlaylistBatch(
+        @PathVariable String playlistId,
+        @Valid @RequestBody PlaylistBatchRequestDTO request
+    ) {
+        logger.info("========== BATCH EDIT PLAYLIST ==========");
+        logger.debug("playlistId: {}, userId: {}, operations: {}",
+            playlistId, request.getUserId(), request.getOperations().size());
+
+        try {
+            PlaylistBatchResponse response =
+                playlistService.applyBatch(playlistId, request.getUserId(), request.getOperations());
+            logger.info("✅ Batch applied: +{} -{} ~{}", response.getAdded(), response.getRemoved(), response.getMoved());
+            return ResponseEntity.ok(ApiResponse.success("Playlist updated", response));
+        } catch (Exception e) {
+            logger.error("❌ ERROR: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PutMapping("/{playlistId}/songs/{songId}/position")
+    public ResponseEntity<ApiResponse<?>> moveSongInPlaylist(
+        @PathVariable String playlistId,
+        @PathVariable String songId,
+        @RequestBody Map<String, String> request
+    ) {
+        logger.info("========== MOVE SONG IN PLAYLIST ==========");
+        logger.debug("playlistId: {}, songId: {}, Request: {}", playlistId, songId, request);
+
+        try {
+            String userId = request.get("userId");
+            String afterSongId = request.get("afterSongId"); // null/kosong = pindah ke paling atas
+
+            playlistService.moveSongInPlaylist(playlistId, songId,
+                afterSongId == null || afterSongId.isBlank() ? null : afterSongId, userId);
+            logger.info("✅ Song moved successfully");
+            return ResponseEntity.ok(ApiResponse.success("Song moved in playlist"));
+        } catch (Exception e) {
+            logger.error("❌ ERROR: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<Playlist>>> searchPlaylists(@RequestParam String query) {
         logger.info("========== SEARCH PLAYLISTS ==========");
@@ -204,18 +279,73 @@ public class PlaylistController {
     }
 
     @GetMapping("/{playlistId}/songs")
-    public ResponseEntity<ApiResponse<List<Song>>> getPlaylistSongs(@PathVariable String playlistId) {
+    public ResponseEntity<ApiResponse<List<Song>>> getPlaylistSongs(
+        @PathVariable String playlistId,
+        WebRequest webRequest
+    ) {
         logger.info("========== GET PLAYLIST SONGS ==========");
         logger.debug("playlistId: {}", playlistId);
         
         try {
+            // * Version dibaca sebelum isi: kalau ada perubahan di antaranya, ETag lebih tua dari isi → revalidasi berikutnya fetch ulang
+            String etag = versionETag(playlistService.getPlaylistVersion(playlistId));
+            if (webRequest.checkNotModified(etag)) {
+                logger.debug("Playlist {} not modified ({})", playlistId, etag);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
             List<Song> songs = playlistService.getPlaylistSongs(playlistId);
             logger.info("✅ Found {} songs", songs.size());
-            return ResponseEntity.ok(ApiResponse.success("Playlist songs retrieved", songs));
+            return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(ApiResponse.success("Playlist songs retrieved", songs));
+        } catch (Exception e) {
+            logger.error("❌ ERROR: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/playlists/{playlistId}/changes?since={version}
+     * Delta sync: hanya perubahan setelah version yang dimiliki client (version = ETag playlist).
+     */
+    @GetMapping("/{playlistId}/changes")
+    public ResponseEntity<ApiResponse<PlaylistChangesResponse>> getPlaylistChanges(
+        @PathVariable String playlistId,
+        @RequestParam long since
+    ) {
+        logger.debug("Get playlist changes: playlistId={}, since={}", playlistId, since);
+
+        try {
+            PlaylistChangesResponse changes = playlistService.getChanges(playlistId, since);
+            return ResponseEntity.ok(ApiResponse.success("Playlist changes retrieved", changes));
         } catch (Exception e) {
             logger.error("❌ ERROR: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error(e.getMessage()));
         }
     }
+
+    // ETag playlist = version (naik tepat satu kali di setiap perubahan isi, metadata, atau data lagu di dalamnya)
+    private static String versionETag(Long version) {
+        return "\"" + (version != null ? version : 0L) + "\"";
+    }
+
+    /**
+     * Download isi playlist sebagai satu ZIP, urut sesuai posisi (streaming, tanpa temp file)
+     * GET /api/playlists/{playlistId}/download
+     */
+    @GetMapping("/{playlistId}/download")
+    public ResponseEntity<StreamingResponseBody> downloadPlaylist(@PathVariable String playlistId) {
+        ArchiveDownloadService.Archive archive = archiveDownloadService.preparePlaylist(playlistId); // 404 lewat GlobalExceptionHandler
+        logger.info("Playlist download {}: {} tracks", playlistId, archive.tracks().size());
+
+        StreamingResponseBody body = archiveDownloadService.stream(archive); // 503 lewat GlobalExceptionHandler kalau slot penuh
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/zip"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(archive.fileName(), StandardCharsets.UTF_8).build().toString())
+            .body(body);
+    }
 }
@@ -0,0 +1,66 @@
+package melodia.controller.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import melodia.model.dto.common.ApiResponse;
+import melodia.model.dto.response.RecommendationResponse;
+import melodia.model.service.music.CoPlayRecommendationService;
+
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private CoPlayRecommendationService coPlayRecommendationService;
+
+    // ==================== Co-occurrence (snapshot, dihitung di background) ====================
+
+    /**
+     * GET /api/recommendations/songs/{songId}/also-played?limit=
+     * "Fans juga memutar": lagu yang paling sering diputar/diplaylist-kan bersama lagu ini
+     */
+    @GetMapping("/songs/{songId}/also-played")
+    public ResponseEntity<ApiResponse<RecommendationResponse>> getAlsoPlayed(
+            @PathVariable String songId,
+            @RequestParam(defaultValue = "20") int limit) {
+
+        try {
+            RecommendationResponse response = coPlayRecommendationService.getAlsoPlayed(songId, clamp(limit));
+            return ResponseEntity.ok(ApiResponse.success("Recommendations retrieved", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * GET /api/recommendations/songs/{songId}/radio?limit=
+     * Antrean radio otomatis yang dimulai dari satu lagu
+     */
+    @GetMapping("/songs/{songId}/radio")
+    public ResponseEntity<ApiResponse<RecommendationResponse>> getRadio(
+            @PathVariable String songId,
+            @RequestParam(defaultValue = "25") int limit) {
+
+        try {
+            RecommendationResponse response = coPlayRecommendationService.getRadio(songId, clamp(limit));
+            return ResponseEntity.ok(ApiResponse.success("Radio queue retrieved", response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,63 @@
+package melodia.model.dto.request.user;
+
+import java.time.Instant;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class PlayEventBatchRequestDTO {
+
+    @NotEmpty(message = "Events tidak boleh kosong")
+    @Size(max = 500, message = "Maksimal 500 event per request")
+    @Valid
+    private List<PlayEventItem> events;
+
+    public PlayEventBatchRequestDTO() {}
+
+    public PlayEventBatchRequestDTO(List<PlayEventItem> events) {
+        this.events = events;
+    }
+
+    // Getters & Setters
+    public List<PlayEventItem> getEvents() { return events; }
+    public void setEvents(List<PlayEventItem> events) { this.events = events; }
+
+    // ==================== Inner Class: Play Event Item ====================
+
+    public static class PlayEventItem {
+
+        // * Dibuat di client (UUID), kunci idempotensi: kirim ulang event yang sama aman
+        @NotBlank(message = "Event ID tidak boleh kosong")
+        @Pattern(regexp = "^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$",
+                 message = "Event ID harus UUID")
+        private String eventId;
+
+        @NotBlank(message = "Song ID tidak boleh kosong")
+        private String songId;
+
+        @NotNull(message = "playedAt tidak boleh kosong")
+        private Instant playedAt;
+
+        public PlayEventItem() {}
+
+        public PlayEventItem(String eventId, String songId, Instant playedAt) {
+            this.eventId = eventId;
+            this.songId = songId;
+            this.playedAt = playedAt;
+        }
+
+        public String getEventId() { return eventId; }
+        public void setEventId(String eventId) { this.eventId = eventId; }
+
+        public String getSongId() { return songId; }
+        public void setSongId(String songId) { this.songId = songId; }
+
+        public Instant getPlayedAt() { return playedAt; }
+        public void setPlayedAt(Instant playedAt) { this.playedAt = playedAt; }
+    }
+}
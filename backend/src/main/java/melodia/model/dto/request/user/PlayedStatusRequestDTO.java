@@ -0,0 +1,23 @@
+package melodia.model.dto.request.user;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class PlayedStatusRequestDTO {
+
+    @NotEmpty(message = "Song IDs tidak boleh kosong")
+    @Size(max = 500, message = "Maksimal 500 song ID per request")
+    private List<String> songIds;
+
+    public PlayedStatusRequestDTO() {}
+
+    public PlayedStatusRequestDTO(List<String> songIds) {
+        this.songIds = songIds;
+    }
+
+    // Getters & Setters
+    public List<String> getSongIds() { return songIds; }
+    public void setSongIds(List<String> songIds) { this.songIds = songIds; }
+}
@@ -0,0 +1,66 @@
+package melodia.model.dto.request.user;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+public class PlaylistBatchRequestDTO {
+
+    @NotBlank(message = "User ID tidak boleh kosong")
+    private String userId;
+
+    @NotEmpty(message = "Operations tidak boleh kosong")
+    @Size(max = 500, message = "Maksimal 500 operasi per request")
+    @Valid
+    private List<Operation> operations;
+
+    public PlaylistBatchRequestDTO() {}
+
+    public PlaylistBatchRequestDTO(String userId, List<Operation> operations) {
+        this.userId = userId;
+        this.operations = operations;
+    }
+
+    // Getters & Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public List<Operation> getOperations() { return operations; }
+    public void setOperations(List<Operation> operations) { this.operations = operations; }
+
+    // ==================== Inner Class: Operation ====================
+
+    public static class Operation {
+
+        @NotBlank(message = "Op tidak boleh kosong")
+        @Pattern(regexp = "(?i)^(add|remove|move)$", message = "Op harus add, remove, atau move")
+        private String op;
+
+        @NotBlank(message = "Song ID tidak boleh kosong")
+        private String songId;
+
+        // * Hanya untuk move: lagu tujuan ditaruh tepat setelah lagu ini (null = paling atas)
+        private String afterSongId;
+
+        public Operation() {}
+
+        public Operation(String op, String songId, String afterSongId) {
+            this.op = op;
+            this.songId = songId;
+            this.afterSongId = afterSongId;
+        }
+
+        public String getOp() { return op; }
+        public void setOp(String op) { this.op = op; }
+
+        public String getSongId() { return songId; }
+        public void setSongId(String songId) { this.songId = songId; }
+
+        public String getAfterSongId() { return afterSongId; }
+        public void setAfterSongId(String afterSongId) { this.afterSongId = afterSongId; }
+    }
+}
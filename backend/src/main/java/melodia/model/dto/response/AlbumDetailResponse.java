@@ -0,0 +1,127 @@
+package melodia.model.dto.response;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import melodia.model.entity.Album;
+import melodia.model.entity.Song;
+
+/**
+ * DTO halaman detail album: album, artist, genres dan daftar track urut beserta total durasi.
+ * Immutable supaya aman disimpan di cache service-level (key = albumId + version).
+ */
+public class AlbumDetailResponse {
+    private final String albumId;
+    private final String title;
+    private final int releaseYear;
+    private final String coverEmoji;
+    private final long version; // * Sama dengan ETag response
+    private final ArtistInfo artist;
+    private final List<GenreInfo> genres;
+    private final List<Track> songs;
+    private final int songCount;
+    private final int totalDuration; // * Detik, jumlah durasi semua track
+
+    public AlbumDetailResponse(String albumId, String title, int releaseYear, String coverEmoji, long version,
+                               ArtistInfo artist, List<GenreInfo> genres, List<Track> songs) {
+        this.albumId = albumId;
+        this.title = title;
+        this.releaseYear = releaseYear;
+        this.coverEmoji = coverEmoji;
+        this.version = version;
+        this.artist = artist;
+        this.genres = genres != null ? genres : List.of();
+        this.songs = songs != null ? songs : List.of();
+        this.songCount = this.songs.size();
+        this.totalDuration = this.songs.stream().mapToInt(Track::getDuration).sum();
+    }
+
+    /**
+     * Mapping dari entity. Artist & songs sudah di-fetch (lihat AlbumRepository.findDetailById);
+     * genres di-load di sini, jadi harus dipanggil di dalam transaksi.
+     */
+    public static AlbumDetailResponse from(Album album) {
+        List<Track> tracks = new ArrayList<>(album.getSongs().size());
+        for (Song song : album.getSongs()) {
+            tracks.add(new Track(tracks.size() + 1, song.getSongId(), song.getTitle(), song.getArtistName(),
+                                 song.getDuration(), song.getReleaseYear()));
+        }
+        return new AlbumDetailResponse(
+            album.getAlbumId(),
+            album.getTitle(),
+            album.getReleaseYear(),
+            album.getCoverEmoji(),
+            album.getVersion() != null ? album.getVersion() : 0L,
+            album.getArtist() != null
+                ? new ArtistInfo(album.getArtist().getArtistId(), album.getArtist().getArtistName())
+                : null,
+            album.getGenres().stream().map(g -> new GenreInfo(g.getId(), g.getName())).toList(),
+            tracks
+        );
+    }
+
+    // Getters
+    public String getAlbumId() { return albumId; }
+    public String getTitle() { return title; }
+    public int getReleaseYear() { return releaseYear; }
+    public String getCoverEmoji() { return coverEmoji; }
+    public long getVersion() { return version; }
+    public ArtistInfo getArtist() { return artist; }
+    public List<GenreInfo> getGenres() { return genres; }
+    public List<Track> getSongs() { return songs; }
+    public int getSongCount() { return songCount; }
+    public int getTotalDuration() { return totalDuration; }
+
+    // ==================== Inner Classes ====================
+
+    public static class ArtistInfo {
+        private final String artistId;
+        private final String artistName;
+
+        public ArtistInfo(String artistId, String artistName) {
+            this.artistId = artistId;
+            this.artistName = artistName;
+        }
+
+        public String getArtistId() { return artistId; }
+        public String getArtistName() { return artistName; }
+    }
+
+    public static class GenreInfo {
+        private final String id;
+        private final String name;
+
+        public GenreInfo(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+    }
+
+    public static class Track {
+        private final int trackNumber; // * 1-based, urutan di album
+        private final String songId;
+        private final String title;
+        private final String artistName;
+        private final int duration;
+        private final int releaseYear;
+
+        public Track(int trackNumber, String songId, String title, String artistName, int duration, int releaseYear) {
+            this.trackNumber = trackNumber;
+            this.songId = songId;
+            this.title = title;
+            this.artistName = artistName;
+            this.duration = duration;
+            this.releaseYear = releaseYear;
+        }
+
+        public int getTrackNumber() { return trackNumber; }
+        public String getSongId() { return songId; }
+        public String getTitle() { return title; }
+        public String getArtistName() { return artistName; }
+        public int getDuration() { return duration; }
+        public int getReleaseYear() { return releaseYear; }
+    }
+}
@@ -0,0 +1,54 @@
+package melodia.model.dto.response;
+
+import java.util.List;
+
+import melodia.model.entity.Album;
+
+/**
+ * DTO ringkasan album untuk kartu album (home page, halaman artist).
+ * Immutable supaya aman disimpan di cache service-level.
+ */
+public class AlbumSummaryResponse {
+    private final String albumId;
+    private final String title;
+    private final int releaseYear;
+    private final String coverEmoji;
+    private final String artistName;
+    private final List<String> genreNames;
+    private final int songCount;
+
+    public AlbumSummaryResponse(String albumId, String title, int releaseYear, String coverEmoji,
+                                String artistName, List<String> genreNames, int songCount) {
+        this.albumId = albumId;
+        this.title = title;
+        this.releaseYear = releaseYear;
+        this.coverEmoji = coverEmoji;
+        this.artistName = artistName;
+        this.genreNames = genreNames != null ? genreNames : List.of();
+        this.songCount = songCount;
+    }
+
+    /**
+     * Mapping dari entity. Artist & genres sebaiknya sudah di-fetch (lihat AlbumRepository.findAllForListing).
+     */
+    public static AlbumSummaryResponse from(Album album) {
+        return new AlbumSummaryResponse(
+            album.getAlbumId(),
+            album.getTitle(),
+            album.getReleaseYear(),
+            album.getCoverEmoji(),
+            album.getArtist() != null ? album.getArtist().getArtistName() : "Unknown",
+            album.getGenres().stream().map(g -> g.getName()).toList(),
+            album.getTotalSongs()
+        );
+    }
+
+    // Getters
+    public String getAlbumId() { return albumId; }
+    public String getTitle() { return title; }
+    public int getReleaseYear() { return releaseYear; }
+    public String getCoverEmoji() { return coverEmoji; }
+    public String getArtistName() { return artistName; }
+    public List<String> getGenreNames() { return genreNames; }
+    public int getSongCount() { return songCount; }
+}
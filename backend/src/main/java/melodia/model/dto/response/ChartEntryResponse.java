@@ -0,0 +1,28 @@
+package melodia.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Satu baris chart: peringkat + lagu + nilai yang dipakai untuk meranking.
+ * Trending memakai score (play ter-decay), top window memakai plays (jumlah play di window).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChartEntryResponse {
+    private final int rank;
+    private final SongResponse song;
+    private final Double score;
+    private final Long plays;
+
+    public ChartEntryResponse(int rank, SongResponse song, Double score, Long plays) {
+        this.rank = rank;
+        this.song = song;
+        this.score = score;
+        this.plays = plays;
+    }
+
+    // Getters
+    public int getRank() { return rank; }
+    public SongResponse getSong() { return song; }
+    public Double getScore() { return score; }
+    public Long getPlays() { return plays; }
+}
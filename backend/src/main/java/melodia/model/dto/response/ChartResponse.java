@@ -0,0 +1,34 @@
+package melodia.model.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Snapshot chart yang sudah dihitung di background (lihat ChartService).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChartResponse {
+    private final String chart;    // "trending" atau "top"
+    private final String window;   // "24h" / "7d" untuk top, null untuk trending
+    private final String genreId;  // null = global
+    private final Instant generatedAt;
+    private final List<ChartEntryResponse> entries;
+
+    public ChartResponse(String chart, String window, String genreId,
+                         Instant generatedAt, List<ChartEntryResponse> entries) {
+        this.chart = chart;
+        this.window = window;
+        this.genreId = genreId;
+        this.generatedAt = generatedAt;
+        this.entries = entries != null ? entries : List.of();
+    }
+
+    // Getters
+    public String getChart() { return chart; }
+    public String getWindow() { return window; }
+    public String getGenreId() { return genreId; }
+    public Instant getGeneratedAt() { return generatedAt; }
+    public List<ChartEntryResponse> getEntries() { return entries; }
+}
@@ -13,6 +13,11 @@ public class GenreResponse {
         this.songCount = songCount;
     }
 
+    // Dipakai oleh constructor expression JPQL (COUNT(...) menghasilkan Long)
+    public GenreResponse(String id, String name, String description, Long songCount) {
+        this(id, name, description, songCount != null ? songCount.intValue() : 0);
+    }
+
     // Getters
     public String getId() { 
         return id; 
@@ -0,0 +1,33 @@
+package melodia.model.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Isi home page dalam satu response (lihat HomeFeedService).
+ * Dibangun di background lalu diserialisasi sekali; request hanya mengirim byte hasil serialisasi.
+ */
+public class HomeFeedResponse {
+    private final Instant generatedAt;
+    private final List<SongResponse> newReleases;          // * Lagu terbaru di-upload
+    private final List<AlbumSummaryResponse> featuredAlbums;
+    private final List<GenreResponse> genres;
+    private final List<ChartEntryResponse> popularSongs;   // * Dari chart trending
+
+    public HomeFeedResponse(Instant generatedAt, List<SongResponse> newReleases,
+                            List<AlbumSummaryResponse> featuredAlbums, List<GenreResponse> genres,
+                            List<ChartEntryResponse> popularSongs) {
+        this.generatedAt = generatedAt;
+        this.newReleases = newReleases != null ? newReleases : List.of();
+        this.featuredAlbums = featuredAlbums != null ? featuredAlbums : List.of();
+        this.genres = genres != null ? genres : List.of();
+        this.popularSongs = popularSongs != null ? popularSongs : List.of();
+    }
+
+    // Getters
+    public Instant getGeneratedAt() { return generatedAt; }
+    public List<SongResponse> getNewReleases() { return newReleases; }
+    public List<AlbumSummaryResponse> getFeaturedAlbums() { return featuredAlbums; }
+    public List<GenreResponse> getGenres() { return genres; }
+    public List<ChartEntryResponse> getPopularSongs() { return popularSongs; }
+}
@@ -0,0 +1,33 @@
+package melodia.model.dto.response;
+
+/**
+ * Hasil satu batch edit playlist (semua operasi diterapkan dalam satu transaksi).
+ */
+public class PlaylistBatchResponse {
+    private final String playlistId;
+    private final int received;  // operasi di request
+    private final int added;
+    private final int removed;
+    private final int moved;
+    private final int skipped;   // add lagu yang sudah ada, remove lagu yang tidak ada, move ke posisi sendiri
+    private final int songCount; // jumlah lagu playlist setelah batch
+
+    public PlaylistBatchResponse(String playlistId, int received, int added, int removed, int moved,
+                                 int skipped, int songCount) {
+        this.playlistId = playlistId;
+        this.received = received;
+        this.added = added;
+        this.removed = removed;
+        this.moved = moved;
+        this.skipped = skipped;
+        this.songCount = songCount;
+    }
+
+    public String getPlaylistId() { return playlistId; }
+    public int getReceived() { return received; }
+    public int getAdded() { return added; }
+    public int getRemoved() { return removed; }
+    public int getMoved() { return moved; }
+    public int getSkipped() { return skipped; }
+    public int getSongCount() { return songCount; }
+}
@@ -0,0 +1,66 @@
+package melodia.model.dto.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import melodia.model.entity.PlaylistChange;
+
+/**
+ * Delta isi playlist sejak version tertentu (GET /api/playlists/{id}/changes?since=).
+ * reset = true berarti delta tidak bisa dipakai (log sudah dipangkas, posisi di-renormalisasi,
+ * atau terlalu banyak perubahan): client harus fetch ulang GET /api/playlists/{id}/songs.
+ */
+public class PlaylistChangesResponse {
+    private final String playlistId;
+    private final long since;
+    private final long version;   // version terbaru yang sudah tercakup di changes
+    private final boolean reset;
+    private final List<ChangeItem> changes;
+
+    public PlaylistChangesResponse(String playlistId, long since, long version, boolean reset,
+                                   List<ChangeItem> changes) {
+        this.playlistId = playlistId;
+        this.since = since;
+        this.version = version;
+        this.reset = reset;
+        this.changes = changes != null ? changes : List.of();
+    }
+
+    public static PlaylistChangesResponse reset(String playlistId, long since, long version) {
+        return new PlaylistChangesResponse(playlistId, since, version, true, List.of());
+    }
+
+    // Getters
+    public String getPlaylistId() { return playlistId; }
+    public long getSince() { return since; }
+    public long getVersion() { return version; }
+    public boolean isReset() { return reset; }
+    public List<ChangeItem> getChanges() { return changes; }
+
+    // ==================== Inner Class: Change Item ====================
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class ChangeItem {
+        private final long version;
+        private final String op;        // ADD, REMOVE, MOVE, UPDATE, SONG
+        private final String songId;    // null untuk UPDATE
+        private final Long position;    // hanya untuk ADD & MOVE (urutkan isi playlist berdasarkan position)
+
+        public ChangeItem(long version, String op, String songId, Long position) {
+            this.version = version;
+            this.op = op;
+            this.songId = songId;
+            this.position = position;
+        }
+
+        public static ChangeItem from(PlaylistChange change) {
+            return new ChangeItem(change.getVersion(), change.getOp().name(), change.getSongId(), change.getPosition());
+        }
+
+        public long getVersion() { return version; }
+        public String getOp() { return op; }
+        public String getSongId() { return songId; }
+        public Long getPosition() { return position; }
+    }
+}
@@ -0,0 +1,47 @@
+package melodia.model.dto.response;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Daftar lagu rekomendasi dari satu lagu seed (lihat CoPlayRecommendationService, ContentSimilarityService).
+ * kind: "also-played" (tetangga langsung), "radio" (antrean hasil jalan di graf tetangga)
+ * atau "similar" (kemiripan konten: genre, artist, tahun rilis, album).
+ */
+public class RecommendationResponse {
+    private final String seedSongId;
+    private final String kind;
+    private final Instant generatedAt; // * Waktu snapshot model dibuat
+    private final List<Item> items;
+
+    public RecommendationResponse(String seedSongId, String kind, Instant generatedAt, List<Item> items) {
+        this.seedSongId = seedSongId;
+        this.kind = kind;
+        this.generatedAt = generatedAt;
+        this.items = items != null ? items : List.of();
+    }
+
+    // Getters
+    public String getSeedSongId() { return seedSongId; }
+    public String getKind() { return kind; }
+    public Instant getGeneratedAt() { return generatedAt; }
+    public List<Item> getItems() { return items; }
+
+    // ==================== Inner Class: Item ====================
+
+    public static class Item {
+        private final int rank;
+        private final SongResponse song;
+        private final double score; // * Skor kemiripan (0..1, makin besar makin mirip)
+
+        public Item(int rank, SongResponse song, double score) {
+            this.rank = rank;
+            this.song = song;
+            this.score = score;
+        }
+
+        public int getRank() { return rank; }
+        public SongResponse getSong() { return song; }
+        public double getScore() { return score; }
+    }
+}
@@ -0,0 +1,110 @@
+package melodia.model.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import melodia.model.entity.Song;
+
+/**
+ * DTO ringan untuk list lagu (home, search, filter).
+ * Datar: nama artist diambil dari kolom denormalized Song.artistName,
+ * genre hanya id + nama, jadi Jackson tidak menyentuh relasi lazy entity.
+ * Field played hanya muncul kalau list diminta dengan userId (lihat HistoryService.annotatePlayed).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SongResponse {
+    private final String songId;
+    private final String title;
+    private final String artistId;
+    private final String artistName;
+    private final int duration;
+    private final String filePath;
+    private final int releaseYear;
+    private final LocalDateTime uploadedAt;
+    private final List<GenreItem> genres;
+    private Integer songOrdinal; // * Internal: kunci index per-user (bitset), tidak ikut ke JSON
+    private Boolean played;      // * Opsional: status "pernah diputar" untuk user yang meminta
+
+    public SongResponse(String songId, String title, String artistId, String artistName,
+                        int duration, String filePath, int releaseYear,
+                        LocalDateTime uploadedAt, List<GenreItem> genres) {
+        this.songId = songId;
+        this.title = title;
+        this.artistId = artistId;
+        this.artistName = artistName;
+        this.duration = duration;
+        this.filePath = filePath;
+        this.releaseYear = releaseYear;
+        this.uploadedAt = uploadedAt;
+        this.genres = genres != null ? genres : List.of();
+    }
+
+    /**
+     * Mapping dari entity. Artist & genres harus sudah di-fetch (lihat query *ForListing di SongRepository).
+     */
+    public static SongResponse from(Song song) {
+        List<GenreItem> genres = song.getGenres().stream()
+            .map(g -> new GenreItem(g.getId(), g.getName()))
+            .toList();
+
+        SongResponse response = new SongResponse(
+            song.getSongId(),
+            song.getTitle(),
+            song.getArtist() != null ? song.getArtist().getArtistId() : null,
+            song.getArtistName(),
+            song.getDuration(),
+            song.getFilePath(),
+            song.getReleaseYear(),
+            song.getUploadedAt(),
+            genres
+        );
+        response.songOrdinal = song.getSongOrdinal();
+        return response;
+    }
+
+    /**
+     * Salinan dengan flag played terisi. Instance asli bisa berasal dari cache (dipakai bersama),
+     * jadi tidak boleh dimutasi langsung.
+     */
+    public SongResponse withPlayed(boolean played) {
+        SongResponse copy = new SongResponse(songId, title, artistId, artistName, duration,
+                                             filePath, releaseYear, uploadedAt, genres);
+        copy.songOrdinal = songOrdinal;
+        copy.played = played;
+        return copy;
+    }
+
+    // Getters
+    public String getSongId() { return songId; }
+    public String getTitle() { return title; }
+    public String getArtistId() { return artistId; }
+    public String getArtistName() { return artistName; }
+    public int getDuration() { return duration; }
+    public String getFilePath() { return filePath; }
+    public int getReleaseYear() { return releaseYear; }
+    public LocalDateTime getUploadedAt() { return uploadedAt; }
+    public List<GenreItem> getGenres() { return genres; }
+
+    @JsonIgnore
+    public Integer getSongOrdinal() { return songOrdinal; }
+
+    public Boolean getPlayed() { return played; }
+
+    // ==================== Inner Class: Genre Item ====================
+
+    public static class GenreItem {
+        private final String id;
+        private final String name;
+
+        public GenreItem(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+    }
+}
@@ -1,27 +1,46 @@
 package melodia.model.dto.response.admin;
 
+import java.time.Instant;
+
+/**
+ * Statistik dashboard admin. Dibaca dari counter in-memory AdminStatsService (tanpa query per request).
+ */
 public class AdminStatsResponse {
-    private int totalUsers;
-    private int totalArtists;
-    private int totalGenres;
-    private int bannedAccounts;
+    private final long totalUsers;
+    private final long totalArtists;
+    private final long totalGenres;
+    private final long bannedAccounts;
+    private final long totalSongs;
+    private final long totalAlbums;
+    private final long totalPlaylists;
+    private final long playsToday;
+    private final long storageBytes; // * Total ukuran file audio yang di-upload
+    private final Instant reconciledAt; // * Terakhir kali counter dicocokkan ulang dengan database
 
-    public AdminStatsResponse(int totalUsers, int totalArtists, int totalGenres, int bannedAccounts) {
+    public AdminStatsResponse(long totalUsers, long totalArtists, long totalGenres, long bannedAccounts,
+                              long totalSongs, long totalAlbums, long totalPlaylists, long playsToday,
+                              long storageBytes, Instant reconciledAt) {
         this.totalUsers = totalUsers;
         this.totalArtists = totalArtists;
         this.totalGenres = totalGenres;
         this.bannedAccounts = bannedAccounts;
+        this.totalSongs = totalSongs;
+        this.totalAlbums = totalAlbums;
+        this.totalPlaylists = totalPlaylists;
+        this.playsToday = playsToday;
+        this.storageBytes = storageBytes;
+        this.reconciledAt = reconciledAt;
     }
 
     // Getters
-    public int getTotalUsers() { return totalUsers; }
-    public int getTotalArtists() { return totalArtists; }
-    public int getTotalGenres() { return totalGenres; }
-    public int getBannedAccounts() { return bannedAccounts; }
-
-    // Setters
-    public void setTotalUsers(int totalUsers) { this.totalUsers = totalUsers; }
-    public void setTotalArtists(int totalArtists) { this.totalArtists = totalArtists; }
-    public void setTotalGenres(int totalGenres) { this.totalGenres = totalGenres; }
-    public void setBannedAccounts(int bannedAccounts) { this.bannedAccounts = bannedAccounts; }
+    public long getTotalUsers() { return totalUsers; }
+    public long getTotalArtists() { return totalArtists; }
+    public long getTotalGenres() { return totalGenres; }
+    public long getBannedAccounts() { return bannedAccounts; }
+    public long getTotalSongs() { return totalSongs; }
+    public long getTotalAlbums() { return totalAlbums; }
+    public long getTotalPlaylists() { return totalPlaylists; }
+    public long getPlaysToday() { return playsToday; }
+    public long getStorageBytes() { return storageBytes; }
+    public Instant getReconciledAt() { return reconciledAt; }
 }
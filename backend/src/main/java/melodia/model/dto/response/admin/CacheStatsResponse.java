@@ -0,0 +1,73 @@
+package melodia.model.dto.response.admin;
+
+import java.util.List;
+
+/**
+ * Statistik second-level cache Hibernate untuk dashboard admin.
+ * Hit ratio = hit / (hit + miss), 0 kalau belum ada akses.
+ */
+public class CacheStatsResponse {
+    private final long hitCount;
+    private final long missCount;
+    private final long putCount;
+    private final double hitRatio;
+    private final long queryCacheHitCount;
+    private final long queryCacheMissCount;
+    private final double queryCacheHitRatio;
+    private final List<RegionStats> regions;
+
+    public CacheStatsResponse(long hitCount, long missCount, long putCount,
+                              long queryCacheHitCount, long queryCacheMissCount,
+                              List<RegionStats> regions) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.putCount = putCount;
+        this.hitRatio = ratio(hitCount, missCount);
+        this.queryCacheHitCount = queryCacheHitCount;
+        this.queryCacheMissCount = queryCacheMissCount;
+        this.queryCacheHitRatio = ratio(queryCacheHitCount, queryCacheMissCount);
+        this.regions = regions;
+    }
+
+    static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    // Getters
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    public long getPutCount() { return putCount; }
+    public double getHitRatio() { return hitRatio; }
+    public long getQueryCacheHitCount() { return queryCacheHitCount; }
+    public long getQueryCacheMissCount() { return queryCacheMissCount; }
+    public double getQueryCacheHitRatio() { return queryCacheHitRatio; }
+    public List<RegionStats> getRegions() { return regions; }
+
+    // ==================== Inner Class: Region Stats ====================
+
+    public static class RegionStats {
+        private final String region;
+        private final long hitCount;
+        private final long missCount;
+        private final long putCount;
+        private final long elementCountInMemory;
+        private final double hitRatio;
+
+        public RegionStats(String region, long hitCount, long missCount, long putCount, long elementCountInMemory) {
+            this.region = region;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+            this.putCount = putCount;
+            this.elementCountInMemory = elementCountInMemory;
+            this.hitRatio = ratio(hitCount, missCount);
+        }
+
+        public String getRegion() { return region; }
+        public long getHitCount() { return hitCount; }
+        public long getMissCount() { return missCount; }
+        public long getPutCount() { return putCount; }
+        public long getElementCountInMemory() { return elementCountInMemory; }
+        public double getHitRatio() { return hitRatio; }
+    }
+}
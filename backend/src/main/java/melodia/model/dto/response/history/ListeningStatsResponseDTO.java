@@ -0,0 +1,79 @@
+package melodia.model.dto.response.history;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import melodia.model.dto.response.SongResponse;
+
+/**
+ * Statistik dengar user dalam rentang tanggal (gabungan rollup harian user_daily_stats).
+ */
+public class ListeningStatsResponseDTO {
+    private final String userId;
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int activeDays;
+    private final long totalPlays;
+    private final long listenedSeconds;
+    private final List<StatItem> topArtists;
+    private final List<StatItem> topGenres;
+    private final List<SongStatItem> topSongs;
+
+    public ListeningStatsResponseDTO(String userId, LocalDate from, LocalDate to, int activeDays,
+                                     long totalPlays, long listenedSeconds, List<StatItem> topArtists,
+                                     List<StatItem> topGenres, List<SongStatItem> topSongs) {
+        this.userId = userId;
+        this.from = from;
+        this.to = to;
+        this.activeDays = activeDays;
+        this.totalPlays = totalPlays;
+        this.listenedSeconds = listenedSeconds;
+        this.topArtists = topArtists;
+        this.topGenres = topGenres;
+        this.topSongs = topSongs;
+    }
+
+    // Getters
+    public String getUserId() { return userId; }
+    public LocalDate getFrom() { return from; }
+    public LocalDate getTo() { return to; }
+    public int getActiveDays() { return activeDays; }
+    public long getTotalPlays() { return totalPlays; }
+    public long getListenedSeconds() { return listenedSeconds; }
+    public List<StatItem> getTopArtists() { return topArtists; }
+    public List<StatItem> getTopGenres() { return topGenres; }
+    public List<SongStatItem> getTopSongs() { return topSongs; }
+
+    // ==================== Inner Class: Stat Item (artist / genre) ====================
+
+    public static class StatItem {
+        private final String id;
+        private final String name;
+        private final long plays;
+
+        public StatItem(String id, String name, long plays) {
+            this.id = id;
+            this.name = name;
+            this.plays = plays;
+        }
+
+        public String getId() { return id; }
+        public String getName() { return name; }
+        public long getPlays() { return plays; }
+    }
+
+    // ==================== Inner Class: Song Stat Item ====================
+
+    public static class SongStatItem {
+        private final SongResponse song;
+        private final long plays;
+
+        public SongStatItem(SongResponse song, long plays) {
+            this.song = song;
+            this.plays = plays;
+        }
+
+        public SongResponse getSong() { return song; }
+        public long getPlays() { return plays; }
+    }
+}
@@ -0,0 +1,53 @@
+package melodia.model.dto.response.history;
+
+import java.util.List;
+
+public class PlayEventBatchResponseDTO {
+    private String userId;
+    private int received;   // event di request
+    private int inserted;   // event baru yang tersimpan
+    private int duplicates; // event yang sudah pernah diterima (termasuk duplikat di dalam request)
+    private List<RejectedEvent> rejected;
+
+    public PlayEventBatchResponseDTO() {}
+
+    public PlayEventBatchResponseDTO(String userId, int received, int inserted, int duplicates,
+                                     List<RejectedEvent> rejected) {
+        this.userId = userId;
+        this.received = received;
+        this.inserted = inserted;
+        this.duplicates = duplicates;
+        this.rejected = rejected;
+    }
+
+    // Getters & Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getInserted() { return inserted; }
+    public void setInserted(int inserted) { this.inserted = inserted; }
+
+    public int getDuplicates() { return duplicates; }
+    public void setDuplicates(int duplicates) { this.duplicates = duplicates; }
+
+    public List<RejectedEvent> getRejected() { return rejected; }
+    public void setRejected(List<RejectedEvent> rejected) { this.rejected = rejected; }
+
+    // ==================== Inner Class: Rejected Event ====================
+
+    public static class RejectedEvent {
+        private final String eventId;
+        private final String reason; // SONG_NOT_FOUND, TIMESTAMP_IN_FUTURE, TIMESTAMP_TOO_OLD
+
+        public RejectedEvent(String eventId, String reason) {
+            this.eventId = eventId;
+            this.reason = reason;
+        }
+
+        public String getEventId() { return eventId; }
+        public String getReason() { return reason; }
+    }
+}
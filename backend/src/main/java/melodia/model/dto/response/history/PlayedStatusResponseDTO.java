@@ -0,0 +1,22 @@
+package melodia.model.dto.response.history;
+
+import java.util.Map;
+
+public class PlayedStatusResponseDTO {
+    private String userId;
+    private Map<String, Boolean> played; // songId → pernah diputar
+
+    public PlayedStatusResponseDTO() {}
+
+    public PlayedStatusResponseDTO(String userId, Map<String, Boolean> played) {
+        this.userId = userId;
+        this.played = played;
+    }
+
+    // Getters & Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public Map<String, Boolean> getPlayed() { return played; }
+    public void setPlayed(Map<String, Boolean> played) { this.played = played; }
+}
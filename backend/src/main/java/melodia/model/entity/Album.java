@@ -1,5 +1,6 @@
 package melodia.model.entity;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -14,8 +15,11 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Representasi satu album di Melodia.
@@ -48,6 +52,16 @@ public class Album {
     @Column(name = "cover_emoji", length = 10)
     private String coverEmoji; // * Emoji default untuk sampul album
 
+    @Column(name = "song_count", nullable = false)
+    private int songCount = 0; // * Counter denormalized, di-update bersama addSong/removeSong (satu transaksi).
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; //! Naik setiap isi/metadata album berubah (termasuk lagu, artist, genre-nya); dipakai untuk ETag & cache detail.
+
     // ==================== Relasi dengan artist ====================
 
     // * Artist pemilik album ini (satu artist bisa punya banyak album).
@@ -70,13 +84,14 @@ public class Album {
 
     // ==================== Relasi dengan lagu ====================
 
-    // * Lagu-lagu yang termasuk di dalam album ini.
+    // * Lagu-lagu yang termasuk di dalam album ini, urut nomor track (0-based, dijaga Hibernate tanpa celah).
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "album_songs",
         joinColumns = @JoinColumn(name = "album_id"),
         inverseJoinColumns = @JoinColumn(name = "song_id")
     )
+    @OrderColumn(name = "track_number")
     @JsonIgnore // * Menghindari payload besar & siklus; detail lagu diambil via endpoint/DTO lain.
     private List<Song> songs = new ArrayList<>();
 
@@ -107,6 +122,12 @@ public class Album {
         if (this.coverEmoji == null) {
             this.coverEmoji = "💿";
         }
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 
     // ==================== Getters & setters ====================
@@ -138,27 +159,33 @@ public class Album {
     public String getCoverEmoji() { return coverEmoji; }
     public void setCoverEmoji(String coverEmoji) { this.coverEmoji = coverEmoji; }
 
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getVersion() { return version; }
+
     // ==================== Helper untuk koleksi ====================
 
     // * Menambahkan satu lagu ke album jika belum terdaftar.
     public void addSong(Song song) {
         if (song != null && !this.songs.contains(song)) {
             this.songs.add(song);
+            this.songCount++;
         }
     }
 
     // * Menghapus satu lagu dari album.
     public void removeSong(Song song) {
-        if (song != null) {
-            this.songs.remove(song);
+        if (song != null && this.songs.remove(song)) {
+            this.songCount = Math.max(0, this.songCount - 1);
         }
     }
 
-    // * Mengembalikan jumlah total lagu di album (berguna untuk UI/statistik).
+    // * Mengembalikan jumlah total lagu di album dari kolom counter (tanpa load koleksi songs).
     public int getTotalSongs() {
-        return this.songs.size();
+        return this.songCount;
     }
 
+    public void setSongCount(int songCount) { this.songCount = Math.max(0, songCount); }
+
     // ==================== Utility lain ====================
 
     // * Pencarian sederhana berdasarkan judul album.
@@ -195,8 +222,7 @@ public class Album {
                 ", title='" + title + '\'' +
                 ", artist=" + (artist != null ? artist.getArtistName() : "null") +
                 ", releaseYear=" + releaseYear +
-                ", totalSongs=" + songs.size() +
-                ", totalGenres=" + genres.size() +
+                ", totalSongs=" + songCount +
                 '}';
     }
 }
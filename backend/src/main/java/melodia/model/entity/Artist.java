@@ -6,6 +6,10 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.CascadeType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -20,6 +24,8 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "artists")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // * Dibaca tiap serialize lagu/album → second-level cache (region di application.conf).
 public class Artist {
 
     // ==================== Identitas & profil ====================
@@ -34,6 +40,9 @@ public class Artist {
     @Column(name = "bio", length = 1000)
     private String bio; // * Deskripsi singkat tentang artist (bisa ditampilkan di halaman profil).
 
+    @Column(name = "song_count", nullable = false)
+    private int songCount = 0; // * Counter denormalized jumlah lagu, di-update di jalur upload/hapus/reassign lagu.
+
     // ==================== Relasi dengan Song ====================
 
     // * Satu artist bisa punya banyak lagu.
@@ -83,22 +92,34 @@ public class Artist {
         if (song != null && !songs.contains(song)) {
             songs.add(song);
             song.setArtist(this);
+            incrementSongCount();
         }
     }
 
     // * Menghapus lagu dari artist dan memutus relasi dua arah.
     public void removeSong(Song song) {
         if (song != null) {
-            songs.remove(song);
+            if (songs.remove(song)) {
+                decrementSongCount();
+            }
             if (song.getArtist() == this) {
                 song.setArtist(null);
             }
         }
     }
 
-    // * Memudahkan akses total lagu yang dimiliki artist (berguna untuk UI/dashboard).
+    // * Dipakai jalur upload/hapus lagu yang hanya set Song.artist tanpa menyentuh koleksi songs.
+    public void incrementSongCount() {
+        this.songCount++;
+    }
+
+    public void decrementSongCount() {
+        this.songCount = Math.max(0, this.songCount - 1);
+    }
+
+    // * Total lagu artist dari kolom counter (berguna untuk UI/dashboard tanpa load koleksi).
     public int getTotalSongs() {
-        return songs.size();
+        return songCount;
     }
 
     // ==================== Getters & Setters ====================
@@ -145,7 +166,7 @@ public class Artist {
                 "artistId='" + artistId + '\'' +
                 ", artistName='" + artistName + '\'' +
                 ", bio='" + (bio != null ? bio.substring(0, Math.min(bio.length(), 50)) : "none") + "...'" +
-                ", totalSongs=" + songs.size() +
+                ", totalSongs=" + songCount +
                 '}';
     }
 
@@ -5,6 +5,10 @@ import java.util.List;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
@@ -19,6 +23,8 @@ import jakarta.validation.constraints.Size;
  */
 @Entity
 @Table(name = "genres")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // * Jarang berubah tapi sering dibaca → second-level cache (region di application.conf).
 public class Genre {
 
     // ==================== Identitas & informasi dasar ====================
@@ -34,6 +40,9 @@ public class Genre {
     @Column(name = "description")
     private String description; // * Deskripsi singkat genre (optional, untuk halaman detail).
 
+    @Column(name = "song_count", nullable = false)
+    private int songCount = 0; // * Counter denormalized jumlah lagu; di-update saat genre lagu berubah.
+
     // ==================== Relasi dengan lagu ====================
 
     // * Satu genre bisa dipakai oleh banyak lagu, dan satu lagu bisa memiliki banyak genre.
@@ -64,6 +73,7 @@ public class Genre {
     public String getName() { return name; }
     public String getDescription() { return description; }
     public List<Song> getSongs() { return songs; }
+    public int getSongCount() { return songCount; }
 
     // ==================== Setters ====================
 
@@ -76,4 +86,14 @@ public class Genre {
         //   this.songs = (songs != null) ? songs : new ArrayList<>();
         this.songs = songs;
     }
+
+    // ==================== Counter ====================
+
+    public void incrementSongCount() {
+        this.songCount++;
+    }
+
+    public void decrementSongCount() {
+        this.songCount = Math.max(0, this.songCount - 1);
+    }
 }
@@ -0,0 +1,100 @@
+package melodia.model.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+
+/**
+ * PlayEvent - Satu kali pemutaran lagu oleh user (log append-only).
+ * Menggantikan History.playedSongs (history_songs + play_order):
+ * satu play = satu INSERT, tidak ada baris lain yang ditulis ulang.
+ * "Recently played" dibaca dari index (user_id, played_at DESC).
+ */
+@Entity
+@Table(
+    name = "play_events",
+    indexes = {
+        @Index(name = "idx_play_events_user_played_at", columnList = "user_id, played_at DESC"),
+        @Index(name = "idx_play_events_song", columnList = "song_id"),
+        @Index(name = "idx_play_events_played_at", columnList = "played_at")
+    }
+)
+public class PlayEvent {
+
+    // ==================== Identitas ====================
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id; //! BIGSERIAL, di-generate DB.
+
+    @Column(name = "event_id", length = 36, nullable = false, unique = true, updatable = false)
+    private String eventId; //! UUID dari sisi aplikasi; kunci idempotensi saat flush/replay journal (ON CONFLICT).
+
+    @Column(name = "user_id", length = 50, nullable = false, updatable = false)
+    private String userId; // * Akun user yang memutar lagu (tidak di-map ke entity supaya insert tidak perlu load User).
+
+    // * Lagu yang diputar. Saat insert cukup pakai reference (getReferenceById), tanpa SELECT ke songs.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "song_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private Song song;
+
+    @Column(name = "played_at", nullable = false, updatable = false)
+    private LocalDateTime playedAt; // * Waktu lagu diputar.
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected PlayEvent() {}
+
+    public PlayEvent(String userId, Song song) {
+        this.userId = userId;
+        this.song = song;
+    }
+
+    // ==================== Lifecycle events ====================
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.eventId == null) {
+            this.eventId = UUID.randomUUID().toString();
+        }
+        if (this.playedAt == null) {
+            this.playedAt = LocalDateTime.now();
+        }
+    }
+
+    // ==================== Getters ====================
+
+    public Long getId() { return id; }
+    public String getEventId() { return eventId; }
+    public String getUserId() { return userId; }
+    public Song getSong() { return song; }
+    public LocalDateTime getPlayedAt() { return playedAt; }
+
+    public void setPlayedAt(LocalDateTime playedAt) { this.playedAt = playedAt; }
+
+    @Override
+    public String toString() {
+        return "PlayEvent{" +
+                "id=" + id +
+                ", eventId='" + eventId + '\'' +
+                ", userId='" + userId + '\'' +
+                ", playedAt=" + playedAt +
+                '}';
+    }
+}
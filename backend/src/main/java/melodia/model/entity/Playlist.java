@@ -1,10 +1,7 @@
 package melodia.model.entity;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
-import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 import jakarta.persistence.Column;
@@ -12,10 +9,9 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.JoinTable;
-import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Playlist - Koleksi lagu yang dibuat oleh user di Melodia.
@@ -40,6 +36,16 @@ public class Playlist {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt; // * Waktu playlist dibuat, berguna untuk sort dan riwayat.
 
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt; // * Waktu perubahan terakhir (isi atau metadata), di-set lewat touch().
+
+    @Column(name = "song_count", nullable = false)
+    private int songCount = 0; // * Counter denormalized, di-update bersama insert/delete PlaylistEntry (satu transaksi).
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; //! Optimistic lock + versi untuk ETag/delta sync: naik tepat satu kali per transaksi yang mengubah playlist.
+
     // ==================== Owner playlist ====================
 
     //! Owner adalah User (bisa regular user atau artist).
@@ -54,18 +60,8 @@ public class Playlist {
     }) // * Hindari circular reference & data sensitif saat serialize User.
     private User owner;
 
-    // ==================== Relasi dengan lagu ====================
-
-    // * Daftar lagu yang menjadi isi playlist.
-    // * Relasi many-to-many melalui tabel junction "playlist_songs".
-    @ManyToMany(fetch = FetchType.LAZY)
-    @JoinTable(
-        name = "playlist_songs",
-        joinColumns = @JoinColumn(name = "playlist_id"),
-        inverseJoinColumns = @JoinColumn(name = "song_id")
-    )
-    @JsonIgnore // * Hindari serialisasi langsung entity song untuk mencegah lazy-loading issue / siklus.
-    private List<Song> songs = new ArrayList<>();
+    // * Isi playlist tidak di-map sebagai koleksi: setiap lagu adalah satu baris PlaylistEntry
+    // * (tabel "playlist_entries" dengan kolom position), dibaca/ditulis lewat PlaylistEntryRepository.
 
     // ==================== Constructors ====================
 
@@ -74,11 +70,13 @@ public class Playlist {
         this.name = name;
         this.owner = owner;
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
     }
 
     // * Diperlukan oleh JPA.
     protected Playlist() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
     }
 
     // ==================== Getters & Setters ====================
@@ -98,50 +96,46 @@ public class Playlist {
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
-    /**
-     * Mengembalikan semua lagu dalam playlist.
-     * Biasanya dipakai di layer service, bukan langsung di JSON response.
-     */
-    public List<Song> getSongs() { return songs; }
-
-    public void setSongs(List<Song> songs) {
-        // * Jaga supaya list tidak pernah null.
-        this.songs = songs != null ? songs : new ArrayList<>();
-    }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
 
     // ==================== Helper Methods ====================
 
     /**
-     * Menambahkan lagu ke playlist jika belum ada.
+     * Tandai playlist berubah. Entity jadi dirty walaupun kolom lain tidak berubah (mis. hanya pindah posisi),
+     * jadi version selalu naik saat flush dan bentrok dengan edit lain terdeteksi.
      */
-    public void addSong(Song song) {
-        if (song != null && !this.songs.contains(song)) {
-            this.songs.add(song);
-        }
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
     }
 
     /**
-     * Menghapus lagu dari playlist.
+     * Catat satu entry baru di counter (baris PlaylistEntry-nya di-insert oleh service).
      */
-    public void removeSong(Song song) {
-        if (song != null) {
-            this.songs.remove(song);
-        }
+    public void onSongAdded() {
+        this.songCount++;
     }
 
     /**
-     * Mengecek apakah lagu tertentu ada di playlist.
+     * Catat satu entry yang dihapus di counter.
      */
-    public boolean containsSong(Song song) {
-        return song != null && this.songs.contains(song);
+    public void onSongRemoved() {
+        this.songCount = Math.max(0, this.songCount - 1);
     }
 
     /**
-     * Mengembalikan jumlah lagu dalam playlist.
+     * Mengembalikan jumlah lagu dalam playlist dari kolom counter (tanpa load koleksi songs).
      * Biasanya di-expose ke JSON sebagai "songCount" untuk ringkasan playlist.
      */
     public int getSongCount() {
-        return this.songs.size();
+        return this.songCount;
+    }
+
+    public void setSongCount(int songCount) {
+        this.songCount = Math.max(0, songCount);
+    }
+
+    public Long getVersion() {
+        return this.version;
     }
 
     /**
@@ -0,0 +1,97 @@
+package melodia.model.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * PlaylistChange - Log perubahan isi/metadata playlist (append-only), dasar delta sync
+ * GET /api/playlists/{id}/changes?since=version.
+ * Setiap transaksi yang mengubah playlist menaikkan Playlist.version tepat satu kali
+ * dan mencatat satu atau lebih baris dengan version baru tersebut.
+ */
+@Entity
+@Table(
+    name = "playlist_changes",
+    indexes = @Index(name = "idx_playlist_changes_version", columnList = "playlist_id, version")
+)
+public class PlaylistChange {
+
+    public enum Op {
+        ADD,      // lagu ditambahkan (songId + position)
+        REMOVE,   // lagu dihapus dari playlist (songId)
+        MOVE,     // posisi lagu berubah (songId + position)
+        UPDATE,   // nama/deskripsi berubah
+        RENUMBER, // semua posisi di-renormalisasi → client harus fetch ulang isi playlist
+        SONG      // metadata lagu di playlist (judul, artist, genre) berubah (songId) → client refresh lagu tsb
+    }
+
+    // ==================== Identitas ====================
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "playlist_changes_seq")
+    @SequenceGenerator(name = "playlist_changes_seq", sequenceName = "playlist_changes_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "playlist_id", length = 50, nullable = false, updatable = false)
+    private String playlistId;
+
+    @Column(name = "version", nullable = false, updatable = false)
+    private long version; // * Playlist.version setelah perubahan ini.
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "op", length = 10, nullable = false, updatable = false)
+    private Op op;
+
+    @Column(name = "song_id", length = 50, updatable = false)
+    private String songId; // * Tanpa FK: log tetap utuh walaupun lagunya sudah dihapus.
+
+    @Column(name = "position", updatable = false)
+    private Long position;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected PlaylistChange() {}
+
+    public PlaylistChange(String playlistId, long version, Op op, String songId, Long position) {
+        this.playlistId = playlistId;
+        this.version = version;
+        this.op = op;
+        this.songId = songId;
+        this.position = position;
+    }
+
+    // ==================== Lifecycle events ====================
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.changedAt == null) {
+            this.changedAt = LocalDateTime.now();
+        }
+    }
+
+    // ==================== Getters ====================
+
+    public Long getId() { return id; }
+    public String getPlaylistId() { return playlistId; }
+    public long getVersion() { return version; }
+    public Op getOp() { return op; }
+    public String getSongId() { return songId; }
+    public Long getPosition() { return position; }
+    public LocalDateTime getChangedAt() { return changedAt; }
+}
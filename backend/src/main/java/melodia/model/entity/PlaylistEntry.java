@@ -0,0 +1,102 @@
+package melodia.model.entity;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * PlaylistEntry - Satu lagu di dalam playlist, dengan posisi urut.
+ * Menggantikan Playlist.songs (playlist_songs): isi playlist tidak pernah di-load utuh untuk diubah.
+ *
+ * Posisi memakai gap indexing (kelipatan GAP): append = max(position) + GAP,
+ * pindah = titik tengah dua tetangga; hanya kalau celah habis satu playlist di-renormalisasi.
+ */
+@Entity
+@Table(
+    name = "playlist_entries",
+    uniqueConstraints = @UniqueConstraint(name = "uq_playlist_entries_song", columnNames = {"playlist_id", "song_id"}),
+    indexes = {
+        @Index(name = "idx_playlist_entries_position", columnList = "playlist_id, position"),
+        @Index(name = "idx_playlist_entries_song", columnList = "song_id")
+    }
+)
+public class PlaylistEntry {
+
+    // * Jarak posisi antar entry baru; cukup untuk ±10 kali pindah ke celah yang sama sebelum renormalisasi.
+    public static final long GAP = 1024L;
+
+    // ==================== Identitas ====================
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "playlist_entries_seq")
+    @SequenceGenerator(name = "playlist_entries_seq", sequenceName = "playlist_entries_seq", allocationSize = 50)
+    @Column(name = "id")
+    private Long id; //! Sequence (bukan IDENTITY) supaya insert tetap bisa di-batch oleh Hibernate.
+
+    @Column(name = "playlist_id", length = 50, nullable = false, updatable = false)
+    private String playlistId; // * Tidak di-map ke entity supaya append tidak perlu load Playlist beserta isinya.
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "song_id", nullable = false, updatable = false)
+    @JsonIgnore
+    private Song song;
+
+    @Column(name = "position", nullable = false)
+    private long position; // * Kunci urutan di dalam playlist (ORDER BY position).
+
+    @Column(name = "added_at", nullable = false, updatable = false)
+    private LocalDateTime addedAt;
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected PlaylistEntry() {}
+
+    public PlaylistEntry(String playlistId, Song song, long position) {
+        this.playlistId = playlistId;
+        this.song = song;
+        this.position = position;
+    }
+
+    // ==================== Lifecycle events ====================
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.addedAt == null) {
+            this.addedAt = LocalDateTime.now();
+        }
+    }
+
+    // ==================== Getters & Setters ====================
+
+    public Long getId() { return id; }
+    public String getPlaylistId() { return playlistId; }
+    public Song getSong() { return song; }
+    public LocalDateTime getAddedAt() { return addedAt; }
+
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+
+    @Override
+    public String toString() {
+        return "PlaylistEntry{" +
+                "id=" + id +
+                ", playlistId='" + playlistId + '\'' +
+                ", position=" + position +
+                '}';
+    }
+}
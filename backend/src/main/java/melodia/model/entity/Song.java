@@ -4,8 +4,14 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Generated;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -22,6 +28,8 @@ import jakarta.persistence.Table;
  */
 @Entity
 @Table(name = "songs")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // * Metadata lagu di-cache per id; file audio tetap di storage.
 public class Song {
 
     // ==================== Identitas & metadata dasar ====================
@@ -42,12 +50,20 @@ public class Song {
     @Column(name = "file_path", nullable = false)
     private String filePath; // * Lokasi file audio (path lokal, URL storage, dsb.).
 
+    @Column(name = "file_size")
+    private Long fileSize; // * Ukuran file audio (byte), diisi saat upload; null untuk lagu lama.
+
     @Column(name = "release_year", nullable = false)
     private int releaseYear; // * Tahun rilis lagu.
 
     @Column(name = "uploaded_at", nullable = false)
     private LocalDateTime uploadedAt; // * Timestamp kapan lagu di-upload ke Melodia.
 
+    @Generated
+    @Column(name = "song_ordinal", insertable = false, updatable = false, unique = true)
+    @JsonIgnore
+    private Integer songOrdinal; //! Nomor urut integer dari DB (IDENTITY); referensi ringkas untuk data encoded (recent plays).
+
     // ==================== Relasi dengan Artist ====================
 
     // * Artist yang memiliki lagu ini (satu artist bisa punya banyak lagu).
@@ -64,6 +80,7 @@ public class Song {
 
     // * Genre yang melekat pada lagu ini (bisa lebih dari satu).
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE) // * Cache id genre per lagu, entity Genre-nya dari region Genre.
     @JoinTable(
         name = "song_genres",
         joinColumns = @JoinColumn(name = "song_id"),
@@ -110,9 +127,11 @@ public class Song {
     public List<Genre> getGenres() { return genres; }
     public int getDuration() { return duration; }
     public String getFilePath() { return filePath; }
+    public Long getFileSize() { return fileSize; }
     public int getReleaseYear() { return releaseYear; }
     public LocalDateTime getUploadedAt() { return uploadedAt; }
     public Artist getArtist() { return artist; }
+    public Integer getSongOrdinal() { return songOrdinal; }
 
     // ==================== Setters ====================
 
@@ -127,6 +146,7 @@ public class Song {
 
     public void setDuration(int duration) { this.duration = duration; }
     public void setFilePath(String filePath) { this.filePath = filePath; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
     public void setReleaseYear(int releaseYear) { this.releaseYear = releaseYear; }
     public void setUploadedAt(LocalDateTime uploadedAt) { this.uploadedAt = uploadedAt; }
 
@@ -0,0 +1,43 @@
+package melodia.model.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Total pemutaran satu lagu (global, semua user).
+ * Ditulis hanya lewat upsert batch dari SongPlayCountService (delta counter in-memory),
+ * jadi entity ini dipakai untuk baca saja.
+ */
+@Entity
+@Table(name = "song_play_counts")
+public class SongPlayCount {
+
+    // ==================== Identitas ====================
+
+    @Id
+    @Column(name = "song_id", length = 50, nullable = false)
+    private String songId; //! Satu baris per lagu, FK ke songs (ON DELETE CASCADE).
+
+    // ==================== Data ====================
+
+    @Column(name = "play_count", nullable = false)
+    private long playCount; // * Total yang sudah di-flush; delta yang belum di-flush ada di memori.
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected SongPlayCount() {}
+
+    // ==================== Getters ====================
+
+    public String getSongId() { return songId; }
+    public long getPlayCount() { return playCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
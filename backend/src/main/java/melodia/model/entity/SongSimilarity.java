@@ -0,0 +1,64 @@
+package melodia.model.entity;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Daftar lagu mirip (content-based) yang sudah dihitung untuk satu lagu.
+ * Satu baris per lagu: halaman lagu cukup satu lookup PK, tanpa menghitung skor saat request.
+ *
+ * Ditulis oleh ContentSimilarityService (job penuh + update incremental), bukan lewat JPA.
+ */
+@Entity
+@Table(name = "song_similarities")
+public class SongSimilarity {
+
+    // ==================== Identitas ====================
+
+    @Id
+    @Column(name = "song_id", length = 50, nullable = false)
+    private String songId; //! FK ke songs (ON DELETE CASCADE): baris ikut hilang saat lagu dihapus.
+
+    // ==================== Tetangga ====================
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "neighbor_ids", nullable = false, columnDefinition = "jsonb")
+    private List<String> neighborIds = new ArrayList<>(); // * Urut dari skor tertinggi; GIN idx_song_similarities_neighbors (DDL manual)
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "scores", nullable = false, columnDefinition = "jsonb")
+    private List<Double> scores = new ArrayList<>(); // * Sejajar dengan neighborIds
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected SongSimilarity() {}
+
+    // ==================== Getters ====================
+
+    public String getSongId() { return songId; }
+    public List<String> getNeighborIds() { return neighborIds; }
+    public List<Double> getScores() { return scores; }
+    public LocalDateTime getComputedAt() { return computedAt; }
+
+    @Override
+    public String toString() {
+        return "SongSimilarity{" +
+                "songId='" + songId + '\'' +
+                ", neighbors=" + neighborIds.size() +
+                ", computedAt=" + computedAt +
+                '}';
+    }
+}
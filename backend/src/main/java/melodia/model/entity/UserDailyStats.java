@@ -0,0 +1,126 @@
+package melodia.model.entity;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * Rollup statistik dengar satu user untuk satu hari.
+ * Jumlah play per artist, genre dan lagu disimpan sebagai map jsonb kecil,
+ * jadi statistik satu bulan = maksimal 31 baris, tanpa scan play_events.
+ */
+@Entity
+@Table(name = "user_daily_stats")
+public class UserDailyStats {
+
+    // ==================== Identitas ====================
+
+    @EmbeddedId
+    private UserDailyStatsId id; //! Satu baris per (user, tanggal).
+
+    // ==================== Total ====================
+
+    @Column(name = "play_count", nullable = false)
+    private int playCount;
+
+    @Column(name = "listened_seconds", nullable = false)
+    private long listenedSeconds; // * Estimasi: jumlah durasi lagu yang diputar.
+
+    // ==================== Rollup per dimensi ====================
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "artist_plays", nullable = false, columnDefinition = "jsonb")
+    private Map<String, Integer> artistPlays = new HashMap<>(); // * artistId → jumlah play
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "genre_plays", nullable = false, columnDefinition = "jsonb")
+    private Map<String, Integer> genrePlays = new HashMap<>(); // * genreId → jumlah play
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "song_plays", nullable = false, columnDefinition = "jsonb")
+    private Map<Integer, Integer> songPlays = new HashMap<>(); // * song_ordinal → jumlah play
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; //! Optimistic lock: dua jalur update rollup yang bersamaan tidak saling menimpa.
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected UserDailyStats() {}
+
+    public UserDailyStats(UserDailyStatsId id) {
+        this.id = id;
+    }
+
+    // ==================== Lifecycle events ====================
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // ==================== Getters ====================
+
+    public UserDailyStatsId getId() { return id; }
+    public int getPlayCount() { return playCount; }
+    public long getListenedSeconds() { return listenedSeconds; }
+    public Map<String, Integer> getArtistPlays() { return artistPlays; }
+    public Map<String, Integer> getGenrePlays() { return genrePlays; }
+    public Map<Integer, Integer> getSongPlays() { return songPlays; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getVersion() { return version; }
+
+    // ==================== Business Methods ====================
+
+    /**
+     * Tambahkan satu play ke rollup hari ini.
+     * Map diganti instance baru supaya Hibernate mendeteksi perubahan kolom jsonb.
+     */
+    public void addPlay(int songOrdinal, String artistId, Iterable<String> genreIds, int durationSeconds) {
+        playCount++;
+        listenedSeconds += Math.max(durationSeconds, 0);
+
+        Map<Integer, Integer> songs = new HashMap<>(songPlays);
+        songs.merge(songOrdinal, 1, Integer::sum);
+        songPlays = songs;
+
+        if (artistId != null) {
+            Map<String, Integer> artists = new HashMap<>(artistPlays);
+            artists.merge(artistId, 1, Integer::sum);
+            artistPlays = artists;
+        }
+
+        Map<String, Integer> genres = new HashMap<>(genrePlays);
+        for (String genreId : genreIds) {
+            genres.merge(genreId, 1, Integer::sum);
+        }
+        genrePlays = genres;
+    }
+
+    // ==================== Override ====================
+
+    @Override
+    public String toString() {
+        return "UserDailyStats{" +
+                "userId='" + id.getUserId() + '\'' +
+                ", date=" + id.getStatDate() +
+                ", playCount=" + playCount +
+                '}';
+    }
+}
@@ -0,0 +1,44 @@
+package melodia.model.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Primary key user_daily_stats: (user_id, stat_date).
+ */
+@Embeddable
+public class UserDailyStatsId implements Serializable {
+
+    @Column(name = "user_id", length = 50, nullable = false)
+    private String userId;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    // * Diperlukan oleh JPA.
+    protected UserDailyStatsId() {}
+
+    public UserDailyStatsId(String userId, LocalDate statDate) {
+        this.userId = userId;
+        this.statDate = statDate;
+    }
+
+    public String getUserId() { return userId; }
+    public LocalDate getStatDate() { return statDate; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserDailyStatsId other)) return false;
+        return Objects.equals(userId, other.userId) && Objects.equals(statDate, other.statDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, statDate);
+    }
+}
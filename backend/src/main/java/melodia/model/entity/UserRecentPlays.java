@@ -0,0 +1,255 @@
+package melodia.model.entity;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * Daftar "recently played" satu user dalam satu baris.
+ * Berisi ring terbatas song_ordinal (lagu terbaru di depan, tanpa duplikat) beserta waktu
+ * pemutaran terakhirnya, masing-masing di-encode sebagai varint berurutan dalam satu kolom bytea.
+ * Baca/update recent plays = satu baris, ukuran per user dibatasi kapasitas ring.
+ */
+@Entity
+@Table(name = "user_recent_plays")
+public class UserRecentPlays {
+
+    // ==================== Identitas ====================
+
+    @Id
+    @Column(name = "user_id", length = 50, nullable = false)
+    private String userId; //! Satu baris per user.
+
+    // ==================== Data encoded ====================
+
+    @Column(name = "encoded_ordinals", nullable = false)
+    private byte[] encodedOrdinals = new byte[0]; // * Varint song_ordinal, urutan terbaru dulu.
+
+    @Column(name = "encoded_played_at", nullable = false)
+    private byte[] encodedPlayedAt = new byte[0]; // * Varint epoch millis per entry: entry pertama absolut, sisanya selisih ke entry sebelumnya.
+
+    @Column(name = "entry_count", nullable = false)
+    private int entryCount; // * Jumlah lagu di ring (supaya tidak perlu decode hanya untuk hitung).
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version; //! Optimistic lock: flush buffer & ingest batch client tidak saling menimpa ring.
+
+    // ==================== Constructors ====================
+
+    // * Diperlukan oleh JPA.
+    protected UserRecentPlays() {}
+
+    public UserRecentPlays(String userId) {
+        this.userId = userId;
+    }
+
+    // ==================== Lifecycle events ====================
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // ==================== Getters ====================
+
+    public String getUserId() { return userId; }
+    public int getEntryCount() { return entryCount; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public Long getVersion() { return version; }
+
+    /**
+     * Ordinal lagu di ring, urutan terbaru dulu.
+     */
+    public int[] getOrdinals() {
+        return decode(encodedOrdinals, entryCount);
+    }
+
+    /**
+     * Waktu pemutaran terakhir (epoch millis) per entry, sejajar dengan getOrdinals().
+     * Baris lama yang belum punya kolom waktu memakai updatedAt untuk semua entry.
+     */
+    public long[] getPlayedAtMillis() {
+        long[] playedAt = decodeTimes(encodedPlayedAt, entryCount);
+        if (playedAt.length == entryCount) {
+            return playedAt;
+        }
+        long fallback = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        long[] filled = new long[entryCount];
+        Arrays.fill(filled, fallback);
+        return filled;
+    }
+
+    // ==================== Business Methods ====================
+
+    /**
+     * Catat satu play sesuai waktunya, lalu potong ke kapasitas ring.
+     * Play live berakhir di depan; play lama hasil sync offline disisipkan di posisi kronologisnya
+     * (atau diabaikan kalau lagu yang sama sudah tercatat dengan waktu lebih baru / ring penuh play yang lebih baru).
+     * Semua dilakukan di memori; hasilnya di-encode ulang ke kolom.
+     */
+    public void recordPlay(int songOrdinal, long playedAtMillis, int capacity) {
+        int[] ordinals = getOrdinals();
+        long[] playedAt = getPlayedAtMillis();
+
+        int[] nextOrdinals = new int[Math.min(capacity, ordinals.length + 1)];
+        long[] nextPlayedAt = new long[nextOrdinals.length];
+        int size = 0;
+        boolean inserted = false;
+        for (int i = 0; i < ordinals.length && size < nextOrdinals.length; i++) {
+            if (ordinals[i] == songOrdinal) {
+                if (playedAt[i] >= playedAtMillis) {
+                    return; // * Sudah tercatat dengan play yang lebih baru
+                }
+                continue;
+            }
+            if (!inserted && playedAtMillis >= playedAt[i]) {
+                nextOrdinals[size] = songOrdinal;
+                nextPlayedAt[size++] = playedAtMillis;
+                inserted = true;
+                if (size == nextOrdinals.length) break;
+            }
+            nextOrdinals[size] = ordinals[i];
+            nextPlayedAt[size++] = playedAt[i];
+        }
+        if (!inserted) {
+            if (size == nextOrdinals.length) {
+                return; // * Lebih lama dari semua entry di ring yang sudah penuh
+            }
+            nextOrdinals[size] = songOrdinal;
+            nextPlayedAt[size++] = playedAtMillis;
+        }
+        setEntries(Arrays.copyOf(nextOrdinals, size), Arrays.copyOf(nextPlayedAt, size));
+    }
+
+    /**
+     * Hapus satu lagu dari ring (misalnya saat user menghapus lagu dari history).
+     */
+    public boolean remove(int songOrdinal) {
+        int[] current = getOrdinals();
+        long[] playedAt = getPlayedAtMillis();
+        int[] next = new int[current.length];
+        long[] nextPlayedAt = new long[current.length];
+        int size = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != songOrdinal) {
+                next[size] = current[i];
+                nextPlayedAt[size++] = playedAt[i];
+            }
+        }
+        if (size == current.length) {
+            return false;
+        }
+        setEntries(Arrays.copyOf(next, size), Arrays.copyOf(nextPlayedAt, size));
+        return true;
+    }
+
+    // ==================== Encoding (varint) ====================
+
+    private void setEntries(int[] ordinals, long[] playedAt) {
+        this.encodedOrdinals = encode(ordinals);
+        this.encodedPlayedAt = encodeTimes(playedAt);
+        this.entryCount = ordinals.length;
+    }
+
+    // * 7 bit per byte, bit tertinggi = masih ada byte lanjutan. Ordinal kecil cukup 1-2 byte.
+    static byte[] encode(int[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length * 2);
+        for (int value : values) {
+            int v = value;
+            while ((v & ~0x7F) != 0) {
+                out.write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write(v);
+        }
+        return out.toByteArray();
+    }
+
+    static int[] decode(byte[] bytes, int expectedCount) {
+        if (bytes == null || bytes.length == 0) {
+            return new int[0];
+        }
+        int[] values = new int[Math.max(expectedCount, 0)];
+        int count = 0;
+        int value = 0;
+        int shift = 0;
+        for (byte b : bytes) {
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, Math.max(8, values.length * 2));
+                }
+                values[count++] = value;
+                value = 0;
+                shift = 0;
+            } else {
+                shift += 7;
+            }
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    // * Waktu urut menurun → selisih ke entry sebelumnya selalu >= 0 dan kecil (varint pendek)
+    static byte[] encodeTimes(long[] values) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(values.length * 4);
+        for (int i = 0; i < values.length; i++) {
+            long v = i == 0 ? values[0] : Math.max(0, values[i - 1] - values[i]);
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.write((int) v);
+        }
+        return out.toByteArray();
+    }
+
+    static long[] decodeTimes(byte[] bytes, int expectedCount) {
+        if (bytes == null || bytes.length == 0) {
+            return new long[0];
+        }
+        long[] values = new long[Math.max(expectedCount, 0)];
+        int count = 0;
+        long value = 0;
+        int shift = 0;
+        for (byte b : bytes) {
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (count == values.length) {
+                    values = Arrays.copyOf(values, Math.max(8, values.length * 2));
+                }
+                values[count] = count == 0 ? value : values[count - 1] - value;
+                count++;
+                value = 0;
+                shift = 0;
+            } else {
+                shift += 7;
+            }
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    // ==================== Override ====================
+
+    @Override
+    public String toString() {
+        return "UserRecentPlays{" +
+                "userId='" + userId + '\'' +
+                ", entryCount=" + entryCount +
+                ", encodedBytes=" + encodedOrdinals.length +
+                '}';
+    }
+}
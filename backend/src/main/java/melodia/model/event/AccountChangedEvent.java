@@ -0,0 +1,44 @@
+package melodia.model.event;
+
+import melodia.model.entity.Account;
+import melodia.model.entity.Admin;
+
+/**
+ * Event yang dipublish service setiap kali jumlah / status akun berubah (register, hapus, ban, unban).
+ * Dipakai AdminStatsService untuk meng-update counter dashboard setelah transaksi commit.
+ */
+public class AccountChangedEvent {
+
+    public enum Type { REGISTERED, DELETED, BANNED, UNBANNED }
+
+    private final Type type;
+    private final String accountId;
+    private final boolean admin;  // * Akun Admin (discriminator ADMIN), selain itu User
+    private final boolean banned; // * Status ban akun saat event (untuk DELETED: status sebelum dihapus)
+
+    public AccountChangedEvent(Type type, String accountId, boolean admin, boolean banned) {
+        this.type = type;
+        this.accountId = accountId;
+        this.admin = admin;
+        this.banned = banned;
+    }
+
+    public static AccountChangedEvent registered(Account account) { return of(Type.REGISTERED, account); }
+    public static AccountChangedEvent deleted(Account account) { return of(Type.DELETED, account); }
+    public static AccountChangedEvent banned(Account account) { return of(Type.BANNED, account); }
+    public static AccountChangedEvent unbanned(Account account) { return of(Type.UNBANNED, account); }
+
+    private static AccountChangedEvent of(Type type, Account account) {
+        return new AccountChangedEvent(type, account.getAccountId(), account instanceof Admin, account.isBanned());
+    }
+
+    public Type getType() { return type; }
+    public String getAccountId() { return accountId; }
+    public boolean isAdmin() { return admin; }
+    public boolean isBanned() { return banned; }
+
+    @Override
+    public String toString() {
+        return "AccountChangedEvent{" + type + ", id=" + accountId + "}";
+    }
+}
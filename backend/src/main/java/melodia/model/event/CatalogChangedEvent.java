@@ -0,0 +1,31 @@
+package melodia.model.event;
+
+/**
+ * Event yang dipublish service setiap kali data katalog (lagu, album, genre, artist) berubah.
+ * Dipakai untuk invalidasi cache setelah transaksi commit (lihat CatalogCacheInvalidator).
+ */
+public class CatalogChangedEvent {
+
+    public enum Type { SONG, ALBUM, GENRE, ARTIST }
+
+    private final Type type;
+    private final String id; // * ID entity yang berubah (boleh null kalau perubahan massal)
+
+    public CatalogChangedEvent(Type type, String id) {
+        this.type = type;
+        this.id = id;
+    }
+
+    public static CatalogChangedEvent song(String songId) { return new CatalogChangedEvent(Type.SONG, songId); }
+    public static CatalogChangedEvent album(String albumId) { return new CatalogChangedEvent(Type.ALBUM, albumId); }
+    public static CatalogChangedEvent genre(String genreId) { return new CatalogChangedEvent(Type.GENRE, genreId); }
+    public static CatalogChangedEvent artist(String artistId) { return new CatalogChangedEvent(Type.ARTIST, artistId); }
+
+    public Type getType() { return type; }
+    public String getId() { return id; }
+
+    @Override
+    public String toString() {
+        return "CatalogChangedEvent{" + type + ", id=" + id + "}";
+    }
+}
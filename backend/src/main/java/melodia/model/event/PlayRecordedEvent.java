@@ -0,0 +1,33 @@
+package melodia.model.event;
+
+import java.time.Instant;
+
+/**
+ * Event yang dipublish saat satu pemutaran lagu diterima: dari jalur play (sudah masuk journal + buffer,
+ * sebelum di-flush ke play_events) atau dari sync batch client (sudah tersimpan, playedAt bisa di masa lalu).
+ * Listener harus ringan karena dipanggil di thread request.
+ */
+public class PlayRecordedEvent {
+
+    private final String eventId;
+    private final String userId;
+    private final String songId;
+    private final Instant playedAt;
+
+    public PlayRecordedEvent(String eventId, String userId, String songId, Instant playedAt) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.songId = songId;
+        this.playedAt = playedAt;
+    }
+
+    public String getEventId() { return eventId; }
+    public String getUserId() { return userId; }
+    public String getSongId() { return songId; }
+    public Instant getPlayedAt() { return playedAt; }
+
+    @Override
+    public String toString() {
+        return "PlayRecordedEvent{" + eventId + ", user=" + userId + ", song=" + songId + "}";
+    }
+}
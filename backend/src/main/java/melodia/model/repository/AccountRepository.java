@@ -1,8 +1,10 @@
 package melodia.model.repository;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import melodia.model.entity.Account;
@@ -21,4 +23,9 @@ public interface AccountRepository extends JpaRepository<Account, String> {
 
     // Cek apakah email sudah ada
     boolean existsByEmail(String email);
+
+    // * Rekonsiliasi statistik admin: jumlah akun & akun ter-ban per tipe (discriminator account_type), satu query.
+    // * Baris: [Class tipe akun (User/Admin), Long total, Long banned]
+    @Query("SELECT TYPE(a), COUNT(a), SUM(CASE WHEN a.banned = true THEN 1 ELSE 0 END) FROM Account a GROUP BY TYPE(a)")
+    List<Object[]> countByAccountType();
 }
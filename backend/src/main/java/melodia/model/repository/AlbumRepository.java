@@ -1,10 +1,16 @@
 package melodia.model.repository;
 
+import jakarta.persistence.QueryHint;
 import melodia.model.entity.Album;
 import melodia.model.entity.Artist;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AlbumRepository extends JpaRepository<Album, String> {
@@ -20,4 +26,72 @@ public interface AlbumRepository extends JpaRepository<Album, String> {
 
     // Cari album rilis pada tahun tertentu
     List<Album> findByReleaseYear(int releaseYear);
+
+    // Semua album + artist + genres dalam satu query (untuk ringkasan album di home page)
+    @Query("SELECT DISTINCT a FROM Album a JOIN FETCH a.artist LEFT JOIN FETCH a.genres")
+    List<Album> findAllForListing();
+
+    // Detail album: artist + lagu (urut track_number) dalam satu query.
+    // genres (bag) sengaja tidak ikut di-fetch: join genres × songs mengulang tiap genre sekali per track;
+    // koleksi itu di-load query kedua saat diakses (masih di transaksi yang sama).
+    @Query("SELECT a FROM Album a JOIN FETCH a.artist LEFT JOIN FETCH a.songs " +
+           "WHERE a.albumId = :albumId")
+    Optional<Album> findDetailById(@Param("albumId") String albumId);
+
+    // Version saja (untuk ETag / 304 tanpa load detail)
+    @Query("SELECT a.version FROM Album a WHERE a.albumId = :albumId")
+    Optional<Long> findVersionById(@Param("albumId") String albumId);
+
+    // ==================== Version bump saat data yang ter-embed di detail album berubah ====================
+
+    @Modifying
+    @Query("UPDATE VERSIONED Album a SET a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.albumId IN (SELECT a2.albumId FROM Album a2 JOIN a2.songs s WHERE s.songId = :songId)")
+    int touchAlbumsContainingSong(@Param("songId") String songId);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Album a SET a.updatedAt = CURRENT_TIMESTAMP WHERE a.artist.artistId = :artistId")
+    int touchAlbumsByArtist(@Param("artistId") String artistId);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Album a SET a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.albumId IN (SELECT a2.albumId FROM Album a2 JOIN a2.genres g WHERE g.id = :genreId)")
+    int touchAlbumsWithGenre(@Param("genreId") String genreId);
+
+    // ==================== Cleanup saat lagu dihapus (set-based) ====================
+
+    // Turunkan song_count semua album yang berisi lagu (harus dipanggil sebelum baris relasi dihapus).
+    // VERSIONED → version ikut naik, ETag/cache detail album yang lama tidak dipakai lagi
+    @Modifying
+    @Query("UPDATE VERSIONED Album a " +
+           "SET a.songCount = CASE WHEN a.songCount > 0 THEN a.songCount - 1 ELSE 0 END, " +
+           "a.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE a.albumId IN " +
+           "(SELECT a2.albumId FROM Album a2 JOIN a2.songs s WHERE s.songId = :songId)")
+    int decrementSongCountForSong(@Param("songId") String songId);
+
+    // Tutup celah track_number di album yang berisi lagu (harus dipanggil sebelum baris relasi dihapus);
+    // @OrderColumn mengisi celah dengan null saat list di-load
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "album_songs"))
+    @Query(value = "UPDATE album_songs x SET track_number = x.track_number - 1 " +
+                   "FROM album_songs d " +
+                   "WHERE d.song_id = :songId AND x.album_id = d.album_id AND x.track_number > d.track_number",
+           nativeQuery = true)
+    int closeTrackGaps(@Param("songId") String songId);
+
+    // Hapus lagu dari semua album; query space dibatasi supaya second-level cache lain tidak ikut di-invalidate
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "album_songs"))
+    @Query(value = "DELETE FROM album_songs WHERE song_id = :songId", nativeQuery = true)
+    int deleteSongFromAllAlbums(@Param("songId") String songId);
+
+    // Repair counter: hitung ulang song_count dari album_songs, hanya baris yang drift yang di-update
+    @Modifying
+    @Query(value = "UPDATE albums a SET song_count = c.cnt " +
+                   "FROM (SELECT al.album_id, COUNT(x.song_id) AS cnt FROM albums al " +
+                   "      LEFT JOIN album_songs x ON x.album_id = al.album_id GROUP BY al.album_id) c " +
+                   "WHERE a.album_id = c.album_id AND a.song_count <> c.cnt",
+           nativeQuery = true)
+    int repairSongCounts();
 }
@@ -4,19 +4,28 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import melodia.model.entity.Artist;
 
 @Repository
 public interface ArtistRepository extends JpaRepository<Artist, String> {
 
+    // Semua artist (dropdown admin) → query cache, invalidasi otomatis saat tabel artists berubah
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Artist> findAll();
+
     // Cari artist berdasarkan nama (artistName)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Artist> findByArtistName(String artistName);
 
     // Cek apakah nama artist sudah dipakai
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByArtistName(String artistName);
 
     // Search artist by name OR bio (case-insensitive)
@@ -24,4 +33,18 @@ public interface ArtistRepository extends JpaRepository<Artist, String> {
            "WHERE LOWER(a.artistName) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "   OR LOWER(a.bio) LIKE LOWER(CONCAT('%', :keyword, '%'))")
     List<Artist> searchByKeyword(@Param("keyword") String keyword);
+
+    // Turunkan song_count satu artist tanpa load entity
+    @Modifying
+    @Query("UPDATE Artist a SET a.songCount = a.songCount - 1 WHERE a.artistId = :artistId AND a.songCount > 0")
+    int decrementSongCount(@Param("artistId") String artistId);
+
+    // Repair counter: hitung ulang song_count dari songs.artist_id, hanya baris yang drift yang di-update
+    @Modifying
+    @Query(value = "UPDATE artists a SET song_count = c.cnt " +
+                   "FROM (SELECT ar.artist_id, COUNT(s.song_id) AS cnt FROM artists ar " +
+                   "      LEFT JOIN songs s ON s.artist_id = ar.artist_id GROUP BY ar.artist_id) c " +
+                   "WHERE a.artist_id = c.artist_id AND a.song_count <> c.cnt",
+           nativeQuery = true)
+    int repairSongCounts();
 }
@@ -1,20 +1,64 @@
 package melodia.model.repository;
 
+import melodia.model.dto.response.GenreResponse;
 import melodia.model.entity.Genre;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface GenreRepository extends JpaRepository<Genre, String> {
-    
+
+    // Semua genre (dropdown upload/filter) → query cache, invalidasi otomatis saat tabel genres berubah
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Genre> findAll();
+
     // Cari genre berdasarkan nama (unique)
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<Genre> findByName(String name);
 
     // Search genre by keyword (case-insensitive)
     List<Genre> findByNameContainingIgnoreCase(String keyword);
 
     // Cek duplikasi nama genre
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     boolean existsByName(String name);
+
+    // Semua genre + jumlah lagu, dibaca langsung dari kolom counter song_count (tanpa JOIN/GROUP BY)
+    @Query("SELECT new melodia.model.dto.response.GenreResponse(g.id, g.name, g.description, g.songCount) " +
+           "FROM Genre g ORDER BY g.name")
+    List<GenreResponse> findAllWithSongCount();
+
+    // Search genre + jumlah lagu (case-insensitive), juga dari kolom counter
+    @Query("SELECT new melodia.model.dto.response.GenreResponse(g.id, g.name, g.description, g.songCount) " +
+           "FROM Genre g " +
+           "WHERE LOWER(g.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
+           "ORDER BY g.name")
+    List<GenreResponse> searchWithSongCount(@Param("keyword") String keyword);
+
+    // Hitung lagu untuk satu genre langsung di DB (COUNT di tabel relasi)
+    @Query("SELECT COUNT(s) FROM Song s JOIN s.genres g WHERE g.id = :genreId")
+    long countSongsByGenreId(@Param("genreId") String genreId);
+
+    // Turunkan song_count semua genre milik lagu (JPQL bulk → hanya region cache Genre yang di-invalidate)
+    @Modifying
+    @Query("UPDATE Genre g SET g.songCount = g.songCount - 1 " +
+           "WHERE g.songCount > 0 AND g.id IN " +
+           "(SELECT sg.id FROM Song s JOIN s.genres sg WHERE s.songId = :songId)")
+    int decrementSongCountForSong(@Param("songId") String songId);
+
+    // Repair counter: hitung ulang song_count dari song_genres, hanya baris yang drift yang di-update
+    @Modifying
+    @Query(value = "UPDATE genres g SET song_count = c.cnt " +
+                   "FROM (SELECT gn.id, COUNT(sg.song_id) AS cnt FROM genres gn " +
+                   "      LEFT JOIN song_genres sg ON sg.genre_id = gn.id GROUP BY gn.id) c " +
+                   "WHERE g.id = c.id AND g.song_count <> c.cnt",
+           nativeQuery = true)
+    int repairSongCounts();
 }
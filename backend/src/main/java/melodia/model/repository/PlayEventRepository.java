@@ -0,0 +1,60 @@
+package melodia.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import melodia.model.entity.PlayEvent;
+
+@Repository
+public interface PlayEventRepository extends JpaRepository<PlayEvent, Long> {
+
+    // Event terbaru milik user (index scan user_id, played_at DESC, dibatasi Pageable)
+    @Query("SELECT e.song.songId FROM PlayEvent e WHERE e.userId = :userId ORDER BY e.playedAt DESC, e.id DESC")
+    List<String> findRecentSongIds(@Param("userId") String userId, Pageable pageable);
+
+    // Sama seperti di atas plus waktu putar: pasangan [songId, playedAt] (seed ring recent plays)
+    @Query("SELECT e.song.songId, e.playedAt FROM PlayEvent e WHERE e.userId = :userId ORDER BY e.playedAt DESC, e.id DESC")
+    List<Object[]> findRecentPlays(@Param("userId") String userId, Pageable pageable);
+
+    // Semua lagu unik yang pernah diputar user, urut dari pemutaran terakhir
+    @Query("SELECT e.song.songId FROM PlayEvent e WHERE e.userId = :userId " +
+           "GROUP BY e.song.songId ORDER BY MAX(e.playedAt) DESC")
+    List<String> findDistinctSongIdsByLastPlayed(@Param("userId") String userId);
+
+    // Jumlah lagu unik yang pernah diputar user
+    @Query("SELECT COUNT(DISTINCT e.song.songId) FROM PlayEvent e WHERE e.userId = :userId")
+    long countDistinctSongsByUserId(@Param("userId") String userId);
+
+    // Jumlah play sejak waktu tertentu (statistik admin "plays today"); pakai idx_play_events_played_at
+    @Query("SELECT COUNT(e) FROM PlayEvent e WHERE e.playedAt >= :since")
+    long countPlayedSince(@Param("since") LocalDateTime since);
+
+    // Ordinal semua lagu unik yang pernah diputar user (untuk membangun bitset PlayedSongsIndex)
+    @Query("SELECT DISTINCT e.song.songOrdinal FROM PlayEvent e WHERE e.userId = :userId")
+    List<Integer> findDistinctSongOrdinalsByUserId(@Param("userId") String userId);
+
+    boolean existsByUserId(String userId);
+
+    boolean existsByUserIdAndSong_SongId(String userId, String songId);
+
+    // ==================== Bulk delete (tanpa load entity) ====================
+
+    @Modifying
+    @Query("DELETE FROM PlayEvent e WHERE e.userId = :userId AND e.song.songId = :songId")
+    int deleteByUserIdAndSongId(@Param("userId") String userId, @Param("songId") String songId);
+
+    @Modifying
+    @Query("DELETE FROM PlayEvent e WHERE e.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+
+    @Modifying
+    @Query("DELETE FROM PlayEvent e WHERE e.song.songId = :songId")
+    int deleteBySongId(@Param("songId") String songId);
+}
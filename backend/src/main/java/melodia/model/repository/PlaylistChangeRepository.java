@@ -0,0 +1,75 @@
+package melodia.model.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import melodia.model.entity.PlaylistChange;
+
+@Repository
+public interface PlaylistChangeRepository extends JpaRepository<PlaylistChange, Long> {
+
+    // Perubahan setelah version tertentu, urut version (range scan di index playlist_id, version)
+    @Query("SELECT c FROM PlaylistChange c WHERE c.playlistId = :playlistId AND c.version > :since " +
+           "ORDER BY c.version, c.id")
+    List<PlaylistChange> findSince(@Param("playlistId") String playlistId,
+                                   @Param("since") long since,
+                                   Pageable pageable);
+
+    // Catat REMOVE untuk semua playlist yang berisi lagu yang dihapus (set-based).
+    // Dipanggil setelah version playlist dinaikkan dan sebelum baris playlist_entries dihapus
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "playlist_changes"))
+    @Query(value = "INSERT INTO playlist_changes (id, playlist_id, version, op, song_id, changed_at) " +
+                   "SELECT nextval('playlist_changes_seq'), e.playlist_id, p.version, 'REMOVE', e.song_id, now() " +
+                   "FROM playlist_entries e JOIN playlists p ON p.playlist_id = e.playlist_id " +
+                   "WHERE e.song_id = :songId",
+           nativeQuery = true)
+    int recordSongRemovedFromAll(@Param("songId") String songId);
+
+    // Catat SONG untuk setiap entry yang datanya berubah, dengan version playlist yang baru saja dinaikkan
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "playlist_changes"))
+    @Query(value = "INSERT INTO playlist_changes (id, playlist_id, version, op, song_id, changed_at) " +
+                   "SELECT nextval('playlist_changes_seq'), e.playlist_id, p.version, 'SONG', e.song_id, now() " +
+                   "FROM playlist_entries e JOIN playlists p ON p.playlist_id = e.playlist_id " +
+                   "WHERE e.song_id = :songId",
+           nativeQuery = true)
+    int recordSongChangedInAll(@Param("songId") String songId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "playlist_changes"))
+    @Query(value = "INSERT INTO playlist_changes (id, playlist_id, version, op, song_id, changed_at) " +
+                   "SELECT nextval('playlist_changes_seq'), e.playlist_id, p.version, 'SONG', e.song_id, now() " +
+                   "FROM playlist_entries e JOIN playlists p ON p.playlist_id = e.playlist_id " +
+                   "JOIN songs s ON s.song_id = e.song_id " +
+                   "WHERE s.artist_id = :artistId",
+           nativeQuery = true)
+    int recordArtistChangedInAll(@Param("artistId") String artistId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "playlist_changes"))
+    @Query(value = "INSERT INTO playlist_changes (id, playlist_id, version, op, song_id, changed_at) " +
+                   "SELECT nextval('playlist_changes_seq'), e.playlist_id, p.version, 'SONG', e.song_id, now() " +
+                   "FROM playlist_entries e JOIN playlists p ON p.playlist_id = e.playlist_id " +
+                   "JOIN song_genres sg ON sg.song_id = e.song_id " +
+                   "WHERE sg.genre_id = :genreId",
+           nativeQuery = true)
+    int recordGenreChangedInAll(@Param("genreId") String genreId);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistChange c WHERE c.playlistId = :playlistId")
+    int deleteByPlaylistId(@Param("playlistId") String playlistId);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistChange c WHERE c.changedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
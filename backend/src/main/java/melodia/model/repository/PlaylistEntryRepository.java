@@ -0,0 +1,77 @@
+package melodia.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.QueryHint;
+import melodia.model.entity.PlaylistEntry;
+import melodia.model.entity.Song;
+
+@Repository
+public interface PlaylistEntryRepository extends JpaRepository<PlaylistEntry, Long> {
+
+    // ==================== Baca ====================
+
+    // Isi playlist sesuai urutan (range scan di index playlist_id, position), artist ikut di-fetch
+    @Query("SELECT s FROM PlaylistEntry e JOIN e.song s JOIN FETCH s.artist " +
+           "WHERE e.playlistId = :playlistId ORDER BY e.position, e.id")
+    List<Song> findSongsByPlaylistId(@Param("playlistId") String playlistId);
+
+    @Query("SELECT e FROM PlaylistEntry e WHERE e.playlistId = :playlistId AND e.song.songId = :songId")
+    Optional<PlaylistEntry> findByPlaylistIdAndSongId(@Param("playlistId") String playlistId,
+                                                      @Param("songId") String songId);
+
+    // Entry untuk sekumpulan lagu di satu playlist (batch edit), song ikut di-fetch untuk key map
+    @Query("SELECT e FROM PlaylistEntry e JOIN FETCH e.song s WHERE e.playlistId = :playlistId AND s.songId IN :songIds")
+    List<PlaylistEntry> findByPlaylistIdAndSongIds(@Param("playlistId") String playlistId,
+                                                   @Param("songIds") Collection<String> songIds);
+
+    @Query("SELECT COUNT(e) > 0 FROM PlaylistEntry e WHERE e.playlistId = :playlistId AND e.song.songId = :songId")
+    boolean existsByPlaylistIdAndSongId(@Param("playlistId") String playlistId, @Param("songId") String songId);
+
+    // ==================== Posisi ====================
+
+    // Posisi terakhir (satu lookup di ujung index), 0 kalau playlist masih kosong
+    @Query("SELECT COALESCE(MAX(e.position), 0) FROM PlaylistEntry e WHERE e.playlistId = :playlistId")
+    long findMaxPosition(@Param("playlistId") String playlistId);
+
+    // Posisi tetangga berikutnya setelah :position, tanpa menghitung entry yang sedang dipindah
+    @Query("SELECT MIN(e.position) FROM PlaylistEntry e " +
+           "WHERE e.playlistId = :playlistId AND e.position > :position AND e.id <> :excludeId")
+    Long findNextPosition(@Param("playlistId") String playlistId,
+                          @Param("position") long position,
+                          @Param("excludeId") Long excludeId);
+
+    // Renormalisasi posisi satu playlist ke kelipatan GAP (hanya dipanggil kalau celah antar tetangga habis)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "playlist_entries"))
+    @Query(value = "UPDATE playlist_entries e SET position = r.rn * " + PlaylistEntry.GAP + " " +
+                   "FROM (SELECT id, ROW_NUMBER() OVER (ORDER BY position, id) AS rn " +
+                   "      FROM playlist_entries WHERE playlist_id = :playlistId) r " +
+                   "WHERE e.id = r.id",
+           nativeQuery = true)
+    int renormalizePositions(@Param("playlistId") String playlistId);
+
+    // ==================== Hapus ====================
+
+    @Modifying
+    @Query("DELETE FROM PlaylistEntry e WHERE e.playlistId = :playlistId AND e.song.songId = :songId")
+    int deleteByPlaylistIdAndSongId(@Param("playlistId") String playlistId, @Param("songId") String songId);
+
+    @Modifying
+    @Query("DELETE FROM PlaylistEntry e WHERE e.playlistId = :playlistId")
+    int deleteByPlaylistId(@Param("playlistId") String playlistId);
+
+    // Hapus lagu dari semua playlist (dipanggil saat lagu dihapus, setelah counter playlist diturunkan)
+    @Modifying
+    @Query("DELETE FROM PlaylistEntry e WHERE e.song.songId = :songId")
+    int deleteBySongId(@Param("songId") String songId);
+}
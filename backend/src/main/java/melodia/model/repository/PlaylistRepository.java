@@ -1,12 +1,15 @@
 package melodia.model.repository;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import melodia.model.entity.Playlist;
-import melodia.model.entity.Song;
 import melodia.model.entity.User;
 
 @Repository
@@ -18,6 +21,50 @@ public interface PlaylistRepository extends JpaRepository<Playlist, String> {
     // Cari playlist berdasarkan nama (case-insensitive, cocok untuk fitur search)
     List<Playlist> findByNameContainingIgnoreCase(String name);
 
-    // Cari playlist yang berisi lagu tertentu
-    List<Playlist> findBySongsContaining(Song song);
+    // Cari playlist yang berisi lagu tertentu (lewat index playlist_entries.song_id)
+    @Query("SELECT p FROM Playlist p WHERE p.playlistId IN " +
+           "(SELECT e.playlistId FROM PlaylistEntry e WHERE e.song.songId = :songId)")
+    List<Playlist> findByContainingSong(@Param("songId") String songId);
+
+    // Version saat ini saja (untuk ETag / delta sync), tanpa load owner & metadata
+    @Query("SELECT p.version FROM Playlist p WHERE p.playlistId = :playlistId")
+    Optional<Long> findVersionById(@Param("playlistId") String playlistId);
+
+    // ==================== Version bump saat data lagu yang tampil di isi playlist berubah ====================
+
+    @Modifying
+    @Query("UPDATE VERSIONED Playlist p SET p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.playlistId IN (SELECT e.playlistId FROM PlaylistEntry e WHERE e.song.songId = :songId)")
+    int touchPlaylistsContainingSong(@Param("songId") String songId);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Playlist p SET p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.playlistId IN (SELECT e.playlistId FROM PlaylistEntry e WHERE e.song.artist.artistId = :artistId)")
+    int touchPlaylistsByArtist(@Param("artistId") String artistId);
+
+    @Modifying
+    @Query("UPDATE VERSIONED Playlist p SET p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.playlistId IN (SELECT e.playlistId FROM PlaylistEntry e JOIN e.song s JOIN s.genres g WHERE g.id = :genreId)")
+    int touchPlaylistsWithGenre(@Param("genreId") String genreId);
+
+    // ==================== Cleanup saat lagu dihapus (set-based) ====================
+
+    // Turunkan song_count semua playlist yang berisi lagu (harus dipanggil sebelum baris relasi dihapus).
+    // VERSIONED → version ikut naik, jadi edit playlist yang sedang berjalan gagal optimistic lalu di-retry
+    @Modifying
+    @Query("UPDATE VERSIONED Playlist p " +
+           "SET p.songCount = CASE WHEN p.songCount > 0 THEN p.songCount - 1 ELSE 0 END, " +
+           "p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.playlistId IN " +
+           "(SELECT e.playlistId FROM PlaylistEntry e WHERE e.song.songId = :songId)")
+    int decrementSongCountForSong(@Param("songId") String songId);
+
+    // Repair counter: hitung ulang song_count dari playlist_entries, hanya baris yang drift yang di-update
+    @Modifying
+    @Query(value = "UPDATE playlists p SET song_count = c.cnt " +
+                   "FROM (SELECT pl.playlist_id, COUNT(x.song_id) AS cnt FROM playlists pl " +
+                   "      LEFT JOIN playlist_entries x ON x.playlist_id = pl.playlist_id GROUP BY pl.playlist_id) c " +
+                   "WHERE p.playlist_id = c.playlist_id AND p.song_count <> c.cnt",
+           nativeQuery = true)
+    int repairSongCounts();
 }
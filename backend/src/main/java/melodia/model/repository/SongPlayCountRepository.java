@@ -0,0 +1,20 @@
+package melodia.model.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import melodia.model.entity.SongPlayCount;
+
+@Repository
+public interface SongPlayCountRepository extends JpaRepository<SongPlayCount, String> {
+
+    // Triple [songId, songOrdinal, playCount tersimpan] per lagu, satu query (lagu tanpa baris count → null)
+    @Query("SELECT s.songId, s.songOrdinal, c.playCount FROM Song s " +
+           "LEFT JOIN SongPlayCount c ON c.songId = s.songId WHERE s.songId IN :songIds")
+    List<Object[]> findCountsBySongIds(@Param("songIds") Collection<String> songIds);
+}
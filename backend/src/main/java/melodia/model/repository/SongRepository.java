@@ -1,8 +1,17 @@
 package melodia.model.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import jakarta.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import melodia.model.entity.Song;
@@ -24,4 +33,62 @@ public interface SongRepository extends JpaRepository<Song, String> {
 
     // Cek duplikasi judul
     boolean existsByTitle(String title);
+
+    // ==================== Song ordinal (referensi ringkas untuk data encoded) ====================
+
+    // Pasangan [songId, songOrdinal] untuk sekumpulan lagu, satu query
+    @Query("SELECT s.songId, s.songOrdinal FROM Song s WHERE s.songId IN :songIds")
+    List<Object[]> findOrdinalsBySongIds(@Param("songIds") Collection<String> songIds);
+
+    List<Song> findBySongOrdinalIn(Collection<Integer> songOrdinals);
+
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist LEFT JOIN FETCH s.genres WHERE s.songOrdinal IN :songOrdinals")
+    List<Song> findBySongOrdinalInForListing(@Param("songOrdinals") Collection<Integer> songOrdinals);
+
+    // Ordinal lagu terbaru (home feed); metadata di-load lewat findBySongOrdinalInForListing
+    // supaya LIMIT tidak bercampur dengan fetch join koleksi genres
+    @Query("SELECT s.songOrdinal FROM Song s ORDER BY s.uploadedAt DESC, s.songOrdinal DESC")
+    List<Integer> findNewestOrdinals(Pageable pageable);
+
+    // Total ukuran file audio (statistik admin); lagu lama tanpa file_size dihitung 0
+    @Query("SELECT COALESCE(SUM(s.fileSize), 0) FROM Song s")
+    long sumFileSize();
+
+    // ==================== Delete (set-based) ====================
+
+    // Relasi genre lagu; dihapus manual karena bulk DELETE di bawah tidak menyentuh join table
+    @Modifying
+    @QueryHints(@QueryHint(name = "org.hibernate.query.native.spaces", value = "song_genres"))
+    @Query(value = "DELETE FROM song_genres WHERE song_id = :songId", nativeQuery = true)
+    int deleteGenreLinks(@Param("songId") String songId);
+
+    @Modifying
+    @Query("DELETE FROM Song s WHERE s.songId = :songId")
+    int deleteBySongId(@Param("songId") String songId);
+
+    // ==================== Fetch plan untuk list lagu ====================
+    // Artist & genres di-JOIN FETCH sekaligus → satu query per list, tanpa N+1 saat mapping ke DTO.
+
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist LEFT JOIN FETCH s.genres")
+    List<Song> findAllForListing();
+
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist LEFT JOIN FETCH s.genres WHERE s.songId = :songId")
+    Optional<Song> findByIdForListing(@Param("songId") String songId);
+
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist LEFT JOIN FETCH s.genres " +
+           "WHERE LOWER(s.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    List<Song> searchByTitleForListing(@Param("title") String title);
+
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist a LEFT JOIN FETCH s.genres " +
+           "WHERE LOWER(a.artistName) LIKE LOWER(CONCAT('%', :artistName, '%'))")
+    List<Song> searchByArtistNameForListing(@Param("artistName") String artistName);
+
+    // Filter genre lewat subquery supaya koleksi genres yang di-fetch tetap lengkap (tidak ikut terfilter)
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist LEFT JOIN FETCH s.genres " +
+           "WHERE s.songId IN (SELECT s2.songId FROM Song s2 JOIN s2.genres g WHERE LOWER(g.name) = LOWER(:genreName))")
+    List<Song> findByGenreNameForListing(@Param("genreName") String genreName);
+
+    @Query("SELECT DISTINCT s FROM Song s JOIN FETCH s.artist LEFT JOIN FETCH s.genres " +
+           "WHERE s.releaseYear = :releaseYear")
+    List<Song> findByReleaseYearForListing(@Param("releaseYear") int releaseYear);
 }
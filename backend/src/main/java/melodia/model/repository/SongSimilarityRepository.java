@@ -0,0 +1,20 @@
+package melodia.model.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import melodia.model.entity.SongSimilarity;
+
+@Repository
+public interface SongSimilarityRepository extends JpaRepository<SongSimilarity, String> {
+
+    // Lagu yang saat ini menyimpan :songId sebagai tetangga (dipakai update incremental saat lagu diubah/dihapus)
+    // Pakai idx_song_similarities_neighbors (GIN jsonb_path_ops, DDL manual); tanpa itu @> = seq scan seluruh tabel
+    @Query(value = "SELECT song_id FROM song_similarities WHERE neighbor_ids @> jsonb_build_array(CAST(:songId AS text))",
+           nativeQuery = true)
+    List<String> findSongIdsReferencing(@Param("songId") String songId);
+}
@@ -0,0 +1,28 @@
+package melodia.model.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import melodia.model.entity.UserDailyStats;
+import melodia.model.entity.UserDailyStatsId;
+
+@Repository
+public interface UserDailyStatsRepository extends JpaRepository<UserDailyStats, UserDailyStatsId> {
+
+    // Rollup harian user dalam rentang tanggal (range scan di primary key user_id, stat_date)
+    @Query("SELECT s FROM UserDailyStats s WHERE s.id.userId = :userId " +
+           "AND s.id.statDate BETWEEN :from AND :to ORDER BY s.id.statDate")
+    List<UserDailyStats> findByUserIdAndDateRange(@Param("userId") String userId,
+                                                  @Param("from") LocalDate from,
+                                                  @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM UserDailyStats s WHERE s.id.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
+}
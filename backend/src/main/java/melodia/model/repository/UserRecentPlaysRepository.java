@@ -3,9 +3,9 @@ package melodia.model.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
-import melodia.model.entity.History;
+import melodia.model.entity.UserRecentPlays;
 
 @Repository
-public interface HistoryRepository extends JpaRepository<History, String> {
+public interface UserRecentPlaysRepository extends JpaRepository<UserRecentPlays, String> {
 
 }
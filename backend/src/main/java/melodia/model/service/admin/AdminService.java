@@ -3,6 +3,7 @@ package melodia.model.service.admin;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import melodia.controller.exception.admin.InvalidOperationException;
@@ -13,12 +14,14 @@ import melodia.model.entity.Artist;
 import melodia.model.entity.Playlist;
 import melodia.model.entity.Song;
 import melodia.model.entity.User;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.AccountRepository;
 import melodia.model.repository.AlbumRepository;
 import melodia.model.repository.ArtistRepository;
-import melodia.model.repository.GenreRepository;
 import melodia.model.repository.PlaylistRepository;
 import melodia.model.repository.SongRepository;
+import melodia.model.service.music.SongDeletionService;
+import melodia.model.service.user.AccountDeletionService;
 
 @Service
 public class AdminService {
@@ -39,39 +42,25 @@ public class AdminService {
     private PlaylistRepository playlistRepository;
 
     @Autowired
-    private GenreRepository genreRepository;
+    private SongDeletionService songDeletionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
 
     // ==================== Dashboard Statistics ====================
     
     /**
      * Get admin dashboard statistics
-     * @return AdminStatsResponse with platform statistics
+     * @return AdminStatsResponse with platform statistics (dari counter AdminStatsService, O(1))
      */
     public AdminStatsResponse getAdminStats() {
-        long totalUsers = accountRepository.findAll().stream()
-            .filter(acc -> acc instanceof User)
-            .count();
-        int totalArtists = (int) artistRepository.count();
-        int totalGenres = (int) genreRepository.count();
-        
-        // Count banned accounts (assuming you have isBanned field)
-        // If not, you can use: int bannedAccounts = 0;
-        int bannedAccounts = countBannedAccounts();
-        
-        return new AdminStatsResponse((int) totalUsers, totalArtists, totalGenres, bannedAccounts);
-    }
-
-    /**
-     * Count total banned accounts (User + Artist)
-     * @return count of banned accounts
-     */
-    private int countBannedAccounts() {
-        // TODO: Implement based on your Account entity
-        // If you have isBanned field in Account/User/Artist:
-        // return userRepository.countByIsBannedTrue() + artistRepository.countByIsBannedTrue();
-        
-        // For now, return 0 if ban system not implemented yet
-        return 0;
+        return adminStatsService.getStats();
     }
 
     // ==================== Content Management ====================
@@ -80,9 +69,11 @@ public class AdminService {
      * Delete song by admin (admin override)
      */
     public void deleteSongByAdmin(String songId) {
-        Song song = songRepository.findById(songId)
-            .orElseThrow(() -> new InvalidOperationException("Song tidak ditemukan"));
-        songRepository.delete(song);
+        if (!songRepository.existsById(songId)) {
+            throw new InvalidOperationException("Song tidak ditemukan");
+        }
+        // Lewat SongDeletionService supaya relasi & counter album/playlist/artist/genre ikut dibereskan
+        songDeletionService.deleteSongWithReferences(songId);
     }
 
     /**
@@ -92,6 +83,7 @@ public class AdminService {
         Album album = albumRepository.findById(albumId)
             .orElseThrow(() -> new InvalidOperationException("Album tidak ditemukan"));
         albumRepository.delete(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(albumId));
     }
 
     /**
@@ -113,7 +105,7 @@ public class AdminService {
         if (!(account instanceof User)) {
             throw new InvalidOperationException("User tidak ditemukan");
         }
-        accountRepository.deleteById(userId);
+        accountDeletionService.delete(account);
     }
 
     /**
@@ -124,6 +116,7 @@ public class AdminService {
             throw new InvalidOperationException("Artist tidak ditemukan");
         }
         artistRepository.deleteById(artistId);
+        eventPublisher.publishEvent(CatalogChangedEvent.artist(artistId));
     }
 
     // ==================== Search & Filter for Admin ====================
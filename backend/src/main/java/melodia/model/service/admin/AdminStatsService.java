@@ -0,0 +1,270 @@
+package melodia.model.service.admin;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import jakarta.annotation.PreDestroy;
+import melodia.model.dto.response.admin.AdminStatsResponse;
+import melodia.model.entity.Admin;
+import melodia.model.event.AccountChangedEvent;
+import melodia.model.event.CatalogChangedEvent;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.repository.AccountRepository;
+import melodia.model.repository.AlbumRepository;
+import melodia.model.repository.ArtistRepository;
+import melodia.model.repository.GenreRepository;
+import melodia.model.repository.PlayEventRepository;
+import melodia.model.repository.PlaylistRepository;
+import melodia.model.repository.SongRepository;
+import melodia.model.service.user.PlayEventBuffer;
+
+/**
+ * Statistik dashboard admin dari counter in-memory: baca = O(1), tanpa scan tabel accounts per request.
+ *
+ * - Akun: counter di-update dari AccountChangedEvent (register / hapus / ban / unban) setelah commit.
+ * - Plays today: counter per hari dari PlayRecordedEvent, reset otomatis saat ganti hari.
+ * - Katalog (song, album, artist, genre, storage): dihitung ulang di background setelah perubahan katalog (di-debounce).
+ * - Rekonsiliasi terjadwal mencocokkan semua counter dengan COUNT di database (juga jumlah playlist,
+ *   yang tidak punya event), jadi selisih akibat jalur yang tidak publish event tidak menumpuk.
+ */
+@Service
+public class AdminStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminStatsService.class);
+
+    // * Hasil hitung katalog terakhir; diganti utuh, tidak pernah diubah
+    private record CatalogCounts(long songs, long albums, long artists, long genres, long playlists, long storageBytes) {
+        static final CatalogCounts EMPTY = new CatalogCounts(0, 0, 0, 0, 0, 0);
+    }
+
+    // * Counter play untuk satu hari kalender (zona server)
+    private record DailyPlays(LocalDate day, LongAdder plays) {}
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private PlayEventRepository playEventRepository;
+
+    @Autowired
+    private PlayEventBuffer playEventBuffer;
+
+    @Value("${melodia.admin-stats.catalog-debounce-ms:2000}")
+    private long catalogDebounceMs;
+
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong admins = new AtomicLong();
+    private final AtomicLong bannedAccounts = new AtomicLong();
+    private final AtomicReference<DailyPlays> dailyPlays = new AtomicReference<>(new DailyPlays(today(), new LongAdder()));
+
+    private volatile CatalogCounts catalog = CatalogCounts.EMPTY;
+    private volatile Instant reconciledAt; // * null sampai rekonsiliasi pertama selesai
+
+    private final ScheduledExecutorService catalogScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "admin-stats-catalog");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean catalogRecountPending = new AtomicBoolean();
+
+    @PreDestroy
+    void shutdown() {
+        catalogScheduler.shutdownNow();
+    }
+
+    // ==================== Read ====================
+
+    public AdminStatsResponse getStats() {
+        CatalogCounts counts = catalog;
+        return new AdminStatsResponse(
+            users.get(),
+            counts.artists(),
+            counts.genres(),
+            bannedAccounts.get(),
+            counts.songs(),
+            counts.albums(),
+            counts.playlists(),
+            getPlaysToday(),
+            counts.storageBytes(),
+            reconciledAt
+        );
+    }
+
+    // * Jumlah akun User (tanpa Admin)
+    public long getTotalUsers() {
+        return users.get();
+    }
+
+    public long getBannedAccounts() {
+        return bannedAccounts.get();
+    }
+
+    public long getPlaysToday() {
+        DailyPlays current = dailyPlays.get();
+        return current.day().equals(today()) ? current.plays().sum() : 0;
+    }
+
+    // ==================== Incremental update ====================
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        AtomicLong typeCounter = event.isAdmin() ? admins : users;
+        switch (event.getType()) {
+            case REGISTERED -> {
+                typeCounter.incrementAndGet();
+                if (event.isBanned()) bannedAccounts.incrementAndGet();
+            }
+            case DELETED -> {
+                decrement(typeCounter);
+                if (event.isBanned()) decrement(bannedAccounts);
+            }
+            case BANNED -> bannedAccounts.incrementAndGet();
+            case UNBANNED -> decrement(bannedAccounts);
+        }
+    }
+
+    // Listener ringan (dipanggil di thread request): hanya increment LongAdder
+    @EventListener
+    public void onPlayRecorded(PlayRecordedEvent event) {
+        LocalDate day = today();
+        if (!event.getPlayedAt().atZone(ZoneId.systemDefault()).toLocalDate().equals(day)) {
+            return; // * Play lama dari sync offline bukan bagian dari hari ini
+        }
+        dailyPlays(day).plays().increment();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (catalogRecountPending.compareAndSet(false, true)) {
+            catalogScheduler.schedule(() -> {
+                catalogRecountPending.set(false);
+                recountCatalog();
+            }, catalogDebounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private DailyPlays dailyPlays(LocalDate day) {
+        DailyPlays current = dailyPlays.get();
+        while (!current.day().equals(day)) {
+            // Ganti hari: satu thread memasang counter baru, yang lain memakai hasilnya
+            dailyPlays.compareAndSet(current, new DailyPlays(day, new LongAdder()));
+            current = dailyPlays.get();
+        }
+        return current;
+    }
+
+    private static void decrement(AtomicLong counter) {
+        counter.updateAndGet(v -> Math.max(0, v - 1));
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneId.systemDefault());
+    }
+
+    // ==================== Rekonsiliasi ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reconcile();
+    }
+
+    /**
+     * Cocokkan ulang semua counter dengan database.
+     * Event yang ter-commit di antara query dan set bisa terhitung dua kali / hilang; rekonsiliasi berikutnya membetulkannya.
+     */
+    @Scheduled(initialDelayString = "${melodia.admin-stats.reconcile-interval-ms:600000}",
+               fixedDelayString = "${melodia.admin-stats.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        long started = System.currentTimeMillis();
+        try {
+            reconcileAccounts();
+            reconcilePlaysToday();
+            recountCatalog();
+            reconciledAt = Instant.now();
+            logger.info("Admin stats reconciled in {} ms (users={}, banned={}, playsToday={})",
+                        System.currentTimeMillis() - started, users.get(), bannedAccounts.get(), getPlaysToday());
+        } catch (RuntimeException e) {
+            logger.error("Admin stats reconciliation failed, keeping current counters: {}", e.getMessage(), e);
+        }
+    }
+
+    // * Satu GROUP BY per discriminator account_type, bukan findAll + instanceof
+    private void reconcileAccounts() {
+        long userCount = 0, adminCount = 0, bannedCount = 0;
+        List<Object[]> rows = accountRepository.countByAccountType();
+        for (Object[] row : rows) {
+            long total = ((Number) row[1]).longValue();
+            if (Admin.class.equals(row[0])) {
+                adminCount += total;
+            } else {
+                userCount += total;
+            }
+            bannedCount += row[2] != null ? ((Number) row[2]).longValue() : 0;
+        }
+        users.set(userCount);
+        admins.set(adminCount);
+        bannedAccounts.set(bannedCount);
+    }
+
+    // * DB + play hari ini yang masih di PlayEventBuffer (belum di-flush), supaya counter live tidak turun.
+    //   Buffer dibaca dulu: batch yang ter-commit di antaranya paling buruk terhitung dua kali sampai rekonsiliasi berikutnya
+    private void reconcilePlaysToday() {
+        LocalDate day = today();
+        long buffered = playEventBuffer.countPendingSince(
+            day.atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        long count = playEventRepository.countPlayedSince(day.atStartOfDay());
+        LongAdder plays = new LongAdder();
+        plays.add(count + buffered);
+        dailyPlays.set(new DailyPlays(day, plays));
+    }
+
+    private synchronized void recountCatalog() {
+        try {
+            catalog = new CatalogCounts(
+                songRepository.count(),
+                albumRepository.count(),
+                artistRepository.count(),
+                genreRepository.count(),
+                playlistRepository.count(),
+                songRepository.sumFileSize()
+            );
+        } catch (RuntimeException e) {
+            logger.error("Catalog stats recount failed, keeping previous counts: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package melodia.model.service.admin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.persistence.EntityManagerFactory;
+import melodia.model.dto.response.admin.CacheStatsResponse;
+
+/**
+ * Membaca statistik second-level cache dari Hibernate Statistics
+ * (aktif lewat hibernate.generate_statistics di application.properties).
+ */
+@Service
+public class CacheStatsService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    public CacheStatsResponse getCacheStats() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        List<CacheStatsResponse.RegionStats> regions = new ArrayList<>();
+        Arrays.stream(stats.getSecondLevelCacheRegionNames()).sorted().forEach(name -> {
+            CacheRegionStatistics region = stats.getCacheRegionStatistics(name);
+            if (region != null) {
+                regions.add(new CacheStatsResponse.RegionStats(
+                    name,
+                    region.getHitCount(),
+                    region.getMissCount(),
+                    region.getPutCount(),
+                    region.getElementCountInMemory()
+                ));
+            }
+        });
+
+        return new CacheStatsResponse(
+            stats.getSecondLevelCacheHitCount(),
+            stats.getSecondLevelCacheMissCount(),
+            stats.getSecondLevelCachePutCount(),
+            stats.getQueryCacheHitCount(),
+            stats.getQueryCacheMissCount(),
+            regions
+        );
+    }
+}
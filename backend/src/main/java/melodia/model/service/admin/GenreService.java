@@ -2,16 +2,19 @@ package melodia.model.service.admin;
 
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import melodia.config.CacheConfig;
 import melodia.controller.exception.music.GenreAlreadyExistsException;
 import melodia.controller.exception.music.GenreNotFoundException;
 import melodia.model.dto.response.GenreResponse;
 import melodia.model.entity.Genre;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.GenreRepository;
 
 @Service
@@ -20,20 +23,23 @@ public class GenreService {
     @Autowired
     private GenreRepository genreRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Get all genres with song count
      */
+    @Cacheable(cacheNames = CacheConfig.GENRES, key = "'all'", sync = true)
+    @Transactional(readOnly = true)
     public List<GenreResponse> getAllGenres() {
-        List<Genre> genres = genreRepository.findAll();
-        
-        return genres.stream()
-            .map(this::toGenreResponse)
-            .collect(Collectors.toList());
+        // Satu query, jumlah lagu dibaca dari kolom counter song_count
+        return genreRepository.findAllWithSongCount();
     }
 
     /**
      * Get genre by ID
      */
+    @Transactional(readOnly = true)
     public GenreResponse getGenreById(String id) {
         Genre genre = genreRepository.findById(id)
             .orElseThrow(() -> new GenreNotFoundException("Genre tidak ditemukan"));
@@ -62,6 +68,7 @@ public class GenreService {
         // Buat genre baru
         Genre newGenre = new Genre(genreId, name.trim(), description);
         Genre savedGenre = genreRepository.save(newGenre);
+        eventPublisher.publishEvent(CatalogChangedEvent.genre(savedGenre.getId()));
 
         return toGenreResponse(savedGenre);
     }
@@ -90,6 +97,7 @@ public class GenreService {
         }
 
         Genre updatedGenre = genreRepository.save(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.genre(updatedGenre.getId()));
 
         return toGenreResponse(updatedGenre);
     }
@@ -103,8 +111,8 @@ public class GenreService {
         Genre genre = genreRepository.findById(id)
             .orElseThrow(() -> new IllegalArgumentException("Genre tidak ditemukan"));
 
-        // Check if genre has songs (using the relationship)
-        int songCount = genre.getSongs() != null ? genre.getSongs().size() : 0;
+        // Check if genre has songs (COUNT di DB, tanpa load koleksi songs)
+        long songCount = genreRepository.countSongsByGenreId(id);
         
         if (songCount > 0) {
             throw new IllegalStateException(
@@ -114,34 +122,30 @@ public class GenreService {
         }
 
         genreRepository.delete(genre);
+        eventPublisher.publishEvent(CatalogChangedEvent.genre(id));
     }
 
     /**
      * Search genres by keyword
      */
+    @Transactional(readOnly = true)
     public List<GenreResponse> searchGenres(String keyword) {
         if (keyword == null || keyword.trim().isEmpty()) {
             return getAllGenres();
         }
 
-        List<Genre> genres = genreRepository.findByNameContainingIgnoreCase(keyword);
-        
-        return genres.stream()
-            .map(this::toGenreResponse)
-            .collect(Collectors.toList());
+        return genreRepository.searchWithSongCount(keyword.trim());
     }
 
     /**
      * Convert Genre entity to GenreResponse DTO
      */
     private GenreResponse toGenreResponse(Genre genre) {
-        int songCount = genre.getSongs() != null ? genre.getSongs().size() : 0;
-        
         return new GenreResponse(
             genre.getId(),  // ✅ Changed from getGenreId()
             genre.getName(),
             genre.getDescription(),
-            songCount
+            genre.getSongCount() // Counter denormalized, tanpa COUNT tambahan
         );
     }
 }
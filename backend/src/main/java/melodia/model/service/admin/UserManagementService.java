@@ -9,12 +9,15 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import melodia.model.dto.response.admin.UserManagementResponse;
 import melodia.model.entity.Account;
 import melodia.model.entity.User;
+import melodia.model.event.AccountChangedEvent;
 import melodia.model.repository.AccountRepository;
+import melodia.model.service.user.AccountDeletionService;
 
 @Service
 public class UserManagementService {
@@ -24,6 +27,15 @@ public class UserManagementService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AdminStatsService adminStatsService;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
     private static final DateTimeFormatter DATE_TIME_FORMATTER =
             DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
@@ -120,9 +132,13 @@ public class UserManagementService {
         Account acc = accountRepository.findById(accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
 
+        boolean wasBanned = acc.isBanned();
         acc.setBanned(true);
         acc.setBanReason(reason);
         accountRepository.save(acc);
+        if (!wasBanned) {
+            eventPublisher.publishEvent(AccountChangedEvent.banned(acc)); // Ban ulang tidak mengubah counter
+        }
         
         logger.info("User banned successfully: {} (reason: {})", acc.getUsername(), reason);
     }
@@ -132,19 +148,22 @@ public class UserManagementService {
         Account acc = accountRepository.findById(accountId)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found"));
 
+        boolean wasBanned = acc.isBanned();
         acc.setBanned(false);
         acc.setBanReason(null);
         accountRepository.save(acc);
+        if (wasBanned) {
+            eventPublisher.publishEvent(AccountChangedEvent.unbanned(acc));
+        }
         
         logger.info("User unbanned successfully: {}", acc.getUsername());
     }
 
     public void deleteUser(String accountId) {
         logger.info("Deleting user with accountId: {}", accountId);
-        if (!accountRepository.existsById(accountId)) {
-            throw new IllegalArgumentException("Account not found");
-        }
-        accountRepository.deleteById(accountId);
+        Account acc = accountRepository.findById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found"));
+        accountDeletionService.delete(acc);
         logger.info("User deleted successfully");
     }
 
@@ -176,9 +195,7 @@ public class UserManagementService {
      */
     public long getTotalUsersCount() {
         logger.debug("Fetching total users count");
-        long total = accountRepository.findAll().stream()
-                .filter(acc -> !(acc instanceof melodia.model.entity.Admin))
-                .count();
+        long total = adminStatsService.getTotalUsers(); // Counter in-memory, bukan findAll
         
         logger.info("Total users count: {}", total);
         return total;
@@ -3,6 +3,7 @@ package melodia.model.service.artist;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -12,6 +13,7 @@ import melodia.controller.exception.admin.InvalidOperationException;
 import melodia.model.entity.Album;
 import melodia.model.entity.Artist;
 import melodia.model.entity.Song;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.AlbumRepository;
 import melodia.model.repository.ArtistRepository;
 import melodia.model.repository.SongRepository;
@@ -28,6 +30,9 @@ public class ArtistService {
     @Autowired
     private SongRepository songRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==================== Create Artist (metadata) ====================
 
     @Transactional
@@ -58,7 +63,9 @@ public class ArtistService {
             artist.setBio(bio);
         }
 
-        return artistRepository.save(artist);
+        Artist saved = artistRepository.save(artist);
+        eventPublisher.publishEvent(CatalogChangedEvent.artist(saved.getArtistId()));
+        return saved;
     }
 
     // ==================== Delete Artist ====================
@@ -78,6 +85,7 @@ public class ArtistService {
         }
 
         artistRepository.delete(artist);
+        eventPublisher.publishEvent(CatalogChangedEvent.artist(artistId));
     }
 
     // ==================== Query Methods ====================
@@ -141,5 +149,6 @@ public class ArtistService {
 
         songRepository.save(song);
         artistRepository.save(newArtist);
+        eventPublisher.publishEvent(CatalogChangedEvent.song(songId));
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import melodia.model.entity.Account;
 import melodia.model.entity.Admin;
 import melodia.model.entity.User;
 import melodia.model.repository.AccountRepository;
+import melodia.model.service.user.AccountDeletionService;
 
 @Service
 public class AuthenticationService {
@@ -16,6 +17,9 @@ public class AuthenticationService {
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private AccountDeletionService accountDeletionService;
+
     // ==================== LOGIN GENERIC (Account) ====================
 
     public Account login(String usernameOrEmail, String password) {
@@ -125,9 +129,8 @@ public class AuthenticationService {
     }
 
     public void deleteCurrentAccount(String accountId) {
-        if (!accountRepository.existsById(accountId)) {
-            throw new InvalidCredentialsException();
-        }
-        accountRepository.deleteById(accountId);
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(InvalidCredentialsException::new);
+        accountDeletionService.delete(account);
     }
 }
@@ -1,6 +1,7 @@
 package melodia.model.service.auth;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -8,10 +9,9 @@ import melodia.controller.exception.auth.AccountAlreadyExistsException;
 import melodia.controller.exception.auth.UnauthorizedException;
 import melodia.model.entity.Account;
 import melodia.model.entity.Admin;
-import melodia.model.entity.History;
 import melodia.model.entity.User;
+import melodia.model.event.AccountChangedEvent;
 import melodia.model.repository.AccountRepository;
-import melodia.model.repository.HistoryRepository;
 
 @Service
 public class RegistrationService {
@@ -20,7 +20,7 @@ public class RegistrationService {
     private AccountRepository accountRepository;
 
     @Autowired
-    private HistoryRepository historyRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     // ==================== Register User (Listener / Pendengar) ====================
 
@@ -39,10 +39,9 @@ public class RegistrationService {
         String userId = "USR" + System.currentTimeMillis();
         user.setAccountId(userId);
         user = (User) accountRepository.save(user);
+        eventPublisher.publishEvent(AccountChangedEvent.registered(user)); // Counter statistik admin (setelah commit)
 
-        // 2. Buat dan save History (riwayat dengar)
-        History history = new History(userId);
-        historyRepository.save(history);
+        // Riwayat dengar tidak perlu dibuat di sini: play_events terisi saat user memutar lagu
 
         return user;
     }
@@ -68,7 +67,9 @@ public class RegistrationService {
         Admin admin = new Admin(username, email, password);
         admin.setAccountId("ADM" + System.currentTimeMillis());
 
-        return (Admin) accountRepository.save(admin);
+        admin = (Admin) accountRepository.save(admin);
+        eventPublisher.publishEvent(AccountChangedEvent.registered(admin));
+        return admin;
     }
 
     // ==================== Helper: Check Account Exists ====================
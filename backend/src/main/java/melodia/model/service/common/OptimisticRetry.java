@@ -0,0 +1,101 @@
+package melodia.model.service.common;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Menjalankan satu unit kerja di transaksi baru dan mengulanginya (terbatas) kalau kalah balapan:
+ * - OptimisticLockingFailureException: baris ber-@Version sudah diubah transaksi lain
+ * - DuplicateKeyException (unique violation, SQLSTATE 23505): dua transaksi sama-sama membuat baris baru dengan key yang sama
+ * Pelanggaran integritas lain (FK, NOT NULL, CHECK) tidak akan berubah kalau diulang → langsung dilempar.
+ *
+ * Tiap percobaan membaca ulang data terbaru, jadi tidak ada update yang hilang;
+ * tidak ada lock global maupun isolation SERIALIZABLE.
+ * Harus dipanggil di luar transaksi (percobaan ulang di dalam transaksi yang sama tidak ada gunanya).
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${melodia.optimistic-retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${melodia.optimistic-retry.backoff-ms:10}")
+    private long backoffMs;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public <T> T inTransaction(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                if (attempt >= maxAttempts) {
+                    logger.warn("Giving up after {} attempts: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                logger.debug("Concurrent update detected (attempt {}), retrying: {}", attempt, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void runInTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // * Jalur JPA menerjemahkan unique violation jadi DataIntegrityViolationException biasa → cek SQLSTATE-nya juga
+    public static boolean isRetryable(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException || e instanceof DuplicateKeyException) {
+            return true;
+        }
+        return e instanceof DataIntegrityViolationException
+            && NestedExceptionUtils.getMostSpecificCause(e) instanceof SQLException sql
+            && UNIQUE_VIOLATION.equals(sql.getSQLState());
+    }
+
+    // * Backoff linear + jitter supaya transaksi yang bentrok tidak langsung bentrok lagi
+    private void backoff(int attempt) {
+        long sleep = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying concurrent update", ie);
+        }
+    }
+}
@@ -5,16 +5,24 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import melodia.config.CacheConfig;
 import melodia.controller.exception.admin.ArtistNotFoundException;
 import melodia.controller.exception.music.AlbumNotFoundException;
 import melodia.controller.exception.music.GenreNotFoundException;
+import melodia.model.dto.response.AlbumDetailResponse;
+import melodia.model.dto.response.AlbumSummaryResponse;
 import melodia.model.entity.Album;
 import melodia.model.entity.Artist;
 import melodia.model.entity.Genre;
 import melodia.model.entity.Song;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.AlbumRepository;
 import melodia.model.repository.ArtistRepository;
 import melodia.model.repository.GenreRepository;
@@ -35,6 +43,9 @@ public class AlbumService {
     @Autowired
     private SongRepository songRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // ==================== READ OPERATIONS ====================
 
     @Transactional(readOnly = true)
@@ -42,12 +53,45 @@ public class AlbumService {
         return albumRepository.findAll();
     }
 
+    /**
+     * Ringkasan semua album untuk home page, read-through cache.
+     * sync = true → saat miss hanya satu thread yang query ke DB.
+     */
+    @Cacheable(cacheNames = CacheConfig.ALBUM_SUMMARIES, key = "'all'", sync = true)
+    @Transactional(readOnly = true)
+    public List<AlbumSummaryResponse> getAllAlbumSummaries() {
+        return albumRepository.findAllForListing().stream()
+            .map(AlbumSummaryResponse::from)
+            .toList();
+    }
+
     @Transactional(readOnly = true)
     public Album getAlbumById(String albumId) {
         return albumRepository.findById(albumId)
             .orElseThrow(() -> new AlbumNotFoundException("Album tidak ditemukan dengan ID: " + albumId));
     }
 
+    /**
+     * Version album saat ini (untuk ETag). Satu lookup kolom, tanpa load relasi.
+     */
+    @Transactional(readOnly = true)
+    public long getAlbumVersion(String albumId) {
+        return albumRepository.findVersionById(albumId)
+            .orElseThrow(() -> new AlbumNotFoundException("Album tidak ditemukan dengan ID: " + albumId));
+    }
+
+    /**
+     * Detail album (artist, genres, track urut + total durasi) dari satu fetch-join query.
+     * Di-cache per (albumId, version): perubahan album menaikkan version → key baru, entry lama expire sendiri.
+     */
+    @Cacheable(cacheNames = CacheConfig.ALBUM_DETAILS, key = "#albumId + ':' + #version", sync = true)
+    @Transactional(readOnly = true)
+    public AlbumDetailResponse getAlbumDetail(String albumId, long version) {
+        return albumRepository.findDetailById(albumId)
+            .map(AlbumDetailResponse::from)
+            .orElseThrow(() -> new AlbumNotFoundException("Album tidak ditemukan dengan ID: " + albumId));
+    }
+
     @Transactional(readOnly = true)
     public List<Song> getAlbumSongs(String albumId) {
         Album album = getAlbumById(albumId);
@@ -78,7 +122,9 @@ public class AlbumService {
             album.setGenres(genres);
         }
 
-        return albumRepository.save(album);
+        Album saved = albumRepository.save(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(saved.getAlbumId()));
+        return saved;
     }
 
     // ==================== UPDATE OPERATIONS ====================
@@ -95,7 +141,9 @@ public class AlbumService {
             album.setReleaseYear(newReleaseYear);
         }
 
-        return albumRepository.save(album);
+        Album saved = albumRepository.save(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(saved.getAlbumId()));
+        return saved;
     }
 
     /**
@@ -122,7 +170,9 @@ public class AlbumService {
             album.setGenres(genres);
         }
 
-        return albumRepository.save(album);
+        Album saved = albumRepository.save(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(saved.getAlbumId()));
+        return saved;
     }
 
     /**
@@ -158,7 +208,9 @@ public class AlbumService {
         }
 
         album.addSong(song);
-        return albumRepository.save(album);
+        Album saved = albumRepository.save(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(saved.getAlbumId()));
+        return saved;
     }
 
     @Transactional
@@ -168,7 +220,28 @@ public class AlbumService {
             .orElseThrow(() -> new IllegalArgumentException("Song not found with ID: " + songId));
 
         album.removeSong(song);
-        return albumRepository.save(album);
+        Album saved = albumRepository.save(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(saved.getAlbumId()));
+        return saved;
+    }
+
+    // ==================== VERSION BUMP ====================
+
+    /**
+     * Lagu, artist atau genre yang ter-embed di detail album berubah → version album terkait ikut naik.
+     * BEFORE_COMMIT: jalan di transaksi yang sama dengan perubahannya, jadi ETag tidak pernah mendahului data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case SONG -> albumRepository.touchAlbumsContainingSong(event.getId());
+            case ARTIST -> albumRepository.touchAlbumsByArtist(event.getId());
+            case GENRE -> albumRepository.touchAlbumsWithGenre(event.getId());
+            case ALBUM -> { } // entity album sendiri sudah menaikkan version saat flush
+        }
     }
 
     // ==================== DELETE OPERATION ====================
@@ -177,6 +250,7 @@ public class AlbumService {
     public void deleteAlbum(String albumId) {
         Album album = getAlbumById(albumId);
         albumRepository.delete(album);
+        eventPublisher.publishEvent(CatalogChangedEvent.album(albumId));
     }
 
     // ==================== SEARCH & FILTER OPERATIONS ====================
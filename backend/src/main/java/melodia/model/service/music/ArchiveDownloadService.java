@@ -0,0 +1,318 @@
+package melodia.model.service.music;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import melodia.controller.exception.music.AlbumNotFoundException;
+import melodia.controller.exception.music.DownloadBusyException;
+import melodia.controller.exception.music.PlaylistNotFoundException;
+import melodia.model.entity.Album;
+import melodia.model.entity.Playlist;
+import melodia.model.entity.Song;
+import melodia.model.repository.AlbumRepository;
+import melodia.model.repository.PlaylistEntryRepository;
+import melodia.model.repository.PlaylistRepository;
+
+/**
+ * Download satu album / playlist sebagai satu file ZIP yang dibangun sambil streaming.
+ *
+ * - Tiap lagu di-stream dari storage ke response lewat buffer ukuran tetap: tidak ada temp file,
+ *   dan heap yang dipakai per download = prefetch-depth × pipe-buffer, berapa pun ukuran albumnya.
+ * - Lagu berikutnya (sampai prefetch-depth) sudah di-fetch paralel ke pipe masing-masing
+ *   selagi lagu sekarang ditulis, jadi latency storage per file tidak dijumlahkan.
+ * - Satu download memegang sampai prefetch-depth thread pool, jadi jumlah download bersamaan dibatasi
+ *   prefetch-threads / prefetch-depth; kelebihannya ditolak 503 sebelum response dimulai.
+ *   Prefetch yang pipe-nya tidak dibaca selama write-timeout (client macet) dihentikan dan thread-nya kembali ke pool.
+ * - Entry ditulis tanpa kompresi (Deflater level 0): audio sudah terkompresi, dan CRC/ukuran
+ *   ditulis di data descriptor setelah isi, jadi file tidak perlu dibaca dua kali.
+ */
+@Service
+public class ArchiveDownloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveDownloadService.class);
+
+    private static final int COPY_BUFFER = 64 * 1024;
+
+    // * Isi ZIP yang sudah di-resolve di dalam transaksi; streaming-nya sendiri berjalan di luar transaksi
+    public record Archive(String fileName, List<Track> tracks) {}
+
+    public record Track(String entryName, String filePath) {}
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Autowired
+    private PlaylistEntryRepository playlistEntryRepository;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${melodia.downloads.prefetch-threads:16}")
+    private int prefetchThreads;
+
+    @Value("${melodia.downloads.prefetch-depth:4}")
+    private int prefetchDepth;
+
+    @Value("${melodia.downloads.pipe-buffer-kb:256}")
+    private int pipeBufferKb;
+
+    @Value("${melodia.downloads.write-timeout:60s}")
+    private Duration writeTimeout;
+
+    private ExecutorService prefetchExecutor;
+
+    private Semaphore downloadSlots; // * Satu permit = satu download = prefetch-depth thread
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        prefetchExecutor = Executors.newFixedThreadPool(prefetchThreads, r -> {
+            Thread t = new Thread(r, "archive-prefetch-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        downloadSlots = new Semaphore(Math.max(1, prefetchThreads / prefetchDepth));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    // ==================== Resolve isi ====================
+
+    @Transactional(readOnly = true)
+    public Archive prepareAlbum(String albumId) {
+        Album album = albumRepository.findById(albumId)
+            .orElseThrow(() -> new AlbumNotFoundException("Album tidak ditemukan dengan ID: " + albumId));
+        return new Archive(safeName(album.getTitle()) + ".zip", toTracks(album.getSongs()));
+    }
+
+    @Transactional(readOnly = true)
+    public Archive preparePlaylist(String playlistId) {
+        Playlist playlist = playlistRepository.findById(playlistId)
+            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+        return new Archive(safeName(playlist.getName()) + ".zip",
+                           toTracks(playlistEntryRepository.findSongsByPlaylistId(playlistId)));
+    }
+
+    // * "01 - Artist - Judul.mp3", nomor urut supaya urutan album/playlist tetap terlihat di file manager
+    private List<Track> toTracks(List<Song> songs) {
+        int digits = Math.max(2, String.valueOf(songs.size()).length());
+        Set<String> used = new HashSet<>();
+        List<Track> tracks = new ArrayList<>(songs.size());
+        for (int i = 0; i < songs.size(); i++) {
+            Song song = songs.get(i);
+            String base = String.format("%0" + digits + "d - %s - %s", i + 1,
+                                        safeName(song.getArtistName()), safeName(song.getTitle()));
+            String name = base + extensionOf(song.getFilePath());
+            if (!used.add(name)) {
+                name = base + " (" + song.getSongId() + ")" + extensionOf(song.getFilePath());
+                used.add(name);
+            }
+            tracks.add(new Track(name, song.getFilePath()));
+        }
+        return tracks;
+    }
+
+    private static String safeName(String value) {
+        String cleaned = value == null ? "" : value.replaceAll("[\\\\/:*?\"<>|\\p{Cntrl}]", "").trim();
+        return cleaned.isEmpty() ? "untitled" : cleaned;
+    }
+
+    private static String extensionOf(String filePath) {
+        int dot = filePath == null ? -1 : filePath.lastIndexOf('.');
+        return dot >= 0 && dot > filePath.lastIndexOf('/') ? filePath.substring(dot) : ".mp3";
+    }
+
+    // ==================== Streaming ====================
+
+    /**
+     * Ambil slot download sekarang (sebelum header 200 dikirim) dan kembalikan body yang menulis ZIP-nya.
+     * Slot dilepas setelah streaming selesai atau gagal.
+     *
+     * @throws DownloadBusyException semua slot terpakai (503)
+     */
+    public StreamingResponseBody stream(Archive archive) {
+        if (!downloadSlots.tryAcquire()) {
+            throw new DownloadBusyException();
+        }
+        return out -> {
+            try {
+                write(archive, out);
+            } finally {
+                downloadSlots.release();
+            }
+        };
+    }
+
+    /**
+     * Tulis ZIP ke response. Dipanggil dari StreamingResponseBody (thread async MVC).
+     * Kalau satu lagu gagal dibaca / client putus, IOException dilempar dan prefetch yang tersisa dibatalkan.
+     */
+    private void write(Archive archive, OutputStream response) throws IOException {
+        long started = System.currentTimeMillis();
+        List<Track> tracks = archive.tracks();
+        ArrayDeque<Prefetch> window = new ArrayDeque<>(prefetchDepth);
+        int next = 0;
+
+        ZipOutputStream zip = new ZipOutputStream(response);
+        zip.setMethod(ZipOutputStream.DEFLATED);
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        byte[] buffer = new byte[COPY_BUFFER];
+        long bytes = 0;
+
+        try {
+            while (next < tracks.size() && window.size() < prefetchDepth) {
+                window.add(prefetch(tracks.get(next++)));
+            }
+            while (!window.isEmpty()) {
+                Prefetch current = window.poll();
+                if (next < tracks.size()) {
+                    window.add(prefetch(tracks.get(next++))); // * Jaga jendela tetap penuh selagi lagu ini ditulis
+                }
+
+                zip.putNextEntry(new ZipEntry(current.track.entryName()));
+                try (InputStream in = current.pipe) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        zip.write(buffer, 0, read);
+                        bytes += read;
+                    }
+                }
+                if (current.failure != null) {
+                    throw new IOException("Gagal membaca " + current.track.filePath() + " dari storage", current.failure);
+                }
+                zip.closeEntry();
+            }
+            zip.finish();
+            zip.flush();
+            logger.info("Archive {} streamed: {} tracks, {} bytes in {} ms",
+                        archive.fileName(), tracks.size(), bytes, System.currentTimeMillis() - started);
+        } finally {
+            for (Prefetch pending : window) {
+                pending.cancel();
+            }
+        }
+    }
+
+    private Prefetch prefetch(Track track) throws IOException {
+        Prefetch prefetch = new Prefetch(track, pipeBufferKb * 1024);
+        prefetch.future = prefetchExecutor.submit(prefetch);
+        return prefetch;
+    }
+
+    // * Pipe yang bisa ditanya sisa ruangnya, supaya penulis tidak pernah blok tanpa batas di PipedOutputStream.write
+    private static final class TimedPipe extends PipedInputStream {
+
+        TimedPipe(int bufferSize) {
+            super(bufferSize);
+        }
+
+        // Tunggu sampai ada ruang kosong di buffer; 0 kalau pembaca tidak mengambil apa pun selama timeout
+        synchronized int awaitSpace(long timeoutMillis) throws IOException {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (in == out) { // in == out → buffer penuh (in < 0 → kosong)
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return 0;
+                }
+                try {
+                    wait(Math.min(remaining, 1000)); // read() tidak notify saat mengosongkan → poll seperti receive()
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Prefetch dibatalkan");
+                }
+            }
+            return in < 0 ? buffer.length : in > out ? buffer.length - (in - out) : out - in;
+        }
+    }
+
+    // * Satu lagu: thread prefetch menyalin dari storage ke pipe berbuffer tetap, thread response membaca ujung lainnya
+    private final class Prefetch implements Runnable {
+        final Track track;
+        final TimedPipe pipe;
+        final PipedOutputStream sink;
+        volatile IOException failure; //! Di-set sebelum sink ditutup, jadi terlihat oleh pembaca saat EOF
+        Future<?> future;
+
+        Prefetch(Track track, int bufferSize) throws IOException {
+            this.track = track;
+            this.pipe = new TimedPipe(bufferSize);
+            this.sink = new PipedOutputStream(pipe);
+        }
+
+        @Override
+        public void run() {
+            try (PipedOutputStream out = sink) {
+                try (InputStream source = fileStorageService.loadFileAsResource(track.filePath()).getInputStream()) {
+                    copy(source, out);
+                } catch (IOException | RuntimeException e) {
+                    failure = e instanceof IOException io ? io : new IOException(e.getMessage(), e);
+                }
+            } catch (IOException e) {
+                // pipe sudah ditutup pembaca (download dibatalkan)
+            }
+        }
+
+        // Tiap write hanya sebesar ruang kosong pipe, jadi tidak pernah blok; pipe penuh terlalu lama → gagal dengan timeout
+        private void copy(InputStream source, PipedOutputStream out) throws IOException {
+            byte[] buffer = new byte[COPY_BUFFER];
+            int read;
+            while ((read = source.read(buffer)) != -1) {
+                int written = 0;
+                while (written < read) {
+                    int space = pipe.awaitSpace(writeTimeout.toMillis());
+                    if (space == 0) {
+                        throw new IOException("Pipe tidak dibaca selama " + writeTimeout.toSeconds() + " detik");
+                    }
+                    int chunk = Math.min(space, read - written);
+                    out.write(buffer, written, chunk);
+                    written += chunk;
+                }
+            }
+        }
+
+        void cancel() {
+            if (future != null) {
+                future.cancel(false); // belum jalan → tidak pernah membuka koneksi storage
+            }
+            try {
+                pipe.close(); // sedang jalan → write berikutnya gagal, koneksi storage ditutup
+            } catch (IOException e) {
+                logger.debug("Could not close prefetch pipe for {}: {}", track.filePath(), e.getMessage());
+            }
+        }
+    }
+}
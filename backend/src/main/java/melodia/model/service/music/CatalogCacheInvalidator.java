@@ -0,0 +1,71 @@
+package melodia.model.service.music;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import melodia.config.CacheConfig;
+import melodia.model.event.CatalogChangedEvent;
+
+/**
+ * Menghapus entry cache katalog setelah perubahan ter-commit.
+ * AFTER_COMMIT supaya reader berikutnya tidak me-load ulang data lama yang belum commit;
+ * fallbackExecution untuk pemanggil yang tidak berada di dalam transaksi.
+ */
+@Component
+public class CatalogCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogCacheInvalidator.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        logger.debug("Evicting catalog caches for {}", event);
+
+        switch (event.getType()) {
+            case SONG -> {
+                // Song count album/genre ikut berubah
+                evict(CacheConfig.SONG_BY_ID, event.getId());
+                clear(CacheConfig.ALBUM_SUMMARIES);
+                clear(CacheConfig.GENRES);
+            }
+            case ALBUM -> clear(CacheConfig.ALBUM_SUMMARIES);
+            case GENRE -> {
+                // Nama genre ikut ter-embed di SongResponse & ringkasan album
+                clear(CacheConfig.GENRES);
+                clear(CacheConfig.ALBUM_SUMMARIES);
+                clear(CacheConfig.SONG_BY_ID);
+            }
+            case ARTIST -> {
+                clear(CacheConfig.ALBUM_SUMMARIES);
+                clear(CacheConfig.SONG_BY_ID);
+            }
+        }
+    }
+
+    private void evict(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
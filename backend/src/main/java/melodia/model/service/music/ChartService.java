@@ -0,0 +1,431 @@
+package melodia.model.service.music;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import melodia.model.dto.response.ChartEntryResponse;
+import melodia.model.dto.response.ChartResponse;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.event.CatalogChangedEvent;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.repository.SongRepository;
+
+/**
+ * Chart trending & top (24h / 7d), dipelihara incremental dari play event.
+ *
+ * - Jalur play: increment LongAdder per song_ordinal (tanpa lock), sama seperti SongPlayCountService.
+ *   Play dari jam sebelumnya (sync offline) masuk antrian backfill dan dicatat ke bucket jam playedAt-nya.
+ * - Tiap refresh (background): delta sejak refresh terakhir masuk ke bucket per jam,
+ *   total window 24h/7d ditambah delta lalu dikurangi bucket yang keluar window,
+ *   skor trending di-decay eksponensial (half-life) lalu ditambah delta.
+ * - Top-k global & per genre dipilih dengan min-heap berukuran k, hasilnya disimpan sebagai snapshot immutable.
+ * - Request chart hanya membaca snapshot (O(1)), tidak ada GROUP BY ke play_events.
+ *
+ * State window hanya di memori; saat startup di-seed sekali dari play_events 7 hari terakhir.
+ */
+@Service
+public class ChartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChartService.class);
+
+    public static final String WINDOW_24H = "24h";
+    public static final String WINDOW_7D = "7d";
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final int HOURS_24H = 24;
+    private static final int HOURS_7D = 168;
+    private static final double MIN_TRENDING_SCORE = 0.01; // * Skor di bawah ini dibuang supaya map tidak tumbuh terus
+    private static final String GLOBAL = "*";
+    private static final int RESOLVE_CHUNK = 1000; // * Batas IN (...) saat load metadata lagu
+
+    // * Counter play satu lagu. consumed hanya ditulis thread refresh.
+    private static final class Counter {
+        final LongAdder plays = new LongAdder();
+        long consumed;
+    }
+
+    // * Jumlah play per lagu dalam satu jam.
+    private static final class HourBucket {
+        final long hour;
+        final Map<Integer, Long> counts = new HashMap<>();
+        boolean leftDay; // sudah dikurangkan dari total 24h
+
+        HourBucket(long hour) {
+            this.hour = hour;
+        }
+    }
+
+    // * Play lama (sync offline) yang harus masuk ke bucket jam aslinya, bukan jam sekarang.
+    private record BackfillPlay(int ordinal, long playedAtMillis) {}
+
+    // * Hasil satu kali refresh; dibaca request tanpa lock.
+    private record Snapshot(Instant generatedAt,
+                            Map<String, ChartResponse> trending,
+                            Map<String, ChartResponse> top24h,
+                            Map<String, ChartResponse> top7d) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Value("${melodia.charts.top-k:50}")
+    private int topK;
+
+    @Value("${melodia.charts.trending-half-life:6h}")
+    private Duration trendingHalfLife;
+
+    private final ConcurrentHashMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, SongResponse> songs = new ConcurrentHashMap<>(); // * Metadata lagu per ordinal
+    private final ConcurrentLinkedQueue<BackfillPlay> backfill = new ConcurrentLinkedQueue<>();
+    private volatile boolean reloadSongs; // * Metadata berubah → semua lagu di-load ulang di refresh berikutnya
+
+    // State window & decay (hanya disentuh di dalam synchronized refresh/seed)
+    private final ArrayDeque<HourBucket> buckets = new ArrayDeque<>();
+    private final Map<Integer, Long> total24h = new HashMap<>();
+    private final Map<Integer, Long> total7d = new HashMap<>();
+    private final Map<Integer, Double> trending = new HashMap<>();
+    private long lastDecayMillis = System.currentTimeMillis();
+
+    private volatile Snapshot snapshot = new Snapshot(Instant.now(), Map.of(), Map.of(), Map.of());
+
+    // ==================== Read (snapshot) ====================
+
+    public ChartResponse getTrending(String genreId, int limit) {
+        return pick(snapshot.trending(), "trending", null, genreId, limit);
+    }
+
+    public ChartResponse getTop(String window, String genreId, int limit) {
+        Snapshot current = snapshot;
+        Map<String, ChartResponse> charts = switch (window) {
+            case WINDOW_24H -> current.top24h();
+            case WINDOW_7D -> current.top7d();
+            default -> throw new IllegalArgumentException("Window harus 24h atau 7d");
+        };
+        return pick(charts, "top", window, genreId, limit);
+    }
+
+    private ChartResponse pick(Map<String, ChartResponse> charts, String chart, String window,
+                               String genreId, int limit) {
+        String key = genreId != null && !genreId.isBlank() ? genreId : GLOBAL;
+        ChartResponse found = charts.get(key);
+        if (found == null) {
+            return new ChartResponse(chart, window, GLOBAL.equals(key) ? null : key, snapshot.generatedAt(), List.of());
+        }
+        if (limit <= 0 || limit >= found.getEntries().size()) {
+            return found;
+        }
+        return new ChartResponse(chart, window, found.getGenreId(), found.getGeneratedAt(),
+                                 found.getEntries().subList(0, limit));
+    }
+
+    // ==================== Increment ====================
+
+    @EventListener
+    public void onPlayRecorded(PlayRecordedEvent event) {
+        long now = System.currentTimeMillis();
+        long playedAt = event.getPlayedAt().toEpochMilli();
+        // Play lama dari sync offline sudah di luar semua window chart
+        if (playedAt <= now - HOURS_7D * HOUR_MS) {
+            return;
+        }
+        SongResponse song = musicService.getSongResponseById(event.getSongId()); // cache hit dari recordPlay
+        if (song == null || song.getSongOrdinal() == null) {
+            return;
+        }
+        int ordinal = song.getSongOrdinal();
+        songs.putIfAbsent(ordinal, song);
+
+        if (playedAt / HOUR_MS < now / HOUR_MS) {
+            backfill.add(new BackfillPlay(ordinal, playedAt));
+            return;
+        }
+        Counter counter = counters.get(ordinal);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(ordinal, k -> new Counter());
+        }
+        counter.plays.increment();
+    }
+
+    // Metadata (judul, genre, artist) berubah → di-load ulang di refresh berikutnya.
+    // Map songs tidak di-clear di sini: refresh yang sedang jalan bisa salah mengira lagu terhapus
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() != CatalogChangedEvent.Type.ALBUM) {
+            reloadSongs = true;
+        }
+    }
+
+    // ==================== Seed & Refresh ====================
+
+    /**
+     * Isi bucket 7 hari terakhir dari play_events, satu query agregat per jam (hanya sekali saat startup).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void seed() {
+        // Delta yang masuk sebelum seed sudah/akan ikut terbaca dari play_events
+        counters.values().forEach(c -> c.consumed = c.plays.sum());
+        backfill.clear();
+
+        long nowHour = System.currentTimeMillis() / HOUR_MS;
+        Map<Long, HourBucket> byHour = new HashMap<>();
+        try {
+            jdbcTemplate.query(
+                "SELECT s.song_ordinal, date_trunc('hour', e.played_at) AS hour, COUNT(*) AS plays " +
+                "FROM play_events e JOIN songs s ON s.song_id = e.song_id " +
+                "WHERE e.played_at >= ? GROUP BY s.song_ordinal, date_trunc('hour', e.played_at)",
+                rs -> {
+                    int ordinal = rs.getInt(1);
+                    long hour = rs.getTimestamp(2).getTime() / HOUR_MS;
+                    long plays = rs.getLong(3);
+                    byHour.computeIfAbsent(hour, HourBucket::new).counts.merge(ordinal, plays, Long::sum);
+                },
+                new Timestamp((nowHour - HOURS_7D + 1) * HOUR_MS));
+        } catch (RuntimeException e) {
+            logger.error("Chart seed from play_events failed, starting empty: {}", e.getMessage());
+        }
+
+        long now = System.currentTimeMillis();
+        double lambda = Math.log(2) / trendingHalfLife.toMillis();
+        byHour.values().stream()
+            .sorted(Comparator.comparingLong(b -> b.hour))
+            .forEach(bucket -> {
+                buckets.addLast(bucket);
+                long ageMillis = Math.max(0, now - (bucket.hour * HOUR_MS + HOUR_MS / 2));
+                double weight = Math.exp(-lambda * ageMillis);
+                bucket.counts.forEach((ordinal, plays) -> {
+                    total7d.merge(ordinal, plays, Long::sum);
+                    if (bucket.hour > nowHour - HOURS_24H) {
+                        total24h.merge(ordinal, plays, Long::sum);
+                    } else {
+                        bucket.leftDay = true;
+                    }
+                    trending.merge(ordinal, plays * weight, Double::sum);
+                });
+            });
+        lastDecayMillis = now;
+
+        logger.info("Charts seeded from {} hourly buckets", byHour.size());
+        rebuildSnapshot();
+    }
+
+    @Scheduled(initialDelayString = "${melodia.charts.refresh-interval-ms:60000}",
+               fixedDelayString = "${melodia.charts.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        long nowHour = now / HOUR_MS;
+
+        // 1. Decay skor trending sesuai waktu yang lewat sejak refresh terakhir
+        double factor = Math.exp(-Math.log(2) * (now - lastDecayMillis) / trendingHalfLife.toMillis());
+        lastDecayMillis = now;
+        trending.replaceAll((ordinal, score) -> score * factor);
+        trending.values().removeIf(score -> score < MIN_TRENDING_SCORE);
+
+        // 2. Delta baru → bucket jam ini + total window + skor trending
+        HourBucket current = buckets.peekLast();
+        if (current == null || current.hour != nowHour) {
+            current = new HourBucket(nowHour);
+            buckets.addLast(current);
+        }
+        for (Map.Entry<Integer, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long sum = counter.plays.sum();
+            long delta = sum - counter.consumed;
+            if (delta <= 0) continue;
+            counter.consumed = sum;
+
+            int ordinal = entry.getKey();
+            current.counts.merge(ordinal, delta, Long::sum);
+            total24h.merge(ordinal, delta, Long::sum);
+            total7d.merge(ordinal, delta, Long::sum);
+            trending.merge(ordinal, (double) delta, Double::sum);
+        }
+        applyBackfill(now, nowHour);
+
+        // 3. Bucket yang keluar window dikurangkan dari total
+        Iterator<HourBucket> it = buckets.iterator();
+        while (it.hasNext()) {
+            HourBucket bucket = it.next();
+            if (bucket.hour <= nowHour - HOURS_7D) {
+                bucket.counts.forEach((ordinal, plays) -> subtract(total7d, ordinal, plays));
+                if (!bucket.leftDay) {
+                    bucket.counts.forEach((ordinal, plays) -> subtract(total24h, ordinal, plays));
+                }
+                it.remove();
+            } else if (bucket.hour <= nowHour - HOURS_24H) {
+                if (!bucket.leftDay) {
+                    bucket.counts.forEach((ordinal, plays) -> subtract(total24h, ordinal, plays));
+                    bucket.leftDay = true;
+                }
+            } else {
+                break; // bucket urut per jam, sisanya masih di dalam window
+            }
+        }
+
+        rebuildSnapshot();
+    }
+
+    // * Play sync offline: masuk bucket jam playedAt (dibuat kalau belum ada, urutan jam tetap terjaga),
+    //   total 24h hanya kalau jamnya masih di window, skor trending di-decay sesuai umur play
+    private void applyBackfill(long now, long nowHour) {
+        double lambda = Math.log(2) / trendingHalfLife.toMillis();
+        BackfillPlay play;
+        while ((play = backfill.poll()) != null) {
+            long hour = play.playedAtMillis() / HOUR_MS;
+            if (hour <= nowHour - HOURS_7D) {
+                continue; // keluar window selama menunggu di antrian
+            }
+            HourBucket bucket = bucketFor(hour, nowHour);
+            int ordinal = play.ordinal();
+            bucket.counts.merge(ordinal, 1L, Long::sum);
+            total7d.merge(ordinal, 1L, Long::sum);
+            if (!bucket.leftDay) {
+                total24h.merge(ordinal, 1L, Long::sum);
+            }
+            double weight = Math.exp(-lambda * Math.max(0, now - play.playedAtMillis()));
+            trending.merge(ordinal, weight, Double::sum);
+        }
+    }
+
+    private HourBucket bucketFor(long hour, long nowHour) {
+        List<HourBucket> newer = new ArrayList<>();
+        while (!buckets.isEmpty() && buckets.peekLast().hour > hour) {
+            newer.add(buckets.pollLast());
+        }
+        HourBucket bucket = buckets.peekLast();
+        if (bucket == null || bucket.hour != hour) {
+            bucket = new HourBucket(hour);
+            bucket.leftDay = hour <= nowHour - HOURS_24H;
+            buckets.addLast(bucket);
+        }
+        for (int i = newer.size() - 1; i >= 0; i--) {
+            buckets.addLast(newer.get(i));
+        }
+        return bucket;
+    }
+
+    private static void subtract(Map<Integer, Long> totals, int ordinal, long plays) {
+        totals.computeIfPresent(ordinal, (k, v) -> v - plays > 0 ? v - plays : null);
+    }
+
+    // ==================== Snapshot ====================
+
+    private void rebuildSnapshot() {
+        resolveSongs();
+        Instant generatedAt = Instant.now();
+        snapshot = new Snapshot(
+            generatedAt,
+            buildCharts("trending", null, trending, generatedAt),
+            buildCharts("top", WINDOW_24H, total24h, generatedAt),
+            buildCharts("top", WINDOW_7D, total7d, generatedAt)
+        );
+    }
+
+    // * Metadata lagu yang belum dikenal (atau semua, setelah perubahan katalog) di-load sekaligus.
+    //   Lagu terhapus = yang diminta tapi tidak ada di hasil query ini, bukan yang kebetulan tidak ada di map.
+    private void resolveSongs() {
+        boolean reloadAll = reloadSongs;
+        reloadSongs = false;
+        Set<Integer> wanted = new HashSet<>();
+        for (Integer ordinal : total7d.keySet()) {
+            if (reloadAll || !songs.containsKey(ordinal)) wanted.add(ordinal);
+        }
+        for (Integer ordinal : trending.keySet()) {
+            if (reloadAll || !songs.containsKey(ordinal)) wanted.add(ordinal);
+        }
+        if (wanted.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, SongResponse> loaded = new HashMap<>();
+        List<Integer> ordinals = new ArrayList<>(wanted);
+        for (int from = 0; from < ordinals.size(); from += RESOLVE_CHUNK) {
+            songRepository.findBySongOrdinalInForListing(ordinals.subList(from, Math.min(from + RESOLVE_CHUNK, ordinals.size())))
+                .forEach(song -> loaded.put(song.getSongOrdinal(), SongResponse.from(song)));
+        }
+        songs.putAll(loaded);
+
+        wanted.removeIf(loaded::containsKey);
+        for (Integer removed : wanted) {
+            songs.remove(removed);
+            total24h.remove(removed);
+            total7d.remove(removed);
+            trending.remove(removed);
+            counters.remove(removed);
+        }
+    }
+
+    // * Top-k global + per genre dengan min-heap berukuran k (O(n log k))
+    private <N extends Number> Map<String, ChartResponse> buildCharts(String chart, String window,
+                                                                      Map<Integer, N> scores, Instant generatedAt) {
+        Comparator<Map.Entry<Integer, N>> byScore = Comparator.comparingDouble(e -> e.getValue().doubleValue());
+        Map<String, PriorityQueue<Map.Entry<Integer, N>>> heaps = new HashMap<>();
+
+        for (Map.Entry<Integer, N> entry : scores.entrySet()) {
+            SongResponse song = songs.get(entry.getKey());
+            if (song == null) continue;
+            offer(heaps.computeIfAbsent(GLOBAL, k -> new PriorityQueue<>(byScore)), entry, byScore);
+            for (SongResponse.GenreItem genre : song.getGenres()) {
+                offer(heaps.computeIfAbsent(genre.getId(), k -> new PriorityQueue<>(byScore)), entry, byScore);
+            }
+        }
+
+        Map<String, ChartResponse> charts = new HashMap<>();
+        heaps.forEach((key, heap) -> {
+            List<Map.Entry<Integer, N>> ranked = new ArrayList<>(heap);
+            ranked.sort(byScore.reversed());
+
+            List<ChartEntryResponse> entries = new ArrayList<>(ranked.size());
+            for (Map.Entry<Integer, N> entry : ranked) {
+                N value = entry.getValue();
+                entries.add(new ChartEntryResponse(
+                    entries.size() + 1,
+                    songs.get(entry.getKey()),
+                    value instanceof Double d ? Math.round(d * 100.0) / 100.0 : null,
+                    value instanceof Long l ? l : null));
+            }
+            charts.put(key, new ChartResponse(chart, window, GLOBAL.equals(key) ? null : key,
+                                              generatedAt, List.copyOf(entries)));
+        });
+        return Map.copyOf(charts);
+    }
+
+    private <E> void offer(PriorityQueue<E> heap, E entry, Comparator<E> byScore) {
+        if (heap.size() < topK) {
+            heap.add(entry);
+        } else if (byScore.compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+}
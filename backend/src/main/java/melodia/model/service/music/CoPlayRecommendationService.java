@@ -0,0 +1,556 @@
+package melodia.model.service.music;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import it.unimi.dsi.fastutil.ints.Int2FloatMap;
+import it.unimi.dsi.fastutil.ints.Int2FloatMaps;
+import it.unimi.dsi.fastutil.ints.Int2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import melodia.model.dto.response.RecommendationResponse;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.event.CatalogChangedEvent;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.repository.SongRepository;
+import melodia.model.service.user.PlayEventBuffer;
+
+/**
+ * Rekomendasi item-ke-item dari co-occurrence ("yang dengar lagu ini juga memutar ...") dan radio dari satu lagu.
+ *
+ * - Model: matriks sparse song_ordinal × song_ordinal di map primitive (fastutil, tanpa boxing).
+ *   Dua lagu co-occur kalau diputar user yang sama dalam satu sesi (jeda < session-gap),
+ *   atau berdekatan (±PLAYLIST_WINDOW posisi) di playlist yang sama.
+ * - Jalur play: listener hanya memasukkan play ke antrean; matriks hanya disentuh thread refresh (synchronized).
+ * - Rebuild: matriks baru dibangun di thread coplay-rebuild tanpa lock, lalu ditukar di bawah lock singkat;
+ *   selama rebuild, refresh menahan antrean supaya play baru tidak hilang bersama matriks lama.
+ * - Refresh: antrean diterapkan, baris dipangkas ke max-neighbors, lalu top-k tetangga lagu yang berubah
+ *   dihitung ulang (skor = w_ij / sqrt(n_i · n_j)) dan dipublish sebagai snapshot immutable.
+ * - Serving: lookup snapshot + metadata lagu yang sudah di-resolve, tanpa query ke play_events.
+ *
+ * Saat startup (di background) dan rebuild harian matriks dibangun ulang dari play_events lookback-days terakhir
+ * + playlist_entries; sekalian jadi mekanisme "lupa" untuk pola dengar lama.
+ */
+@Service
+public class CoPlayRecommendationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoPlayRecommendationService.class);
+
+    public static final String KIND_ALSO_PLAYED = "also-played";
+    public static final String KIND_RADIO = "radio";
+
+    private static final float PLAY_WEIGHT = 1.0f;
+    private static final float PLAYLIST_WEIGHT = 0.5f;
+    private static final int PLAYLIST_WINDOW = 10;    // * Pasangan playlist hanya antar lagu yang berdekatan
+    private static final int RESOLVE_CHUNK = 1000;    // * Batas IN (...) saat load metadata lagu
+    private static final int RADIO_MAX_PER_ARTIST = 3;
+    private static final float RADIO_HOP_DECAY = 0.5f;
+
+    // * Tetangga satu lagu yang sudah diranking; array tidak pernah diubah setelah dipublish.
+    private record Neighbors(int[] ordinals, float[] scores) {}
+
+    private record Snapshot(Instant generatedAt, Int2ObjectOpenHashMap<Neighbors> neighbors) {}
+
+    private record Candidate(int ordinal, float score) {}
+
+    private record PendingPlay(String userId, int ordinal, long playedAtMillis) {}
+
+    // * Matriks co-occurrence + bobot per lagu; rebuild mengisi instance baru lalu menukarnya
+    private static final class Model {
+        final Int2ObjectOpenHashMap<Int2FloatOpenHashMap> cooccurrence = new Int2ObjectOpenHashMap<>();
+        final Int2FloatOpenHashMap itemWeight = new Int2FloatOpenHashMap();
+        final IntOpenHashSet dirty = new IntOpenHashSet(); // * Lagu yang top-k nya perlu dihitung ulang
+    }
+
+    // * Lagu terakhir yang diputar satu user (ring kecil), dipakai untuk membentuk pasangan sesi.
+    private static final class Session {
+        final int[] ordinals;
+        final long[] times;
+        int size;
+        int next;
+        long lastPlayedAt;
+
+        Session(int capacity) {
+            this.ordinals = new int[capacity];
+            this.times = new long[capacity];
+        }
+
+        boolean contains(int ordinal, long since) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal && times[i] >= since) return true;
+            }
+            return false;
+        }
+
+        void push(int ordinal, long playedAt) {
+            ordinals[next] = ordinal;
+            times[next] = playedAt;
+            next = (next + 1) % ordinals.length;
+            size = Math.min(size + 1, ordinals.length);
+            lastPlayedAt = Math.max(lastPlayedAt, playedAt);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private PlayEventBuffer playEventBuffer;
+
+    @Value("${melodia.recommendations.top-k:50}")
+    private int topK;
+
+    @Value("${melodia.recommendations.max-neighbors:200}")
+    private int maxNeighbors;
+
+    @Value("${melodia.recommendations.session-size:10}")
+    private int sessionSize;
+
+    @Value("${melodia.recommendations.session-gap:30m}")
+    private Duration sessionGap;
+
+    @Value("${melodia.recommendations.lookback-days:90}")
+    private int lookbackDays;
+
+    @Value("${melodia.recommendations.max-pending:100000}")
+    private int maxPending;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    // Antrean play dari thread request → thread refresh
+    private final ConcurrentLinkedQueue<PendingPlay> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingSize = new AtomicInteger();
+
+    private final ConcurrentHashMap<Integer, SongResponse> songs = new ConcurrentHashMap<>(); // * Metadata lagu per ordinal
+    private volatile boolean reloadSongs;
+
+    // State model (hanya disentuh di dalam synchronized; rebuild mengisi Model lokal di luar lock)
+    private Model model = new Model();
+    private final Map<String, Session> sessions = new HashMap<>();
+    private volatile boolean rebuilding;
+
+    private volatile Snapshot snapshot = new Snapshot(Instant.now(), new Int2ObjectOpenHashMap<>());
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "coplay-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // ==================== Read (snapshot) ====================
+
+    /**
+     * Lagu yang paling sering diputar bersama lagu ini (precomputed, satu lookup).
+     */
+    public RecommendationResponse getAlsoPlayed(String songId, int limit) {
+        Snapshot current = snapshot;
+        Neighbors neighbors = current.neighbors().get(ordinalOf(songId));
+        List<RecommendationResponse.Item> items = new ArrayList<>();
+        if (neighbors != null) {
+            for (int i = 0; i < neighbors.ordinals().length && items.size() < limit; i++) {
+                SongResponse song = songs.get(neighbors.ordinals()[i]);
+                if (song != null) {
+                    items.add(new RecommendationResponse.Item(items.size() + 1, song, round(neighbors.scores()[i])));
+                }
+            }
+        }
+        return new RecommendationResponse(songId, KIND_ALSO_PLAYED, current.generatedAt(), items);
+    }
+
+    /**
+     * Antrean radio dari satu lagu: jalan best-first di graf tetangga
+     * (skor turun RADIO_HOP_DECAY per hop), maksimal RADIO_MAX_PER_ARTIST lagu per artist.
+     */
+    public RecommendationResponse getRadio(String songId, int limit) {
+        Snapshot current = snapshot;
+        int seed = ordinalOf(songId);
+
+        PriorityQueue<Candidate> frontier = new PriorityQueue<>((a, b) -> Float.compare(b.score(), a.score()));
+        IntOpenHashSet seen = new IntOpenHashSet();
+        seen.add(seed);
+        expand(current, seed, 1.0f, frontier, seen);
+
+        Map<String, Integer> perArtist = new HashMap<>();
+        List<RecommendationResponse.Item> items = new ArrayList<>();
+        while (!frontier.isEmpty() && items.size() < limit) {
+            Candidate candidate = frontier.poll();
+            SongResponse song = songs.get(candidate.ordinal());
+            if (song == null) continue;
+            if (perArtist.merge(String.valueOf(song.getArtistId()), 1, Integer::sum) > RADIO_MAX_PER_ARTIST) continue;
+
+            items.add(new RecommendationResponse.Item(items.size() + 1, song, round(candidate.score())));
+            expand(current, candidate.ordinal(), candidate.score() * RADIO_HOP_DECAY, frontier, seen);
+        }
+        return new RecommendationResponse(songId, KIND_RADIO, current.generatedAt(), items);
+    }
+
+    private void expand(Snapshot current, int ordinal, float weight,
+                        PriorityQueue<Candidate> frontier, IntOpenHashSet seen) {
+        Neighbors neighbors = current.neighbors().get(ordinal);
+        if (neighbors == null) return;
+        for (int i = 0; i < neighbors.ordinals().length; i++) {
+            if (seen.add(neighbors.ordinals()[i])) {
+                frontier.add(new Candidate(neighbors.ordinals()[i], weight * neighbors.scores()[i]));
+            }
+        }
+    }
+
+    private int ordinalOf(String songId) {
+        SongResponse song = musicService.getSongResponseById(songId); // cache detail lagu
+        if (song == null || song.getSongOrdinal() == null) {
+            throw new IllegalArgumentException("Lagu tidak ditemukan: " + songId);
+        }
+        return song.getSongOrdinal();
+    }
+
+    private static double round(float score) {
+        return Math.round(score * 1000.0) / 1000.0;
+    }
+
+    // ==================== Ingest ====================
+
+    @EventListener
+    public void onPlayRecorded(PlayRecordedEvent event) {
+        SongResponse song = musicService.getSongResponseById(event.getSongId()); // cache hit dari recordPlay
+        if (song == null || song.getSongOrdinal() == null) {
+            return;
+        }
+        if (pendingSize.incrementAndGet() > maxPending) {
+            pendingSize.decrementAndGet();
+            return; // refresh tertinggal jauh; play ini tetap ikut di rebuild berikutnya dari play_events
+        }
+        songs.putIfAbsent(song.getSongOrdinal(), song);
+        pending.add(new PendingPlay(event.getUserId(), song.getSongOrdinal(), event.getPlayedAt().toEpochMilli()));
+    }
+
+    // Metadata berubah / lagu dihapus → semua metadata di-load ulang di refresh berikutnya
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getType() != CatalogChangedEvent.Type.ALBUM) {
+            reloadSongs = true;
+        }
+    }
+
+    // ==================== Refresh (incremental) ====================
+
+    @Scheduled(initialDelayString = "${melodia.recommendations.refresh-interval-ms:30000}",
+               fixedDelayString = "${melodia.recommendations.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (rebuilding) {
+            return; // antrean ditahan: setelah swap, play sesudah cut-off diterapkan ke matriks baru
+        }
+        PendingPlay play;
+        int applied = 0;
+        while ((play = pending.poll()) != null) {
+            pendingSize.decrementAndGet();
+            applyPlay(model, sessions, play.userId(), play.ordinal(), play.playedAtMillis());
+            applied++;
+        }
+
+        long idleBefore = System.currentTimeMillis() - sessionGap.toMillis();
+        sessions.values().removeIf(session -> session.lastPlayedAt < idleBefore);
+
+        if (applied > 0 || reloadSongs) {
+            publish(model, false);
+            logger.debug("Co-play model refreshed: {} plays applied", applied);
+        }
+    }
+
+    // * Pasangkan lagu dengan lagu lain di sesi user (jeda < session-gap); putar ulang lagu yang sama tidak dihitung dua kali
+    private void applyPlay(Model target, Map<String, Session> userSessions, String userId, int ordinal, long playedAt) {
+        Session session = userSessions.computeIfAbsent(userId, k -> new Session(sessionSize));
+        long windowStart = playedAt - sessionGap.toMillis();
+        if (!session.contains(ordinal, windowStart)) {
+            for (int i = 0; i < session.size; i++) {
+                int other = session.ordinals[i];
+                if (other != ordinal && Math.abs(playedAt - session.times[i]) <= sessionGap.toMillis()) {
+                    addPair(target, ordinal, other, PLAY_WEIGHT);
+                }
+            }
+        }
+        session.push(ordinal, playedAt);
+    }
+
+    private void addPair(Model target, int a, int b, float weight) {
+        addEdge(target, a, b, weight);
+        addEdge(target, b, a, weight);
+        target.itemWeight.addTo(a, weight);
+        target.itemWeight.addTo(b, weight);
+    }
+
+    private void addEdge(Model target, int from, int to, float weight) {
+        Int2FloatOpenHashMap row = target.cooccurrence.get(from);
+        if (row == null) {
+            row = new Int2FloatOpenHashMap();
+            target.cooccurrence.put(from, row);
+        }
+        row.addTo(to, weight);
+        if (row.size() > maxNeighbors * 2) {
+            prune(row, maxNeighbors);
+        }
+        target.dirty.add(from);
+    }
+
+    // * Buang edge terlemah sampai tersisa keep edge
+    private static void prune(Int2FloatOpenHashMap row, int keep) {
+        long[] ranked = rank(row, (ordinal, weight) -> weight);
+        for (int i = 0; i < ranked.length - keep; i++) {
+            row.remove((int) ranked[i]);
+        }
+    }
+
+    // ==================== Rebuild (startup + harian) ====================
+
+    // Stream 90 hari play_events tidak boleh menahan startup → jalan di background, model kosong sampai selesai
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    // Thread scheduler dipakai bersama job lain → cron hanya menitipkan rebuild ke executor sendiri
+    @Scheduled(cron = "${melodia.recommendations.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    /**
+     * Bangun ulang matriks dari play_events lookback-days terakhir + isi semua playlist.
+     * Dibaca lewat cursor (fetch size) dalam transaksi read-only ke Model lokal, tanpa lock;
+     * snapshot lama tetap dilayani sampai matriks baru ditukar di bawah lock singkat.
+     * Cut-off = play tertua yang masih di PlayEventBuffer: play sebelum cut-off dibaca dari play_events
+     * (dan dibuang dari antrean), play sesudahnya tetap di antrean untuk refresh berikutnya.
+     * Hanya dipanggil dari rebuildExecutor (satu thread) → tidak ada dua rebuild bersamaan.
+     */
+    void rebuild() {
+        long started = System.currentTimeMillis();
+        long cutoff;
+        synchronized (this) {
+            rebuilding = true; // refresh yang sedang jalan selesai dulu; berikutnya menahan antrean
+            cutoff = Math.min(started, playEventBuffer.getOldestPendingMillis());
+        }
+
+        Model next = new Model();
+        int[] rows = new int[2];
+        try {
+            Map<String, Session> replay = new HashMap<>();
+            String[] currentUser = new String[1];
+            stream("SELECT e.user_id, s.song_ordinal, e.played_at " +
+                   "FROM play_events e JOIN songs s ON s.song_id = e.song_id " +
+                   "WHERE e.played_at >= ? AND e.played_at < ? ORDER BY e.user_id, e.played_at",
+                   rs -> {
+                       String userId = rs.getString(1);
+                       if (!userId.equals(currentUser[0])) {
+                           replay.clear(); // urut per user: cukup simpan sesi satu user
+                           currentUser[0] = userId;
+                       }
+                       applyPlay(next, replay, userId, rs.getInt(2), rs.getTimestamp(3).getTime());
+                       rows[0]++;
+                   },
+                   new Timestamp(started - Duration.ofDays(lookbackDays).toMillis()), new Timestamp(cutoff));
+
+            int[] window = new int[PLAYLIST_WINDOW];
+            int[] windowSize = new int[1];
+            String[] currentPlaylist = new String[1];
+            stream("SELECT e.playlist_id, s.song_ordinal " +
+                   "FROM playlist_entries e JOIN songs s ON s.song_id = e.song_id " +
+                   "ORDER BY e.playlist_id, e.position",
+                   rs -> {
+                       String playlistId = rs.getString(1);
+                       if (!playlistId.equals(currentPlaylist[0])) {
+                           windowSize[0] = 0;
+                           currentPlaylist[0] = playlistId;
+                       }
+                       int ordinal = rs.getInt(2);
+                       int filled = Math.min(windowSize[0], PLAYLIST_WINDOW);
+                       for (int i = 0; i < filled; i++) {
+                           addPair(next, ordinal, window[i], PLAYLIST_WEIGHT);
+                       }
+                       window[windowSize[0] % PLAYLIST_WINDOW] = ordinal;
+                       windowSize[0]++;
+                       rows[1]++;
+                   });
+        } catch (RuntimeException e) {
+            logger.error("Co-play model rebuild failed, serving partial model: {}", e.getMessage());
+        }
+
+        try {
+            // Top-k semua lagu dihitung di luar lock; refresh tidak jalan selama rebuilding
+            reloadSongs = true;
+            publish(next, true);
+        } finally {
+            synchronized (this) {
+                model = next;
+                for (Iterator<PendingPlay> it = pending.iterator(); it.hasNext(); ) {
+                    if (it.next().playedAtMillis() < cutoff) {
+                        it.remove();
+                        pendingSize.decrementAndGet();
+                    }
+                }
+                sessions.clear();
+                rebuilding = false;
+            }
+        }
+        logger.info("Co-play model rebuilt from {} plays and {} playlist entries in {} ms ({} songs)",
+                    rows[0], rows[1], System.currentTimeMillis() - started, next.cooccurrence.size());
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Timestamp... params) {
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(5000); // * Cursor server-side (butuh autocommit off → di dalam transaksi)
+            for (int i = 0; i < params.length; i++) {
+                ps.setTimestamp(i + 1, params[i]);
+            }
+            return ps;
+        }, handler));
+    }
+
+    // ==================== Snapshot ====================
+
+    // * Hitung ulang top-k lagu yang berubah (atau semua kalau full) lalu publish snapshot baru
+    private void publish(Model source, boolean full) {
+        resolveSongs(source);
+
+        Int2ObjectOpenHashMap<Int2FloatOpenHashMap> cooccurrence = source.cooccurrence;
+        Int2FloatOpenHashMap itemWeight = source.itemWeight;
+        Int2ObjectOpenHashMap<Neighbors> next = full
+            ? new Int2ObjectOpenHashMap<>(cooccurrence.size())
+            : new Int2ObjectOpenHashMap<>(snapshot.neighbors());
+        IntOpenHashSet changed = full ? new IntOpenHashSet(cooccurrence.keySet()) : source.dirty;
+
+        for (IntIterator it = changed.iterator(); it.hasNext(); ) {
+            int ordinal = it.nextInt();
+            Int2FloatOpenHashMap row = cooccurrence.get(ordinal);
+            if (row == null || row.isEmpty()) {
+                next.remove(ordinal);
+                continue;
+            }
+            float ownWeight = itemWeight.get(ordinal);
+            long[] ranked = rank(row, (other, weight) ->
+                (float) (weight / Math.sqrt((double) ownWeight * Math.max(itemWeight.get(other), 1e-6f))));
+            int size = Math.min(topK, ranked.length);
+            int[] ordinals = new int[size];
+            float[] scores = new float[size];
+            for (int i = 0; i < size; i++) {
+                long packed = ranked[ranked.length - 1 - i];
+                ordinals[i] = (int) packed;
+                scores[i] = Float.intBitsToFloat((int) (packed >>> 32));
+            }
+            next.put(ordinal, new Neighbors(ordinals, scores));
+        }
+        source.dirty.clear();
+        snapshot = new Snapshot(Instant.now(), next);
+    }
+
+    // * Metadata lagu yang belum dikenal di-load per chunk; lagu yang sudah dihapus dibuang dari model
+    private void resolveSongs(Model source) {
+        Int2ObjectOpenHashMap<Int2FloatOpenHashMap> cooccurrence = source.cooccurrence;
+        Set<Integer> wanted = new HashSet<>();
+        boolean reloadAll = reloadSongs;
+        reloadSongs = false;
+        for (IntIterator it = cooccurrence.keySet().iterator(); it.hasNext(); ) {
+            int ordinal = it.nextInt();
+            if (reloadAll || !songs.containsKey(ordinal)) wanted.add(ordinal);
+        }
+        if (wanted.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, SongResponse> loaded = new HashMap<>();
+        List<Integer> ordinals = new ArrayList<>(wanted);
+        for (int from = 0; from < ordinals.size(); from += RESOLVE_CHUNK) {
+            songRepository.findBySongOrdinalInForListing(ordinals.subList(from, Math.min(from + RESOLVE_CHUNK, ordinals.size())))
+                .forEach(song -> loaded.put(song.getSongOrdinal(), SongResponse.from(song)));
+        }
+        songs.putAll(loaded);
+
+        for (Integer removed : wanted) {
+            if (loaded.containsKey(removed)) continue;
+            songs.remove(removed);
+            Int2FloatOpenHashMap row = cooccurrence.remove((int) removed);
+            source.itemWeight.remove((int) removed);
+            source.dirty.add((int) removed);
+            if (row != null) {
+                for (IntIterator it = row.keySet().iterator(); it.hasNext(); ) {
+                    int other = it.nextInt();
+                    Int2FloatOpenHashMap otherRow = cooccurrence.get(other);
+                    if (otherRow != null) {
+                        otherRow.remove((int) removed);
+                        source.dirty.add(other);
+                    }
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EdgeScore {
+        float score(int ordinal, float weight);
+    }
+
+    // * Edge diurutkan naik berdasarkan skor, dipack ke long (bit float skor ≥ 0 | ordinal) → sort primitive tanpa objek
+    private static long[] rank(Int2FloatOpenHashMap row, EdgeScore scorer) {
+        long[] packed = new long[row.size()];
+        int i = 0;
+        for (Int2FloatMap.Entry edge : Int2FloatMaps.fastIterable(row)) {
+            float score = Math.max(0f, scorer.score(edge.getIntKey(), edge.getFloatValue()));
+            packed[i++] = ((long) Float.floatToIntBits(score) << 32) | (edge.getIntKey() & 0xFFFFFFFFL);
+        }
+        Arrays.sort(packed);
+        return packed;
+    }
+}
@@ -0,0 +1,595 @@
+package melodia.model.service.music;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import melodia.model.dto.response.RecommendationResponse;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.entity.SongSimilarity;
+import melodia.model.event.CatalogChangedEvent;
+import melodia.model.repository.SongSimilarityRepository;
+
+/**
+ * Lagu mirip berbasis konten: genre, artist, tahun rilis dan album yang sama.
+ *
+ * - Skor = 0.45·jaccard(genre) + 0.25·[artist sama] + 0.15·[satu album] + 0.15·kedekatan tahun rilis
+ *   (linear, 0 di YEAR_WINDOW tahun). Kandidat hanya lagu yang berbagi minimal satu genre/artist/album;
+ *   dari daftar besar (mis. genre populer) diambil max-candidates lagu dengan tahun rilis terdekat.
+ * - Job penuh: fitur seluruh katalog di-load sekali (3 query), top-k per lagu dihitung paralel
+ *   di ForkJoinPool (RecursiveAction per rentang lagu) di thread rebuild sendiri, lalu upsert + purge
+ *   dipublish dalam satu transaksi (pembaca melihat daftar lama atau baru, tidak campuran).
+ * - Incremental: lagu di-upload/diedit (CatalogChangedEvent SONG/ALBUM setelah commit) → baris lagu itu dihitung ulang,
+ *   baris kandidat dan baris yang mereferensikannya di-merge. Jalan di thread sendiri, request admin tidak menunggu.
+ * - Serving: satu lookup PK ke song_similarities + metadata lagu dari cache SONG_BY_ID.
+ */
+@Service
+public class ContentSimilarityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentSimilarityService.class);
+
+    public static final String KIND_SIMILAR = "similar";
+
+    private static final float GENRE_WEIGHT = 0.45f;
+    private static final float ARTIST_WEIGHT = 0.25f;
+    private static final float ALBUM_WEIGHT = 0.15f;
+    private static final float YEAR_WEIGHT = 0.15f;
+    private static final int YEAR_WINDOW = 10;
+    private static final int TASK_THRESHOLD = 256; // * Lagu per leaf task fork/join
+    private static final int UPSERT_BATCH = 500;
+    private static final int IN_CHUNK = 1000;      // * Batas IN (...) saat load fitur / baris
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO song_similarities (song_id, neighbor_ids, scores, computed_at) " +
+        "VALUES (?, CAST(? AS jsonb), CAST(? AS jsonb), ?) " +
+        "ON CONFLICT (song_id) DO UPDATE SET neighbor_ids = EXCLUDED.neighbor_ids, " +
+        "scores = EXCLUDED.scores, computed_at = EXCLUDED.computed_at";
+
+    // * Fitur satu lagu; genres & albums terurut supaya irisan cukup satu merge
+    private record Features(String songId, String artistId, int year, String[] genres, String[] albums) {}
+
+    private record Scored(String songId, float score) {}
+
+    // * Hasil top-k satu lagu, siap di-upsert
+    private record Row(String songId, List<String> neighborIds, List<Double> scores) {}
+
+    // * Baris fitur yang sedang dikumpulkan dari 3 query (songs, song_genres, album_songs)
+    private static final class FeatureRow {
+        String artistId;
+        int year;
+        final List<String> genres = new ArrayList<>(2);
+        final List<String> albums = new ArrayList<>(1);
+
+        Features toFeatures(String songId) {
+            String[] sortedGenres = genres.toArray(new String[0]);
+            String[] sortedAlbums = albums.toArray(new String[0]);
+            Arrays.sort(sortedGenres);
+            Arrays.sort(sortedAlbums);
+            return new Features(songId, artistId, year, sortedGenres, sortedAlbums);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongSimilarityRepository songSimilarityRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${melodia.similarity.top-k:30}")
+    private int topK;
+
+    @Value("${melodia.similarity.max-candidates:2000}")
+    private int maxCandidates;
+
+    @Value("${melodia.similarity.parallelism:0}")
+    private int parallelism; // * 0 = jumlah core
+
+    private ForkJoinPool pool;
+
+    private TransactionTemplate publishTransaction;
+
+    // * Update incremental diantrekan di satu thread; tidak memakai worker pool supaya tidak bisa saling tunggu dengan job penuh
+    private final ExecutorService incrementalExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "song-similarity-update");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // * Job penuh punya thread sendiri: tidak menahan thread scheduler bersama maupun antrean incremental
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "song-similarity-rebuild");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Lagu yang diupdate incremental selama job penuh menghitung (hasil job bisa dari fitur sebelum edit)
+    private final Set<String> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+    private volatile boolean rebuilding;
+
+    @PostConstruct
+    void init() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        publishTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuildExecutor.shutdownNow();
+        incrementalExecutor.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    // ==================== Read ====================
+
+    /**
+     * Lagu mirip untuk halaman lagu: satu baris song_similarities, tanpa hitung skor.
+     * Tetangga yang sudah dihapus dilewati (daftar dibersihkan di update berikutnya).
+     */
+    public RecommendationResponse getSimilar(String songId, int limit) {
+        if (musicService.getSongResponseById(songId) == null) { // cache detail lagu
+            throw new IllegalArgumentException("Lagu tidak ditemukan: " + songId);
+        }
+
+        SongSimilarity row = songSimilarityRepository.findById(songId).orElse(null);
+        if (row == null) {
+            return new RecommendationResponse(songId, KIND_SIMILAR, null, List.of()); // belum dihitung (lagu baru, job antre)
+        }
+
+        List<RecommendationResponse.Item> items = new ArrayList<>();
+        for (int i = 0; i < row.getNeighborIds().size() && items.size() < limit; i++) {
+            SongResponse song = musicService.getSongResponseById(row.getNeighborIds().get(i));
+            if (song != null) {
+                items.add(new RecommendationResponse.Item(items.size() + 1, song, row.getScores().get(i)));
+            }
+        }
+        Instant computedAt = row.getComputedAt().atZone(ZoneId.systemDefault()).toInstant();
+        return new RecommendationResponse(songId, KIND_SIMILAR, computedAt, items);
+    }
+
+    // ==================== Job penuh (startup + harian) ====================
+
+    // Tabel masih kosong (deploy pertama) → hitung di background, startup tidak menunggu
+    @EventListener(ApplicationReadyEvent.class)
+    public void computeIfEmpty() {
+        if (songSimilarityRepository.count() == 0) {
+            rebuildExecutor.execute(this::recomputeAll);
+        }
+    }
+
+    @Scheduled(cron = "${melodia.similarity.rebuild-cron:0 30 4 * * *}")
+    public void scheduledRecomputeAll() {
+        rebuildExecutor.execute(this::recomputeAll);
+    }
+
+    /**
+     * Hitung ulang top-k seluruh katalog secara paralel tanpa lock, lalu publish:
+     * upsert semua baris + hapus baris yang tidak tersentuh job ini (lagu yang sudah tidak ada) dalam satu transaksi.
+     * Update incremental tetap jalan selama perhitungan; lagu yang diupdate di sela itu dihitung ulang setelah publish.
+     * Hanya dipanggil dari rebuildExecutor (satu thread) → tidak ada dua job penuh bersamaan.
+     */
+    void recomputeAll() {
+        long started = System.currentTimeMillis();
+        Timestamp computedAt = new Timestamp(started);
+        rebuilding = true;
+        try {
+            Features[] songs = loadFeatures(null).values().toArray(new Features[0]);
+            CatalogIndex index = new CatalogIndex(songs);
+            Row[] rows = new Row[songs.length];
+            pool.invoke(new TopKTask(index, rows, 0, songs.length));
+            long ranked = System.currentTimeMillis();
+
+            int purged = publish(Arrays.asList(rows), computedAt);
+            logger.info("Song similarities recomputed for {} songs (rank {} ms, total {} ms, {} stale rows purged)",
+                        songs.length, ranked - started, System.currentTimeMillis() - started, purged);
+        } catch (RuntimeException e) {
+            logger.error("Song similarity job failed, keeping previous lists: {}", e.getMessage(), e);
+        } finally {
+            List<String> redo;
+            synchronized (this) {
+                rebuilding = false;
+                redo = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            }
+            if (!redo.isEmpty()) {
+                incrementalExecutor.execute(() -> recomputeSongs(redo));
+            }
+        }
+    }
+
+    // * Di bawah lock yang sama dengan recomputeSongs: update incremental tidak bisa menyela di tengah publish
+    private synchronized int publish(List<Row> rows, Timestamp computedAt) {
+        Integer purged = publishTransaction.execute(status -> {
+            upsert(rows, computedAt);
+            return jdbcTemplate.update("DELETE FROM song_similarities WHERE computed_at < ?", computedAt);
+        });
+        return purged != null ? purged : 0;
+    }
+
+    // * Top-k untuk rentang lagu [from, to); dibelah dua sampai cukup kecil, tiap leaf menulis slot rows miliknya sendiri
+    private final class TopKTask extends RecursiveAction {
+        private final CatalogIndex index;
+        private final Row[] rows;
+        private final int from;
+        private final int to;
+
+        TopKTask(CatalogIndex index, Row[] rows, int from, int to) {
+            this.index = index;
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    rows[i] = rankInCatalog(index, i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TopKTask(index, rows, from, mid), new TopKTask(index, rows, mid, to));
+        }
+    }
+
+    // * Inverted index genre/artist/album → index lagu, tiap daftar diurutkan tahun rilis (untuk ambil jendela tahun terdekat)
+    private static final class CatalogIndex {
+        final Features[] songs;
+        final Map<String, int[]> byArtist;
+        final Map<String, int[]> byGenre;
+        final Map<String, int[]> byAlbum;
+
+        CatalogIndex(Features[] songs) {
+            this.songs = songs;
+            Map<String, IntArrayList> artists = new HashMap<>();
+            Map<String, IntArrayList> genres = new HashMap<>();
+            Map<String, IntArrayList> albums = new HashMap<>();
+            for (int i = 0; i < songs.length; i++) {
+                if (songs[i].artistId() != null) {
+                    artists.computeIfAbsent(songs[i].artistId(), k -> new IntArrayList()).add(i);
+                }
+                for (String genreId : songs[i].genres()) {
+                    genres.computeIfAbsent(genreId, k -> new IntArrayList()).add(i);
+                }
+                for (String albumId : songs[i].albums()) {
+                    albums.computeIfAbsent(albumId, k -> new IntArrayList()).add(i);
+                }
+            }
+            this.byArtist = sortedByYear(artists);
+            this.byGenre = sortedByYear(genres);
+            this.byAlbum = sortedByYear(albums);
+        }
+
+        private Map<String, int[]> sortedByYear(Map<String, IntArrayList> lists) {
+            Map<String, int[]> sorted = new HashMap<>(lists.size() * 2);
+            lists.forEach((key, list) -> {
+                int[] members = list.toIntArray();
+                IntArrays.quickSort(members, (a, b) -> Integer.compare(songs[a].year(), songs[b].year()));
+                sorted.put(key, members);
+            });
+            return sorted;
+        }
+
+        // Semua anggota daftar, atau limit anggota dengan tahun rilis terdekat kalau daftarnya besar
+        void collect(int[] members, int year, int limit, IntOpenHashSet into) {
+            if (members == null) return;
+            if (members.length <= limit) {
+                for (int member : members) into.add(member);
+                return;
+            }
+            int low = 0;
+            int high = members.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (songs[members[mid]].year() < year) low = mid + 1; else high = mid;
+            }
+            int start = Math.max(0, Math.min(low - limit / 2, members.length - limit));
+            for (int k = start; k < start + limit; k++) {
+                into.add(members[k]);
+            }
+        }
+    }
+
+    private Row rankInCatalog(CatalogIndex index, int i) {
+        Features song = index.songs[i];
+        IntOpenHashSet candidates = new IntOpenHashSet();
+        index.collect(index.byArtist.get(song.artistId()), song.year(), maxCandidates, candidates);
+        for (String genreId : song.genres()) {
+            index.collect(index.byGenre.get(genreId), song.year(), maxCandidates, candidates);
+        }
+        for (String albumId : song.albums()) {
+            index.collect(index.byAlbum.get(albumId), song.year(), maxCandidates, candidates);
+        }
+
+        List<Features> others = new ArrayList<>(candidates.size());
+        for (IntIterator it = candidates.iterator(); it.hasNext(); ) {
+            others.add(index.songs[it.nextInt()]);
+        }
+        return rank(song, others);
+    }
+
+    // ==================== Incremental (upload / edit) ====================
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getId() == null) {
+            return; // perubahan massal → ikut job berikutnya
+        }
+        String id = event.getId();
+        if (event.getType() == CatalogChangedEvent.Type.SONG) {
+            incrementalExecutor.execute(() -> recomputeSongs(List.of(id)));
+        } else if (event.getType() == CatalogChangedEvent.Type.ALBUM) {
+            // Isi album berubah → bonus "satu album" lagu-lagunya ikut berubah
+            incrementalExecutor.execute(() -> recomputeSongs(
+                jdbcTemplate.queryForList("SELECT song_id FROM album_songs WHERE album_id = ?", String.class, id)));
+        }
+    }
+
+    /**
+     * Hitung ulang baris beberapa lagu + merge lagu tsb ke daftar tetangganya, tanpa job penuh.
+     */
+    public synchronized void recomputeSongs(Collection<String> songIds) {
+        if (rebuilding) {
+            changedDuringRebuild.addAll(songIds);
+        }
+        Timestamp computedAt = new Timestamp(System.currentTimeMillis());
+        for (String songId : songIds) {
+            try {
+                recomputeSong(songId, computedAt);
+            } catch (RuntimeException e) {
+                logger.warn("Could not update similar songs for {}: {}", songId, e.getMessage());
+            }
+        }
+    }
+
+    private void recomputeSong(String songId, Timestamp computedAt) {
+        Features song = loadFeatures(List.of(songId)).get(songId);
+        Set<String> affected = new LinkedHashSet<>(songSimilarityRepository.findSongIdsReferencing(songId));
+        List<Row> changed = new ArrayList<>();
+
+        Map<String, Features> candidates = Map.of();
+        if (song != null) {
+            List<String> candidateIds = findCandidateIds(song);
+            candidates = loadFeatures(candidateIds);
+            changed.add(rank(song, candidates.values()));
+            affected.addAll(candidateIds);
+        } // lagu dihapus: barisnya sendiri ikut terhapus (FK cascade), tinggal dibuang dari daftar lagu lain
+
+        List<String> affectedIds = new ArrayList<>(affected);
+        for (int from = 0; from < affectedIds.size(); from += IN_CHUNK) {
+            List<String> chunk = affectedIds.subList(from, Math.min(from + IN_CHUNK, affectedIds.size()));
+            for (SongSimilarity existing : songSimilarityRepository.findAllById(chunk)) {
+                Features other = candidates.get(existing.getSongId());
+                Row merged = merge(existing, songId, other != null ? score(other, song) : 0f);
+                if (merged != null) {
+                    changed.add(merged);
+                }
+            }
+        }
+
+        upsert(changed, computedAt);
+        logger.debug("Similar songs updated for {} ({} rows)", songId, changed.size());
+    }
+
+    // * Kandidat sama seperti job penuh (berbagi artist/genre/album), dibatasi per jumlah daftar, tahun terdekat duluan
+    private List<String> findCandidateIds(Features song) {
+        int limit = maxCandidates * (1 + song.genres().length + song.albums().length);
+        return jdbcTemplate.queryForList(
+            "SELECT s.song_id FROM songs s WHERE s.song_id <> ? AND (s.artist_id = ? " +
+            "OR EXISTS (SELECT 1 FROM song_genres g JOIN song_genres t ON t.genre_id = g.genre_id " +
+            "           WHERE g.song_id = s.song_id AND t.song_id = ?) " +
+            "OR EXISTS (SELECT 1 FROM album_songs a JOIN album_songs t ON t.album_id = a.album_id " +
+            "           WHERE a.song_id = s.song_id AND t.song_id = ?)) " +
+            "ORDER BY ABS(s.release_year - ?), s.song_id LIMIT ?",
+            String.class, song.songId(), song.artistId(), song.songId(), song.songId(), song.year(), limit);
+    }
+
+    // * Sisipkan/perbarui/buang songId di daftar tetangga yang sudah ada; null kalau daftar tidak berubah
+    private Row merge(SongSimilarity existing, String songId, float score) {
+        List<String> ids = new ArrayList<>(existing.getNeighborIds());
+        List<Double> scores = new ArrayList<>(existing.getScores());
+        int current = ids.indexOf(songId);
+        if (current < 0 && score <= 0) {
+            return null;
+        }
+        if (current >= 0) {
+            ids.remove(current);
+            scores.remove(current);
+        }
+        if (score > 0) {
+            double rounded = round(score);
+            int at = 0;
+            while (at < scores.size() && scores.get(at) >= rounded) at++;
+            if (at < topK) {
+                ids.add(at, songId);
+                scores.add(at, rounded);
+            }
+            while (ids.size() > topK) {
+                ids.remove(ids.size() - 1);
+                scores.remove(scores.size() - 1);
+            }
+        }
+        return ids.equals(existing.getNeighborIds()) && scores.equals(existing.getScores())
+            ? null
+            : new Row(existing.getSongId(), ids, scores);
+    }
+
+    // ==================== Skor ====================
+
+    private Row rank(Features song, Collection<Features> candidates) {
+        PriorityQueue<Scored> heap = new PriorityQueue<>((a, b) -> Float.compare(a.score(), b.score())); // min-heap top-k
+        for (Features other : candidates) {
+            if (other.songId().equals(song.songId())) continue;
+            float score = score(song, other);
+            if (score <= 0) continue;
+            if (heap.size() < topK) {
+                heap.add(new Scored(other.songId(), score));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new Scored(other.songId(), score));
+            }
+        }
+
+        List<Scored> ranked = new ArrayList<>(heap);
+        ranked.sort((a, b) -> a.score() != b.score()
+            ? Float.compare(b.score(), a.score())
+            : a.songId().compareTo(b.songId()));
+        List<String> ids = new ArrayList<>(ranked.size());
+        List<Double> scores = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            ids.add(scored.songId());
+            scores.add(round(scored.score()));
+        }
+        return new Row(song.songId(), ids, scores);
+    }
+
+    // * Simetris: score(a, b) == score(b, a). Tahun rilis saja tidak cukup untuk dianggap mirip.
+    private static float score(Features a, Features b) {
+        float score = 0f;
+        int sharedGenres = intersect(a.genres(), b.genres());
+        int unionGenres = a.genres().length + b.genres().length - sharedGenres;
+        if (unionGenres > 0) {
+            score += GENRE_WEIGHT * sharedGenres / unionGenres;
+        }
+        if (a.artistId() != null && a.artistId().equals(b.artistId())) {
+            score += ARTIST_WEIGHT;
+        }
+        if (intersect(a.albums(), b.albums()) > 0) {
+            score += ALBUM_WEIGHT;
+        }
+        if (score > 0 && a.year() > 0 && b.year() > 0) {
+            int gap = Math.abs(a.year() - b.year());
+            if (gap < YEAR_WINDOW) {
+                score += YEAR_WEIGHT * (YEAR_WINDOW - gap) / YEAR_WINDOW;
+            }
+        }
+        return score;
+    }
+
+    // * Jumlah elemen sama di dua array terurut
+    private static int intersect(String[] a, String[] b) {
+        int i = 0;
+        int j = 0;
+        int shared = 0;
+        while (i < a.length && j < b.length) {
+            int cmp = a[i].compareTo(b[j]);
+            if (cmp == 0) {
+                shared++;
+                i++;
+                j++;
+            } else if (cmp < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private static double round(float score) {
+        return Math.round(score * 1000.0) / 1000.0;
+    }
+
+    // ==================== Load / simpan ====================
+
+    // * songIds null = seluruh katalog; selain itu di-chunk per IN_CHUNK
+    private Map<String, Features> loadFeatures(List<String> songIds) {
+        Map<String, FeatureRow> rows = new LinkedHashMap<>();
+        if (songIds == null) {
+            queryFeatures(rows, "", List.of());
+        } else {
+            for (int from = 0; from < songIds.size(); from += IN_CHUNK) {
+                List<String> chunk = songIds.subList(from, Math.min(from + IN_CHUNK, songIds.size()));
+                queryFeatures(rows, " WHERE song_id IN (" + String.join(",", Collections.nCopies(chunk.size(), "?")) + ")", chunk);
+            }
+        }
+
+        Map<String, Features> features = new LinkedHashMap<>(rows.size() * 2);
+        rows.forEach((songId, row) -> features.put(songId, row.toFeatures(songId)));
+        return features;
+    }
+
+    private void queryFeatures(Map<String, FeatureRow> rows, String where, List<String> songIds) {
+        Object[] args = songIds.toArray();
+        jdbcTemplate.query("SELECT song_id, artist_id, release_year FROM songs" + where, rs -> {
+            FeatureRow row = new FeatureRow();
+            row.artistId = rs.getString(2);
+            row.year = rs.getInt(3);
+            rows.put(rs.getString(1), row);
+        }, args);
+        jdbcTemplate.query("SELECT song_id, genre_id FROM song_genres" + where, rs -> {
+            FeatureRow row = rows.get(rs.getString(1));
+            if (row != null) row.genres.add(rs.getString(2));
+        }, args);
+        jdbcTemplate.query("SELECT song_id, album_id FROM album_songs" + where, rs -> {
+            FeatureRow row = rows.get(rs.getString(1));
+            if (row != null) row.albums.add(rs.getString(2));
+        }, args);
+    }
+
+    private void upsert(List<Row> rows, Timestamp computedAt) {
+        if (rows.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows, UPSERT_BATCH, (ps, row) -> {
+            ps.setString(1, row.songId());
+            ps.setString(2, toJson(row.neighborIds()));
+            ps.setString(3, toJson(row.scores()));
+            ps.setTimestamp(4, computedAt);
+        });
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Daftar lagu mirip tidak bisa diserialisasi", e);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package melodia.model.service.music;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import melodia.model.dto.common.ApiResponse;
+import melodia.model.dto.response.AlbumSummaryResponse;
+import melodia.model.dto.response.ChartEntryResponse;
+import melodia.model.dto.response.GenreResponse;
+import melodia.model.dto.response.HomeFeedResponse;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.entity.Song;
+import melodia.model.event.CatalogChangedEvent;
+import melodia.model.repository.SongRepository;
+import melodia.model.service.admin.GenreService;
+
+/**
+ * Home feed (lagu terbaru, album pilihan, genre, lagu populer) sebagai snapshot JSON yang sudah diserialisasi.
+ *
+ * - Request hanya mengirim byte snapshot: tidak ada query DB maupun serialisasi di jalur request.
+ * - Rebuild di background: terjadwal (lagu populer ikut chart) dan setelah perubahan katalog ter-commit
+ *   (di-debounce, jadi edit beruntun = satu rebuild). Keempat bagian di-load paralel.
+ * - ETag = hash isi feed; rebuild yang hasilnya sama tidak mengganti snapshot, jadi 304 tetap berlaku.
+ */
+@Service
+public class HomeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HomeFeedService.class);
+
+    private static final int SECTION_THREADS = 4; // * Satu thread per bagian feed
+
+    // * Body response siap kirim + ETag-nya; tidak pernah diubah setelah dipublish
+    public record Snapshot(byte[] body, String etag, Instant generatedAt) {}
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private ChartService chartService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${melodia.home-feed.new-releases:20}")
+    private int newReleasesLimit;
+
+    @Value("${melodia.home-feed.featured-albums:12}")
+    private int featuredAlbumsLimit;
+
+    @Value("${melodia.home-feed.popular-songs:20}")
+    private int popularSongsLimit;
+
+    @Value("${melodia.home-feed.debounce-ms:500}")
+    private long debounceMs;
+
+    private final ExecutorService sectionExecutor = Executors.newFixedThreadPool(SECTION_THREADS, daemon("home-feed-section-"));
+    private final ScheduledExecutorService rebuildScheduler = Executors.newSingleThreadScheduledExecutor(daemon("home-feed-rebuild-"));
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Snapshot snapshot; // * null sampai rebuild pertama selesai
+
+    @PreDestroy
+    void shutdown() {
+        rebuildScheduler.shutdownNow();
+        sectionExecutor.shutdownNow();
+    }
+
+    // ==================== Read ====================
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // ==================== Trigger ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        requestRebuild(0);
+    }
+
+    // Jeda debounce juga memberi waktu CatalogCacheInvalidator (AFTER_COMMIT) membersihkan cache album/genre lebih dulu
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        requestRebuild(debounceMs);
+    }
+
+    private void requestRebuild(long delayMs) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildScheduler.schedule(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // ==================== Rebuild ====================
+
+    @Scheduled(initialDelayString = "${melodia.home-feed.refresh-interval-ms:60000}",
+               fixedDelayString = "${melodia.home-feed.refresh-interval-ms:60000}")
+    public synchronized void rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            CompletableFuture<List<SongResponse>> newReleases =
+                CompletableFuture.supplyAsync(this::loadNewReleases, sectionExecutor);
+            CompletableFuture<List<AlbumSummaryResponse>> featuredAlbums =
+                CompletableFuture.supplyAsync(this::loadFeaturedAlbums, sectionExecutor);
+            CompletableFuture<List<GenreResponse>> genres =
+                CompletableFuture.supplyAsync(genreService::getAllGenres, sectionExecutor);
+            CompletableFuture<List<ChartEntryResponse>> popularSongs =
+                CompletableFuture.supplyAsync(() -> chartService.getTrending(null, popularSongsLimit).getEntries(), sectionExecutor);
+
+            HomeFeedResponse feed = new HomeFeedResponse(Instant.now(), newReleases.join(), featuredAlbums.join(),
+                                                         genres.join(), popularSongs.join());
+
+            // ETag dari isi saja (tanpa generatedAt/timestamp) supaya rebuild tanpa perubahan tidak membatalkan cache client
+            String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(List.of(
+                feed.getNewReleases(), feed.getFeaturedAlbums(), feed.getGenres(), feed.getPopularSongs()))) + "\"";
+            Snapshot current = snapshot;
+            if (current != null && current.etag().equals(etag)) {
+                return;
+            }
+
+            byte[] body = objectMapper.writeValueAsBytes(ApiResponse.success("Home feed retrieved successfully", feed));
+            snapshot = new Snapshot(body, etag, feed.getGeneratedAt());
+            logger.info("Home feed rebuilt in {} ms ({} bytes)", System.currentTimeMillis() - started, body.length);
+        } catch (JsonProcessingException e) {
+            logger.error("Home feed could not be serialized, keeping previous snapshot: {}", e.getMessage(), e);
+        } catch (RuntimeException e) {
+            logger.error("Home feed rebuild failed, keeping previous snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    // * Lagu terbaru: ordinal dulu (LIMIT murni), lalu metadata + artist + genres satu query, urutan dijaga
+    private List<SongResponse> loadNewReleases() {
+        List<Integer> ordinals = songRepository.findNewestOrdinals(PageRequest.of(0, newReleasesLimit));
+        if (ordinals.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Song> byOrdinal = songRepository.findBySongOrdinalInForListing(ordinals).stream()
+            .collect(Collectors.toMap(Song::getSongOrdinal, Function.identity()));
+        return ordinals.stream()
+            .map(byOrdinal::get)
+            .filter(Objects::nonNull)
+            .map(SongResponse::from)
+            .toList();
+    }
+
+    // * Album pilihan: rilis terbaru yang sudah berisi lagu, dari ringkasan album yang di-cache
+    private List<AlbumSummaryResponse> loadFeaturedAlbums() {
+        return albumService.getAllAlbumSummaries().stream()
+            .filter(album -> album.getSongCount() > 0)
+            .sorted(Comparator.comparingInt(AlbumSummaryResponse::getReleaseYear).reversed()
+                .thenComparing(Comparator.comparingInt(AlbumSummaryResponse::getSongCount).reversed()))
+            .limit(featuredAlbumsLimit)
+            .toList();
+    }
+
+    private static ThreadFactory daemon(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
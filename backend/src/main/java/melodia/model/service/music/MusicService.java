@@ -2,16 +2,24 @@ package melodia.model.service.music;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import melodia.config.CacheConfig;
 import melodia.controller.exception.admin.ArtistNotFoundException;
 import melodia.controller.exception.music.SongAlreadyExistsException;
 import melodia.controller.exception.music.SongNotFoundException;
+import melodia.model.dto.response.SongResponse;
 import melodia.model.entity.Artist;
 import melodia.model.entity.Genre;
 import melodia.model.entity.Song;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.ArtistRepository;
 import melodia.model.repository.GenreRepository;
 import melodia.model.repository.SongRepository;
@@ -28,9 +36,16 @@ public class MusicService {
     @Autowired
     private ArtistRepository artistRepository;
 
-    // Ambil semua lagu
-    public List<Song> getAllSongs() {
-        return songRepository.findAll();
+    @Autowired
+    private SongDeletionService songDeletionService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Ambil semua lagu (DTO ringan, artist + genres di-fetch dalam satu query)
+    @Transactional(readOnly = true)
+    public List<SongResponse> getAllSongs() {
+        return toResponses(songRepository.findAllForListing());
     }
 
     // Ambil lagu berdasarkan ID
@@ -38,11 +53,26 @@ public class MusicService {
         return songRepository.findById(songId).orElse(null);
     }
 
+    /**
+     * Detail lagu sebagai DTO, read-through cache (dipanggil di setiap request detail & stream).
+     * sync = true → saat miss hanya satu thread per songId yang query ke DB.
+     * Null (lagu tidak ada) ikut di-cache sampai TTL / event invalidasi.
+     */
+    @Cacheable(cacheNames = CacheConfig.SONG_BY_ID, key = "#songId", sync = true)
+    @Transactional(readOnly = true)
+    public SongResponse getSongResponseById(String songId) {
+        return songRepository.findByIdForListing(songId)
+                .map(SongResponse::from)
+                .orElse(null);
+    }
+
     /**
      * Upload/create lagu baru (VERSI BARU, pakai artistId + genreIds).
      * Catatan: sekarang upload utama ada di AdminSongController,
      * method ini bisa dipakai internal kalau mau.
+     * Transactional supaya counter artist/genre ikut ter-flush bersama insert lagu.
      */
+    @Transactional
     public Song createSong(
             String title,
             String artistId,
@@ -74,12 +104,59 @@ public class MusicService {
                     .filter(g -> g != null)
                     .toList();
             song.setGenres(genres);
+            genres.forEach(Genre::incrementSongCount);
         }
 
-        return songRepository.save(song);
+        artist.incrementSongCount();
+        Song saved = songRepository.save(song);
+        eventPublisher.publishEvent(CatalogChangedEvent.song(saved.getSongId()));
+        return saved;
+    }
+
+    /**
+     * Simpan lagu hasil upload admin + naikkan counter artist & genre dalam satu transaksi.
+     */
+    @Transactional
+    public Song saveUploadedSong(Song song) {
+        if (song.getArtist() != null) {
+            song.getArtist().incrementSongCount();
+        }
+        song.getGenres().forEach(Genre::incrementSongCount);
+        Song saved = songRepository.save(song);
+        eventPublisher.publishEvent(CatalogChangedEvent.song(saved.getSongId()));
+        return saved;
+    }
+
+    /**
+     * Simpan perubahan lagu dari admin. Kalau newGenres tidak null, genre lagu diganti
+     * dan counter genre yang dilepas/ditambah ikut disesuaikan.
+     */
+    @Transactional
+    public Song saveSongUpdate(Song song, List<Genre> newGenres) {
+        if (newGenres != null) {
+            Set<String> oldIds = song.getGenres().stream()
+                    .map(Genre::getId)
+                    .collect(Collectors.toSet());
+            Set<String> newIds = newGenres.stream()
+                    .map(Genre::getId)
+                    .collect(Collectors.toSet());
+
+            song.getGenres().stream()
+                    .filter(g -> !newIds.contains(g.getId()))
+                    .forEach(Genre::decrementSongCount);
+            newGenres.stream()
+                    .filter(g -> !oldIds.contains(g.getId()))
+                    .forEach(Genre::incrementSongCount);
+
+            song.setGenres(newGenres);
+        }
+        Song saved = songRepository.save(song);
+        eventPublisher.publishEvent(CatalogChangedEvent.song(saved.getSongId()));
+        return saved;
     }
 
     // Update lagu (tanpa artistName string lagi)
+    @Transactional
     public Song updateSong(
             String songId,
             String newTitle,
@@ -97,6 +174,13 @@ public class MusicService {
         if (newArtistId != null) {
             Artist artist = artistRepository.findById(newArtistId)
                     .orElseThrow(() -> new ArtistNotFoundException("Artist tidak ditemukan: " + newArtistId));
+            Artist oldArtist = song.getArtist();
+            if (oldArtist == null || !oldArtist.getArtistId().equals(artist.getArtistId())) {
+                if (oldArtist != null) {
+                    oldArtist.decrementSongCount();
+                }
+                artist.incrementSongCount();
+            }
             song.setArtist(artist);
         }
 
@@ -108,40 +192,51 @@ public class MusicService {
             song.setReleaseYear(newReleaseYear);
         }
 
-        return songRepository.save(song);
+        Song saved = songRepository.save(song);
+        eventPublisher.publishEvent(CatalogChangedEvent.song(saved.getSongId()));
+        return saved;
     }
 
-    // Hapus lagu
+    // Hapus lagu (lewat SongDeletionService supaya relasi & counter ikut dibereskan)
     public void deleteSong(String songId) {
-        songRepository.findById(songId).ifPresent(songRepository::delete);
+        if (songRepository.existsById(songId)) {
+            songDeletionService.deleteSongWithReferences(songId);
+        }
     }
 
     // Search lagu berdasarkan judul
-    public List<Song> searchByTitle(String title) {
-        return songRepository.findByTitleContainingIgnoreCase(title);
+    @Transactional(readOnly = true)
+    public List<SongResponse> searchByTitle(String title) {
+        return toResponses(songRepository.searchByTitleForListing(title));
     }
 
-    // Search lagu berdasarkan artist (pakai relasi Artist.name)
-    public List<Song> searchByArtist(String artistName) {
-        return songRepository.findByArtist_ArtistNameContainingIgnoreCase(artistName);
-        // pastikan di SongRepository sudah ada:
-        // List<Song> findByArtist_ArtistNameContainingIgnoreCase(String artistName);
+    // Search lagu berdasarkan artist (pakai relasi Artist.artistName)
+    @Transactional(readOnly = true)
+    public List<SongResponse> searchByArtist(String artistName) {
+        return toResponses(songRepository.searchByArtistNameForListing(artistName));
     }
 
     // Filter lagu berdasarkan genre (pakai relasi Genre.name)
-    public List<Song> filterByGenre(String genreName) {
-        return songRepository.findByGenres_NameIgnoreCase(genreName);
-        // pastikan di SongRepository sudah ada:
-        // List<Song> findByGenres_NameIgnoreCase(String name);
+    @Transactional(readOnly = true)
+    public List<SongResponse> filterByGenre(String genreName) {
+        return toResponses(songRepository.findByGenreNameForListing(genreName));
     }
 
     // Filter lagu berdasarkan tahun rilis
-    public List<Song> filterByReleaseYear(int year) {
-        return songRepository.findByReleaseYear(year);
+    @Transactional(readOnly = true)
+    public List<SongResponse> filterByReleaseYear(int year) {
+        return toResponses(songRepository.findByReleaseYearForListing(year));
     }
 
     // Cek apakah lagu sudah ada (duplicate check)
     public boolean isSongExists(String title) {
         return songRepository.existsByTitle(title);
     }
+
+    // Mapping entity -> DTO list (relasi sudah di-fetch oleh query *ForListing)
+    private List<SongResponse> toResponses(List<Song> songs) {
+        return songs.stream()
+                .map(SongResponse::from)
+                .toList();
+    }
 }
@@ -1,37 +1,79 @@
 package melodia.model.service.music;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import melodia.controller.exception.music.PlaylistNotFoundException;
 import melodia.controller.exception.music.SongNotFoundException;
 import melodia.controller.exception.user.UnauthorizedAccessException;
 import melodia.controller.exception.user.UserNotFoundException;
+import melodia.model.dto.request.user.PlaylistBatchRequestDTO;
+import melodia.model.dto.response.PlaylistBatchResponse;
+import melodia.model.dto.response.PlaylistChangesResponse;
 import melodia.model.entity.Account;
 import melodia.model.entity.Playlist;
+import melodia.model.entity.PlaylistChange;
+import melodia.model.entity.PlaylistEntry;
 import melodia.model.entity.Song;
 import melodia.model.entity.User;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.AccountRepository;
+import melodia.model.repository.PlaylistChangeRepository;
+import melodia.model.repository.PlaylistEntryRepository;
 import melodia.model.repository.PlaylistRepository;
 import melodia.model.repository.SongRepository;
+import melodia.model.service.common.OptimisticRetry;
 
 @Service
 public class PlaylistService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PlaylistService.class);
+
+    // * Batas baris delta per request; lebih dari ini client lebih murah fetch ulang isi playlist
+    private static final int MAX_CHANGES = 1000;
+
     @Autowired
     private PlaylistRepository playlistRepository;
 
+    @Autowired
+    private PlaylistEntryRepository playlistEntryRepository;
+
+    @Autowired
+    private PlaylistChangeRepository playlistChangeRepository;
+
     @Autowired
     private SongRepository songRepository;
 
     @Autowired
     private AccountRepository accountRepository;
 
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Value("${melodia.playlist-changes.retention-days:30}")
+    private int changeRetentionDays;
+
     /**
      * Create new playlist
      */
@@ -70,82 +112,218 @@ public class PlaylistService {
     }
 
     /**
-     * Update playlist details (name, description)
+     * Update playlist details (name, description), di-retry kalau bentrok dengan edit lain
      */
-    @Transactional
     public Playlist updatePlaylist(String playlistId, String userId, String name, String description) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+        return optimisticRetry.inTransaction(() -> {
+            Playlist playlist = playlistRepository.findById(playlistId)
+                .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
 
-        // Check ownership
-        if (!playlist.getOwner().getAccountId().equals(userId)) {
-            throw new UnauthorizedAccessException("Anda hanya dapat mengupdate playlist milik Anda sendiri");
-        }
+            // Check ownership
+            if (!playlist.getOwner().getAccountId().equals(userId)) {
+                throw new UnauthorizedAccessException("Anda hanya dapat mengupdate playlist milik Anda sendiri");
+            }
 
-        if (name != null && !name.isEmpty()) {
-            playlist.setName(name);
-        }
-        if (description != null) {
-            playlist.setDescription(description);
-        }
+            if (name != null && !name.isEmpty()) {
+                playlist.setName(name);
+            }
+            if (description != null) {
+                playlist.setDescription(description);
+            }
 
-        return playlistRepository.save(playlist);
+            return saveWithChanges(playlist, List.of(new Change(PlaylistChange.Op.UPDATE, null, null)));
+        });
     }
 
     /**
      * Delete playlist
      */
-    @Transactional
     public void deletePlaylist(String playlistId, String userId) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+        optimisticRetry.runInTransaction(() -> {
+            Playlist playlist = playlistRepository.findById(playlistId)
+                .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
 
-        // Check ownership
-        if (!playlist.getOwner().getAccountId().equals(userId)) {
-            throw new UnauthorizedAccessException("Anda hanya dapat menghapus playlist milik Anda sendiri");
-        }
+            // Check ownership
+            if (!playlist.getOwner().getAccountId().equals(userId)) {
+                throw new UnauthorizedAccessException("Anda hanya dapat menghapus playlist milik Anda sendiri");
+            }
 
-        playlistRepository.delete(playlist);
+            playlistEntryRepository.deleteByPlaylistId(playlistId);
+            playlistChangeRepository.deleteByPlaylistId(playlistId);
+            playlistRepository.delete(playlist);
+        });
     }
 
     /**
-     * Add song to playlist
+     * Add song to playlist (append di akhir).
+     * Satu lookup max(position) + satu INSERT playlist_entries + update counter playlist;
+     * isi playlist tidak pernah di-load. Counter ikut menaikkan @Version, jadi dua add/remove
+     * bersamaan di playlist yang sama tidak menulis posisi yang sama: yang kalah di-retry.
      */
-    @Transactional
     public Playlist addSongToPlaylist(String playlistId, String songId, String userId) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+        return optimisticRetry.inTransaction(() -> {
+            Playlist playlist = findOwnedPlaylist(playlistId, userId);
 
-        // Check ownership
-        if (!playlist.getOwner().getAccountId().equals(userId)) {
-            throw new UnauthorizedAccessException("Anda hanya dapat mengubah playlist milik Anda sendiri");
-        }
-
-        Song song = songRepository.findById(songId)
-            .orElseThrow(() -> new SongNotFoundException("Lagu tidak ditemukan"));
+            if (!songRepository.existsById(songId)) {
+                throw new SongNotFoundException("Lagu tidak ditemukan");
+            }
+            if (playlistEntryRepository.existsByPlaylistIdAndSongId(playlistId, songId)) {
+                return playlist; // sudah ada di playlist
+            }
 
-        playlist.addSong(song);
-        return playlistRepository.save(playlist);
+            long position = playlistEntryRepository.findMaxPosition(playlistId) + PlaylistEntry.GAP;
+            playlistEntryRepository.save(
+                new PlaylistEntry(playlistId, songRepository.getReferenceById(songId), position));
+            playlist.onSongAdded();
+            return saveWithChanges(playlist, List.of(new Change(PlaylistChange.Op.ADD, songId, position)));
+        });
     }
 
     /**
-     * Remove song from playlist
+     * Remove song from playlist: satu DELETE baris entry + update counter (optimistic @Version + retry)
      */
-    @Transactional
     public Playlist removeSongFromPlaylist(String playlistId, String songId, String userId) {
-        Playlist playlist = playlistRepository.findById(playlistId)
-            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+        return optimisticRetry.inTransaction(() -> {
+            Playlist playlist = findOwnedPlaylist(playlistId, userId);
 
-        // Check ownership
-        if (!playlist.getOwner().getAccountId().equals(userId)) {
-            throw new UnauthorizedAccessException("Anda hanya dapat mengubah playlist milik Anda sendiri");
-        }
+            if (playlistEntryRepository.deleteByPlaylistIdAndSongId(playlistId, songId) == 0) {
+                if (!songRepository.existsById(songId)) {
+                    throw new SongNotFoundException("Lagu tidak ditemukan");
+                }
+                return playlist; // lagu memang tidak ada di playlist
+            }
+            playlist.onSongRemoved();
+            return saveWithChanges(playlist, List.of(new Change(PlaylistChange.Op.REMOVE, songId, null)));
+        });
+    }
 
-        Song song = songRepository.findById(songId)
-            .orElseThrow(() -> new SongNotFoundException("Lagu tidak ditemukan"));
+    /**
+     * Pindahkan lagu ke posisi tepat setelah afterSongId (null = ke paling atas).
+     * Posisi baru = titik tengah dua tetangga → hanya satu baris entry yang ditulis.
+     * Kalau celah antar tetangga sudah habis, posisi playlist di-renormalisasi sekali lalu dihitung ulang.
+     */
+    public void moveSongInPlaylist(String playlistId, String songId, String afterSongId, String userId) {
+        optimisticRetry.runInTransaction(() -> {
+            Playlist playlist = findOwnedPlaylist(playlistId, userId);
 
-        playlist.removeSong(song);
-        return playlistRepository.save(playlist);
+            if (songId.equals(afterSongId)) {
+                return;
+            }
+            List<Change> changes = new ArrayList<>();
+            PlaylistEntry entry = findEntry(playlistId, songId);
+            Long position = positionAfter(playlistId, entry, afterSongId);
+            if (position == null) {
+                playlistEntryRepository.renormalizePositions(playlistId);
+                changes.add(new Change(PlaylistChange.Op.RENUMBER, null, null));
+                // * Persistence context di-clear oleh renormalisasi → load ulang playlist & entry
+                playlist = findOwnedPlaylist(playlistId, userId);
+                entry = findEntry(playlistId, songId);
+                position = positionAfter(playlistId, entry, afterSongId);
+            }
+            entry.setPosition(position);
+            playlistEntryRepository.save(entry);
+            changes.add(new Change(PlaylistChange.Op.MOVE, songId, position));
+            saveWithChanges(playlist, changes);
+        });
+    }
+
+    /**
+     * Terapkan banyak operasi add/remove/move dalam satu transaksi (all-or-nothing).
+     * Semua lagu di-resolve dengan satu findAllById, entry yang sudah ada dengan satu query;
+     * insert/update/delete entry dikirim lewat JDBC batching saat flush (hibernate.jdbc.batch_size).
+     */
+    public PlaylistBatchResponse applyBatch(String playlistId, String userId,
+                                            List<PlaylistBatchRequestDTO.Operation> operations) {
+        return optimisticRetry.inTransaction(() -> {
+            Playlist playlist = findOwnedPlaylist(playlistId, userId);
+
+            // 1. Resolve semua lagu yang disebut (songId + afterSongId), satu query
+            Set<String> songIds = new LinkedHashSet<>();
+            for (PlaylistBatchRequestDTO.Operation op : operations) {
+                songIds.add(op.getSongId());
+                if (op.getAfterSongId() != null) {
+                    songIds.add(op.getAfterSongId());
+                }
+            }
+            Map<String, Song> songs = songRepository.findAllById(songIds).stream()
+                .collect(Collectors.toMap(Song::getSongId, Function.identity()));
+            List<String> missing = songIds.stream().filter(id -> !songs.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                throw new SongNotFoundException("Lagu tidak ditemukan: " + String.join(", ", missing));
+            }
+
+            // 2. Entry yang sudah ada untuk lagu-lagu tersebut + posisi terakhir
+            Map<String, PlaylistEntry> entries = loadEntries(playlistId, songIds);
+            Set<String> removedInBatch = new HashSet<>();
+            long maxPosition = playlistEntryRepository.findMaxPosition(playlistId);
+            List<Change> changes = new ArrayList<>();
+            int added = 0, removed = 0, moved = 0, skipped = 0;
+
+            for (PlaylistBatchRequestDTO.Operation op : operations) {
+                String songId = op.getSongId();
+                PlaylistEntry entry = entries.get(songId);
+
+                switch (op.getOp().toLowerCase()) {
+                    case "add" -> {
+                        if (entry != null) {
+                            skipped++;
+                            break;
+                        }
+                        if (removedInBatch.contains(songId)) {
+                            // * Hibernate flush insert sebelum delete → delete lama harus terkirim dulu (unique playlist_id, song_id)
+                            playlistEntryRepository.flush();
+                        }
+                        maxPosition += PlaylistEntry.GAP;
+                        entries.put(songId, playlistEntryRepository.save(
+                            new PlaylistEntry(playlistId, songs.get(songId), maxPosition)));
+                        changes.add(new Change(PlaylistChange.Op.ADD, songId, maxPosition));
+                        added++;
+                    }
+                    case "remove" -> {
+                        if (entry == null) {
+                            skipped++;
+                            break;
+                        }
+                        playlistEntryRepository.delete(entry);
+                        entries.remove(songId);
+                        removedInBatch.add(songId);
+                        changes.add(new Change(PlaylistChange.Op.REMOVE, songId, null));
+                        removed++;
+                    }
+                    default -> { // move
+                        if (entry == null) {
+                            throw new SongNotFoundException("Lagu tidak ada di playlist: " + songId);
+                        }
+                        if (songId.equals(op.getAfterSongId())) {
+                            skipped++;
+                            break;
+                        }
+                        Long position = positionAfter(playlistId, entry, op.getAfterSongId());
+                        if (position == null) {
+                            playlistEntryRepository.renormalizePositions(playlistId);
+                            changes.add(new Change(PlaylistChange.Op.RENUMBER, null, null));
+                            // * Persistence context di-clear → load ulang playlist, entry & posisi terakhir
+                            playlist = findOwnedPlaylist(playlistId, userId);
+                            entries = loadEntries(playlistId, songIds);
+                            maxPosition = playlistEntryRepository.findMaxPosition(playlistId);
+                            entry = entries.get(songId);
+                            position = positionAfter(playlistId, entry, op.getAfterSongId());
+                        }
+                        entry.setPosition(position);
+                        maxPosition = Math.max(maxPosition, position);
+                        changes.add(new Change(PlaylistChange.Op.MOVE, songId, position));
+                        moved++;
+                    }
+                }
+            }
+
+            if (!changes.isEmpty()) {
+                playlist.setSongCount(playlist.getSongCount() + added - removed);
+                playlist = saveWithChanges(playlist, changes);
+            }
+            return new PlaylistBatchResponse(playlistId, operations.size(), added, removed, moved, skipped,
+                                             playlist.getSongCount());
+        });
     }
 
     /**
@@ -156,11 +334,149 @@ public class PlaylistService {
     }
 
     /**
-     * Get all songs in a playlist
+     * Get all songs in a playlist, urut sesuai posisi
      */
     public List<Song> getPlaylistSongs(String playlistId) {
+        if (!playlistRepository.existsById(playlistId)) {
+            throw new PlaylistNotFoundException("Playlist tidak ditemukan");
+        }
+        return playlistEntryRepository.findSongsByPlaylistId(playlistId);
+    }
+
+    // ==================== Version & delta sync ====================
+
+    /**
+     * Version playlist saat ini (untuk ETag), satu query tanpa load isi playlist
+     */
+    public long getPlaylistVersion(String playlistId) {
+        return playlistRepository.findVersionById(playlistId)
+            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+    }
+
+    /**
+     * Perubahan playlist setelah version since.
+     * Delta hanya dikirim kalau log masih lengkap sejak since + 1; selain itu reset (client fetch ulang).
+     */
+    @Transactional(readOnly = true)
+    public PlaylistChangesResponse getChanges(String playlistId, long since) {
+        long version = getPlaylistVersion(playlistId);
+        if (since == version) {
+            return new PlaylistChangesResponse(playlistId, since, version, false, List.of());
+        }
+        if (since < 0 || since > version) {
+            return PlaylistChangesResponse.reset(playlistId, since, version);
+        }
+
+        List<PlaylistChange> rows =
+            playlistChangeRepository.findSince(playlistId, since, PageRequest.of(0, MAX_CHANGES + 1));
+        if (rows.isEmpty()
+                || rows.get(0).getVersion() != since + 1
+                || rows.size() > MAX_CHANGES
+                || rows.stream().anyMatch(c -> c.getOp() == PlaylistChange.Op.RENUMBER)) {
+            return PlaylistChangesResponse.reset(playlistId, since, version);
+        }
+
+        // * Baris satu version selalu ter-commit bersamaan, jadi version terakhir di rows sudah lengkap
+        long latest = rows.get(rows.size() - 1).getVersion();
+        return new PlaylistChangesResponse(playlistId, since, latest, false,
+            rows.stream().map(PlaylistChangesResponse.ChangeItem::from).toList());
+    }
+
+    /**
+     * Pangkas log perubahan yang lebih tua dari retensi; client dengan version lebih lama akan dapat reset
+     */
+    @Scheduled(cron = "${melodia.playlist-changes.prune-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneChangeLog() {
+        int removed = playlistChangeRepository.deleteOlderThan(LocalDateTime.now().minusDays(changeRetentionDays));
+        if (removed > 0) {
+            logger.info("Pruned {} playlist change rows older than {} days", removed, changeRetentionDays);
+        }
+    }
+
+    /**
+     * Lagu, artist atau genre yang tampil di isi playlist berubah → version playlist terkait naik
+     * dan satu baris SONG per entry yang terdampak dicatat (delta sync tetap lengkap, ETag isi playlist berubah).
+     * BEFORE_COMMIT: jalan di transaksi yang sama dengan perubahannya, jadi ETag tidak pernah mendahului data.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case SONG -> {
+                if (playlistRepository.touchPlaylistsContainingSong(event.getId()) > 0) {
+                    playlistChangeRepository.recordSongChangedInAll(event.getId());
+                }
+            }
+            case ARTIST -> {
+                if (playlistRepository.touchPlaylistsByArtist(event.getId()) > 0) {
+                    playlistChangeRepository.recordArtistChangedInAll(event.getId());
+                }
+            }
+            case GENRE -> {
+                if (playlistRepository.touchPlaylistsWithGenre(event.getId()) > 0) {
+                    playlistChangeRepository.recordGenreChangedInAll(event.getId());
+                }
+            }
+            case ALBUM -> { } // data album tidak ikut tampil di isi playlist
+        }
+    }
+
+    // ==================== Helper ====================
+
+    // * Satu perubahan yang belum punya version (version diketahui setelah flush playlist)
+    private record Change(PlaylistChange.Op op, String songId, Long position) {}
+
+    private Playlist findOwnedPlaylist(String playlistId, String userId) {
         Playlist playlist = playlistRepository.findById(playlistId)
-            .orElseThrow(() -> new RuntimeException("Playlist not found"));
-        return playlist.getSongs();
+            .orElseThrow(() -> new PlaylistNotFoundException("Playlist tidak ditemukan"));
+
+        // Check ownership
+        if (!playlist.getOwner().getAccountId().equals(userId)) {
+            throw new UnauthorizedAccessException("Anda hanya dapat mengubah playlist milik Anda sendiri");
+        }
+        return playlist;
+    }
+
+    // * Naikkan version playlist (tepat satu kali: touch + flush) lalu catat perubahan dengan version baru.
+    // * Bentrok dengan transaksi lain gagal di flush ini → OptimisticRetry mengulang seluruh operasi.
+    private Playlist saveWithChanges(Playlist playlist, List<Change> changes) {
+        playlist.touch();
+        Playlist saved = playlistRepository.saveAndFlush(playlist);
+        List<PlaylistChange> rows = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            rows.add(new PlaylistChange(saved.getPlaylistId(), saved.getVersion(),
+                                        change.op(), change.songId(), change.position()));
+        }
+        playlistChangeRepository.saveAll(rows);
+        return saved;
+    }
+
+    private Map<String, PlaylistEntry> loadEntries(String playlistId, Collection<String> songIds) {
+        Map<String, PlaylistEntry> entries = new HashMap<>();
+        for (PlaylistEntry entry : playlistEntryRepository.findByPlaylistIdAndSongIds(playlistId, songIds)) {
+            entries.put(entry.getSong().getSongId(), entry);
+        }
+        return entries;
+    }
+
+    private PlaylistEntry findEntry(String playlistId, String songId) {
+        return playlistEntryRepository.findByPlaylistIdAndSongId(playlistId, songId)
+            .orElseThrow(() -> new SongNotFoundException("Lagu tidak ada di playlist"));
+    }
+
+    // * Posisi di antara afterSongId dan tetangga berikutnya; null kalau tidak ada celah (perlu renormalisasi)
+    private Long positionAfter(String playlistId, PlaylistEntry entry, String afterSongId) {
+        long previous = afterSongId == null ? 0L : findEntry(playlistId, afterSongId).getPosition();
+        Long next = playlistEntryRepository.findNextPosition(playlistId, previous, entry.getId());
+        if (next == null) {
+            return previous + PlaylistEntry.GAP;
+        }
+        if (next - previous < 2) {
+            return null;
+        }
+        return previous + (next - previous) / 2;
     }
 }
@@ -0,0 +1,56 @@
+package melodia.model.service.music;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import melodia.model.repository.AlbumRepository;
+import melodia.model.repository.ArtistRepository;
+import melodia.model.repository.GenreRepository;
+import melodia.model.repository.PlaylistRepository;
+
+/**
+ * Job perbaikan counter song_count di albums, artists, genres, dan playlists.
+ * Counter di-update di jalur tulis (addSong/removeSong, upload, hapus, reassign),
+ * job ini hanya menghitung ulang dari tabel relasi kalau ada yang drift
+ * (mis. edit manual di DB atau update bersamaan yang saling menimpa).
+ */
+@Service
+public class SongCounterRepairService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongCounterRepairService.class);
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private PlaylistRepository playlistRepository;
+
+    @Scheduled(
+        initialDelayString = "${melodia.counters.repair-initial-delay-ms:60000}",
+        fixedDelayString = "${melodia.counters.repair-interval-ms:21600000}"
+    )
+    @Transactional
+    public void repairSongCounts() {
+        int albums = albumRepository.repairSongCounts();
+        int artists = artistRepository.repairSongCounts();
+        int genres = genreRepository.repairSongCounts();
+        int playlists = playlistRepository.repairSongCounts();
+
+        if (albums + artists + genres + playlists > 0) {
+            logger.warn("Song counters repaired: albums={}, artists={}, genres={}, playlists={}",
+                    albums, artists, genres, playlists);
+        } else {
+            logger.debug("Song counters in sync, nothing to repair");
+        }
+    }
+}
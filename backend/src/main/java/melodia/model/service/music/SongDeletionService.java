@@ -1,20 +1,21 @@
 package melodia.model.service.music;
 
-import java.util.List;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import melodia.controller.exception.music.SongNotFoundException;
-import melodia.model.entity.Album;
-import melodia.model.entity.History;
-import melodia.model.entity.Playlist;
 import melodia.model.entity.Song;
+import melodia.model.event.CatalogChangedEvent;
 import melodia.model.repository.AlbumRepository;
-import melodia.model.repository.HistoryRepository;
+import melodia.model.repository.ArtistRepository;
+import melodia.model.repository.GenreRepository;
+import melodia.model.repository.PlayEventRepository;
+import melodia.model.repository.PlaylistChangeRepository;
+import melodia.model.repository.PlaylistEntryRepository;
 import melodia.model.repository.PlaylistRepository;
 import melodia.model.repository.SongRepository;
 
@@ -27,73 +28,81 @@ public class SongDeletionService {
     private SongRepository songRepository;
 
     @Autowired
-    private HistoryRepository historyRepository;
+    private PlayEventRepository playEventRepository;
 
     @Autowired
     private PlaylistRepository playlistRepository;
 
+    @Autowired
+    private PlaylistEntryRepository playlistEntryRepository;
+
+    @Autowired
+    private PlaylistChangeRepository playlistChangeRepository;
+
     @Autowired
     private AlbumRepository albumRepository;
 
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
     @Autowired
     private FileStorageService fileStorageService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
-     * Hapus lagu beserta semua referensinya (manual melalui relasi entity)
+     * Hapus lagu beserta semua referensinya, set-based:
+     * setiap tabel relasi dibersihkan dengan satu UPDATE/DELETE per tabel (WHERE song_id = ?),
+     * tanpa load playlist/album/history ke memori. Biaya tidak bergantung jumlah user/playlist.
      */
     @Transactional
     public void deleteSongWithReferences(String songId) {
         Song song = songRepository.findById(songId)
                 .orElseThrow(() -> new SongNotFoundException("Lagu tidak ditemukan: " + songId));
+        String artistId = song.getArtist() != null ? song.getArtist().getArtistId() : null;
+        String filePath = song.getFilePath();
 
         logger.info("Deleting song {} with all references", songId);
 
-        // 1. Lepaskan dari History (ManyToMany: histories.playedSongs -> history_songs)
-        List<History> histories = historyRepository.findAll();
-        int historyTouched = 0;
-        for (History h : histories) {
-            boolean removed = h.getPlayedSongs()
-                    .removeIf(s -> songId.equals(s.getSongId()));
-            if (removed) {
-                historyTouched++;
-            }
-        }
-        if (historyTouched > 0) {
-            historyRepository.saveAll(histories);
+        // 1. Hapus riwayat putar lagu ini (satu bulk DELETE di play_events)
+        int playEventsRemoved = playEventRepository.deleteBySongId(songId);
+        logger.info("Removed {} play events", playEventsRemoved);
+
+        // 2. Playlist: turunkan counter + naikkan version dulu, catat REMOVE di log delta sync
+        //    (keduanya butuh baris relasi), lalu hapus relasi
+        playlistRepository.decrementSongCountForSong(songId);
+        playlistChangeRepository.recordSongRemovedFromAll(songId);
+        int playlistLinks = playlistEntryRepository.deleteBySongId(songId);
+        logger.info("Removed song from {} playlists", playlistLinks);
+
+        // 3. Album: sama seperti playlist, plus geser nomor track setelah lagu ini
+        albumRepository.decrementSongCountForSong(songId);
+        albumRepository.closeTrackGaps(songId);
+        int albumLinks = albumRepository.deleteSongFromAllAlbums(songId);
+        logger.info("Removed song from {} albums", albumLinks);
+
+        // 4. Counter genre & artist (JPQL bulk, satu transaksi dengan delete di bawah)
+        genreRepository.decrementSongCountForSong(songId);
+        if (artistId != null) {
+            artistRepository.decrementSongCount(artistId);
         }
-        logger.info("Removed song from {} history records", historyTouched);
 
-        // 2. Lepaskan dari semua playlist yang mengandung song
-        List<Playlist> playlists = playlistRepository.findBySongsContaining(song);
-        for (Playlist p : playlists) {
-            p.getSongs().remove(song);
-        }
-        if (!playlists.isEmpty()) {
-            playlistRepository.saveAll(playlists);
-        }
-        logger.info("Removed song from {} playlists", playlists.size());
-
-        // 3. Lepaskan dari semua album yang mengandung song
-        List<Album> albums = albumRepository.findAll().stream()
-                .filter(a -> a.getSongs().contains(song))
-                .toList();
-        for (Album a : albums) {
-            a.getSongs().remove(song);
-        }
-        if (!albums.isEmpty()) {
-            albumRepository.saveAll(albums);
-        }
-        logger.info("Removed song from {} albums", albums.size());
+        // 5. Hapus relasi genre + baris lagu
+        songRepository.deleteGenreLinks(songId);
+        songRepository.deleteBySongId(songId);
 
-        // 4. Hapus file audio dari storage
+        // 6. Hapus file audio dari storage
         try {
-            fileStorageService.deleteFile(song.getFilePath());
+            fileStorageService.deleteFile(filePath);
         } catch (Exception e) {
             logger.warn("Could not delete file from storage: {}", e.getMessage());
         }
 
-        // 5. Hapus song dari database
-        songRepository.delete(song);
+        eventPublisher.publishEvent(CatalogChangedEvent.song(songId));
         logger.info("Song {} deleted successfully", songId);
     }
 }
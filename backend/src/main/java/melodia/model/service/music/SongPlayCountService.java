@@ -0,0 +1,188 @@
+package melodia.model.service.music;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.repository.SongPlayCountRepository;
+
+/**
+ * Counter pemutaran global per lagu.
+ *
+ * - Jalur play: satu LongAdder per song_ordinal, increment tanpa lock (striped, bebas contention).
+ * - Flush terjadwal: delta sejak flush terakhir di-upsert ke song_play_counts dalam satu statement per chunk.
+ *   Counter tidak pernah di-reset; yang disimpan adalah nilai sum() yang sudah ter-flush,
+ *   jadi increment yang terjadi bersamaan dengan flush tidak hilang.
+ * - Baca: total tersimpan + delta yang belum di-flush.
+ */
+@Service
+public class SongPlayCountService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SongPlayCountService.class);
+
+    // * Counter satu lagu. flushed hanya ditulis oleh thread flush (di bawah flushLock).
+    private static final class Counter {
+        final LongAdder plays = new LongAdder();
+        volatile long flushed;
+
+        long pending() {
+            return plays.sum() - flushed;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SongPlayCountRepository songPlayCountRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Value("${melodia.play-counts.max-rows-per-upsert:500}")
+    private int maxRowsPerUpsert;
+
+    private final ConcurrentHashMap<Integer, Counter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // ==================== Increment ====================
+
+    @EventListener
+    public void onPlayRecorded(PlayRecordedEvent event) {
+        SongResponse song = musicService.getSongResponseById(event.getSongId()); // cache hit dari recordPlay
+        if (song != null && song.getSongOrdinal() != null) {
+            increment(song.getSongOrdinal());
+        }
+    }
+
+    public void increment(int songOrdinal) {
+        Counter counter = counters.get(songOrdinal); // * Jalur umum: get tanpa lock
+        if (counter == null) {
+            counter = counters.computeIfAbsent(songOrdinal, k -> new Counter());
+        }
+        counter.plays.increment();
+    }
+
+    // ==================== Read (tersimpan + pending) ====================
+
+    public long getPlayCount(String songId) {
+        return getPlayCounts(List.of(songId)).getOrDefault(songId, 0L);
+    }
+
+    /**
+     * Total play untuk sekumpulan lagu, satu query. Lagu yang tidak ada tidak masuk hasil.
+     */
+    public Map<String, Long> getPlayCounts(Collection<String> songIds) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (songIds == null || songIds.isEmpty()) {
+            return result;
+        }
+        for (Object[] row : songPlayCountRepository.findCountsBySongIds(songIds)) {
+            long total = row[2] != null ? ((Number) row[2]).longValue() : 0L;
+            if (row[1] != null) {
+                total += getPendingDelta(((Number) row[1]).intValue());
+            }
+            result.put((String) row[0], total);
+        }
+        return result;
+    }
+
+    public long getPendingDelta(int songOrdinal) {
+        Counter counter = counters.get(songOrdinal);
+        return counter != null ? counter.pending() : 0L;
+    }
+
+    // ==================== Flush ====================
+
+    @Scheduled(fixedDelayString = "${melodia.play-counts.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    /**
+     * Upsert semua delta yang belum di-flush.
+     * Chunk yang gagal tidak memajukan flushed, jadi delta-nya ikut di flush berikutnya.
+     * @return jumlah lagu yang counter-nya di-upsert
+     */
+    public int flush() {
+        if (!flushLock.tryLock()) {
+            return 0; // flush lain sedang jalan
+        }
+        try {
+            List<Map.Entry<Integer, Counter>> dirty = new ArrayList<>();
+            List<long[]> snapshots = new ArrayList<>(); // [ordinal, sumSnapshot, delta]
+            for (Map.Entry<Integer, Counter> entry : counters.entrySet()) {
+                long sum = entry.getValue().plays.sum();
+                long delta = sum - entry.getValue().flushed;
+                if (delta > 0) {
+                    dirty.add(entry);
+                    snapshots.add(new long[] { entry.getKey(), sum, delta });
+                }
+            }
+
+            int flushed = 0;
+            for (int from = 0; from < snapshots.size(); from += maxRowsPerUpsert) {
+                int to = Math.min(from + maxRowsPerUpsert, snapshots.size());
+                try {
+                    upsertChunk(snapshots.subList(from, to));
+                    for (int i = from; i < to; i++) {
+                        dirty.get(i).getValue().flushed = snapshots.get(i)[1];
+                    }
+                    flushed += to - from;
+                } catch (RuntimeException e) {
+                    logger.error("Play count flush failed for {} songs, retried next run: {}", to - from, e.getMessage());
+                }
+            }
+            if (flushed > 0) {
+                logger.debug("Flushed play counts for {} songs", flushed);
+            }
+            return flushed;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // * INSERT ... SELECT FROM (VALUES ...) JOIN songs: ordinal → song_id di DB, lagu yang sudah dihapus di-skip
+    private void upsertChunk(List<long[]> chunk) {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO song_play_counts (song_id, play_count, updated_at) " +
+            "SELECT s.song_id, v.delta, now() FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 2];
+        int i = 0;
+        for (long[] snapshot : chunk) {
+            if (i > 0) sql.append(", ");
+            sql.append("(CAST(? AS integer), CAST(? AS bigint))");
+            args[i++] = (int) snapshot[0];
+            args[i++] = snapshot[2];
+        }
+        sql.append(") AS v(song_ordinal, delta) ")
+           .append("JOIN songs s ON s.song_ordinal = v.song_ordinal ")
+           .append("ON CONFLICT (song_id) DO UPDATE SET ")
+           .append("play_count = song_play_counts.play_count + EXCLUDED.play_count, ")
+           .append("updated_at = EXCLUDED.updated_at");
+
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,60 @@
+package melodia.model.service.user;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import melodia.config.CacheConfig;
+import melodia.model.entity.Account;
+import melodia.model.event.AccountChangedEvent;
+import melodia.model.repository.AccountRepository;
+import melodia.model.repository.PlayEventRepository;
+
+/**
+ * Satu-satunya jalur hapus akun (hapus dari admin, user management, user sendiri, hapus akun login).
+ * play_events & user_recent_plays tidak di-cascade dari accounts oleh JPA, jadi semua data dengar
+ * dibersihkan di sini dalam transaksi yang sama dengan DELETE akun.
+ * Cache per user (registered user, bitset PlayedSongsIndex) dibersihkan lewat AccountChangedEvent setelah commit.
+ */
+@Service
+public class AccountDeletionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountDeletionService.class);
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlayEventRepository playEventRepository;
+
+    @Autowired
+    private RecentPlaysService recentPlaysService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Hapus akun beserta riwayat putar, ring recent plays dan rollup statistiknya.
+     * Playlist milik user ikut terhapus lewat cascade entity User.
+     */
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.REGISTERED_USERS, key = "#account.accountId")
+    public void delete(Account account) {
+        String accountId = account.getAccountId();
+
+        int playEventsRemoved = playEventRepository.deleteByUserId(accountId);
+        recentPlaysService.clear(accountId);
+        userStatsService.clear(accountId);
+
+        accountRepository.delete(account);
+        eventPublisher.publishEvent(AccountChangedEvent.deleted(account));
+        logger.info("Account {} deleted ({} play events removed)", accountId, playEventsRemoved);
+    }
+}
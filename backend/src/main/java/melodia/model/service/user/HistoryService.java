@@ -1,95 +1,174 @@
 package melodia.model.service.user;
 
-import java.util.Collections;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import melodia.controller.exception.user.UserNotFoundException;
-import melodia.model.entity.Account;
-import melodia.model.entity.History;
+import melodia.model.dto.request.user.PlayEventBatchRequestDTO.PlayEventItem;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.dto.response.history.ListeningStatsResponseDTO;
+import melodia.model.dto.response.history.PlayEventBatchResponseDTO;
+import melodia.model.dto.response.history.PlayEventBatchResponseDTO.RejectedEvent;
 import melodia.model.entity.Song;
-import melodia.model.entity.User;
-import melodia.model.repository.AccountRepository;
-import melodia.model.repository.HistoryRepository;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.repository.PlayEventRepository;
+import melodia.model.repository.SongRepository;
+import melodia.model.service.music.MusicService;
 
 @Service
 public class HistoryService {
 
+    // * Batas jumlah event yang di-scan untuk "recently played" (bounded, lewat index user_id + played_at DESC)
+    private static final int RECENT_SCAN_LIMIT = 500;
+
+    // * Toleransi jam client yang sedikit lebih cepat dari server saat sync batch
+    private static final Duration SYNC_CLOCK_SKEW = Duration.ofMinutes(5);
+
     @Autowired
-    private HistoryRepository historyRepository;
+    private PlayEventRepository playEventRepository;
 
     @Autowired
-    private AccountRepository accountRepository;
+    private SongRepository songRepository;
 
-    // ==================== Get History ====================
+    @Autowired
+    private UserService userService;
 
-    /**
-     * Ambil history berdasarkan userId (PK)
-     */
-    @Transactional(readOnly = true)
-    public History getUserHistory(String userId) {
-        return historyRepository.findById(userId).orElse(null);
-    }
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private PlayEventBuffer playEventBuffer;
+
+    @Autowired
+    private RecentPlaysService recentPlaysService;
+
+    @Autowired
+    private PlayedSongsIndex playedSongsIndex;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private PlayEventWriter playEventWriter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${melodia.play-sync.max-age-days:30}")
+    private int syncMaxAgeDays;
+
+    // ==================== Get History ====================
 
     /**
-     * Cek apakah user sudah punya history
+     * Cek apakah user sudah punya riwayat putar (minimal satu play event)
      */
     @Transactional(readOnly = true)
     public boolean hasHistory(String userId) {
-        return historyRepository.existsById(userId);
+        return playEventRepository.existsByUserId(userId);
     }
 
     // ==================== Manage Played Songs ====================
 
     /**
-     * Dapatkan semua lagu yang pernah diputar user (urutan terbaru dulu)
+     * Dapatkan semua lagu unik yang pernah diputar user (urutan pemutaran terakhir dulu)
      */
     @Transactional(readOnly = true)
     public List<Song> getPlayedSongs(String userId) {
-        History history = getUserHistory(userId);
-        return history != null ? history.getPlayedSongs() : Collections.emptyList();
+        return loadSongsInOrder(playEventRepository.findDistinctSongIdsByLastPlayed(userId));
     }
 
     /**
-     * ✅ Tambahkan lagu ke history dengan "move to front" logic
-     * - Kalau lagu sudah ada → pindah ke depan
-     * - Kalau belum ada → tambah di depan
+     * ✅ Terima satu pemutaran lagu lewat write-behind buffer (jalur utama endpoint play).
+     * Validasi user & lagu dari cache, lalu append ke journal + antrian; tidak ada koneksi DB
+     * di jalur request. Event masuk play_events saat flush berikutnya (lihat PlayEventBuffer).
+     * @return eventId dari play yang diterima
      */
-    @Transactional
-    public void addSongToHistory(String userId, Song song) {
-        if (song == null) {
-            throw new IllegalArgumentException("Song tidak boleh null");
+    public String recordPlay(String userId, String songId) {
+        if (!userService.isRegisteredUser(userId)) {
+            throw new UserNotFoundException("User tidak ditemukan");
+        }
+        if (songId == null || musicService.getSongResponseById(songId) == null) {
+            throw new IllegalArgumentException("Song tidak ditemukan");
         }
+        return playEventBuffer.record(userId, songId);
+    }
 
-        // Verify user exists
-        Account account = accountRepository.findById(userId).orElse(null);
-        if (!(account instanceof User)) {
+    /**
+     * ✅ Ingest batch play event dari client (sync offline / batching di client).
+     * Event ID & timestamp dari client; dedup di dalam request lalu di DB (ON CONFLICT event_id),
+     * semua event baru ditulis dengan INSERT batch (PlayEventWriter), jadi kirim ulang batch yang sama aman.
+     */
+    public PlayEventBatchResponseDTO ingestPlayEvents(String userId, List<PlayEventItem> events) {
+        if (!userService.isRegisteredUser(userId)) {
             throw new UserNotFoundException("User tidak ditemukan");
         }
 
-        // Ambil atau buat history baru
-        History history = historyRepository.findById(userId)
-            .orElseGet(() -> {
-                History newHistory = new History(userId);
-                return historyRepository.save(newHistory);
-            });
-        
-        // ✅ Method addPlayedSong sudah handle "move to front"
-        // (remove kalau sudah ada, lalu add di index 0)
-        history.addPlayedSong(song);
-        
-        historyRepository.save(history);
-        
-        System.out.println("✅ Song added/moved to front: " 
-            + song.getTitle() + " (Total: " + history.getPlayedSongsCount() + ")");
+        // 1. Dedup di dalam request (event ID case-insensitive, event pertama yang dipakai)
+        Map<String, PlayEventItem> unique = new LinkedHashMap<>();
+        for (PlayEventItem event : events) {
+            unique.putIfAbsent(event.getEventId().toLowerCase(), event);
+        }
+        int duplicates = events.size() - unique.size();
+
+        // 2. Validasi lagu (satu query) & timestamp
+        Set<String> existingSongs = new HashSet<>();
+        Set<String> songIds = unique.values().stream().map(PlayEventItem::getSongId).collect(Collectors.toSet());
+        for (Object[] pair : songRepository.findOrdinalsBySongIds(songIds)) {
+            existingSongs.add((String) pair[0]);
+        }
+
+        Instant now = Instant.now();
+        Instant oldest = now.minus(Duration.ofDays(syncMaxAgeDays));
+        Instant newest = now.plus(SYNC_CLOCK_SKEW);
+        List<RejectedEvent> rejected = new ArrayList<>();
+        List<PlayEventBuffer.BufferedPlay> accepted = new ArrayList<>(unique.size());
+        unique.forEach((eventId, event) -> {
+            if (!existingSongs.contains(event.getSongId())) {
+                rejected.add(new RejectedEvent(event.getEventId(), "SONG_NOT_FOUND"));
+            } else if (event.getPlayedAt().isAfter(newest)) {
+                rejected.add(new RejectedEvent(event.getEventId(), "TIMESTAMP_IN_FUTURE"));
+            } else if (event.getPlayedAt().isBefore(oldest)) {
+                rejected.add(new RejectedEvent(event.getEventId(), "TIMESTAMP_TOO_OLD"));
+            } else {
+                accepted.add(new PlayEventBuffer.BufferedPlay(
+                    eventId, userId, event.getSongId(), event.getPlayedAt().toEpochMilli()));
+            }
+        });
+
+        // 3. Satu batch write; yang tidak kembali di RETURNING berarti sudah pernah diterima
+        List<PlayEventBuffer.BufferedPlay> inserted = playEventWriter.write(accepted);
+        duplicates += accepted.size() - inserted.size();
+
+        // Ring recent plays & rollup harian sudah di-update di transaksi insert (PlayEventWriter)
+        for (PlayEventBuffer.BufferedPlay play : inserted) {
+            eventPublisher.publishEvent(new PlayRecordedEvent(
+                play.eventId(), userId, play.songId(), Instant.ofEpochMilli(play.playedAtMillis())));
+        }
+
+        return new PlayEventBatchResponseDTO(userId, events.size(), inserted.size(), duplicates, rejected);
     }
 
     /**
-     * Hapus satu lagu dari history
+     * Hapus satu lagu dari history (semua event lagu tsb milik user, satu DELETE)
      */
     @Transactional
     public void removeSongFromHistory(String userId, Song song) {
@@ -97,66 +176,115 @@ public class HistoryService {
             throw new IllegalArgumentException("Song tidak boleh null");
         }
 
-        History history = historyRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("History tidak ditemukan untuk user: " + userId));
-        
-        if (!history.hasPlayedSong(song)) {
+        int removed = playEventRepository.deleteByUserIdAndSongId(userId, song.getSongId());
+        if (removed == 0) {
             throw new IllegalArgumentException("Song tidak ditemukan di history");
         }
-        
-        history.removePlayedSong(song);
-        historyRepository.save(history);
+        recentPlaysService.removeSong(userId, song);
+        if (song.getSongOrdinal() != null) {
+            playedSongsIndex.unmarkPlayed(userId, song.getSongOrdinal());
+        }
     }
 
     /**
-     * Reset semua history user (clear all played songs)
+     * Reset semua history user
      */
     @Transactional
     public void clearUserHistory(String userId) {
-        History history = historyRepository.findById(userId).orElse(null);
-        
-        if (history != null) {
-            history.getPlayedSongs().clear();
-            historyRepository.save(history);
-        }
+        playEventRepository.deleteByUserId(userId);
+        recentPlaysService.clear(userId);
+        userStatsService.clear(userId);
+        playedSongsIndex.invalidate(userId);
+    }
+
+    /**
+     * ✅ Cek apakah lagu pernah diputar oleh user.
+     * Ordinal lagu dari cache detail lagu, membership dari bitset per user (PlayedSongsIndex) → O(1).
+     */
+    public boolean hasUserPlayedSong(String userId, String songId) {
+        if (songId == null) return false;
+        SongResponse song = musicService.getSongResponseById(songId);
+        if (song == null || song.getSongOrdinal() == null) return false;
+        return playedSongsIndex.hasPlayed(userId, song.getSongOrdinal());
     }
 
     /**
-     * Cek apakah lagu pernah diputar oleh user
+     * ✅ Status played untuk banyak lagu sekaligus (satu query ordinal by PK + satu bitset user).
+     * Urutan hasil mengikuti songIds; lagu yang tidak ada → false.
      */
     @Transactional(readOnly = true)
-    public boolean hasUserPlayedSong(String userId, Song song) {
-        if (song == null) return false;
+    public Map<String, Boolean> getPlayedStatus(String userId, Collection<String> songIds) {
+        Map<String, Boolean> status = new LinkedHashMap<>();
+        if (songIds == null || songIds.isEmpty()) {
+            return status;
+        }
+        for (String songId : songIds) {
+            status.put(songId, false);
+        }
 
-        History history = getUserHistory(userId);
-        return history != null && history.hasPlayedSong(song);
+        IntPredicate played = playedSongsIndex.lookup(userId);
+        for (Object[] pair : songRepository.findOrdinalsBySongIds(status.keySet())) {
+            if (pair[1] != null && played.test(((Number) pair[1]).intValue())) {
+                status.put((String) pair[0], true);
+            }
+        }
+        return status;
     }
 
     /**
-     * Get jumlah lagu di history
+     * Isi flag played pada list lagu (ordinal sudah ada di DTO, jadi tanpa query tambahan
+     * selain load bitset user saat cache miss).
+     */
+    public List<SongResponse> annotatePlayed(String userId, List<SongResponse> songs) {
+        if (userId == null || userId.isBlank() || songs.isEmpty()) {
+            return songs;
+        }
+        IntPredicate played = playedSongsIndex.lookup(userId);
+        List<SongResponse> annotated = new ArrayList<>(songs.size());
+        for (SongResponse song : songs) {
+            Integer ordinal = song.getSongOrdinal();
+            annotated.add(song.withPlayed(ordinal != null && played.test(ordinal)));
+        }
+        return annotated;
+    }
+
+    /**
+     * Get jumlah lagu unik di history
      */
     @Transactional(readOnly = true)
     public int getPlayedSongsCount(String userId) {
-        History history = getUserHistory(userId);
-        return history != null ? history.getPlayedSongsCount() : 0;
+        return (int) playEventRepository.countDistinctSongsByUserId(userId);
     }
 
     /**
-     * ✅ Get recently played songs (N terbaru dari depan)
-     * Karena list sudah urut terbaru dulu, ambil N pertama
+     * ✅ Get recently played songs (N lagu unik terbaru).
+     * Dibaca dari satu baris user_recent_plays (ring terbatas, lihat RecentPlaysService);
+     * user yang belum punya baris fallback ke scan play_events.
      */
     @Transactional(readOnly = true)
     public List<Song> getRecentlyPlayedSongs(String userId, int limit) {
-        List<Song> playedSongs = getPlayedSongs(userId);
-        
-        if (playedSongs.isEmpty()) {
-            return Collections.emptyList();
+        return recentPlaysService.getRecentSongs(userId, limit)
+            .orElseGet(() -> scanRecentlyPlayedSongs(userId, limit));
+    }
+
+    /**
+     * Fallback: baca event terbaru per halaman lewat index (user_id, played_at DESC),
+     * berhenti begitu dapat N lagu unik atau sudah scan RECENT_SCAN_LIMIT event.
+     */
+    private List<Song> scanRecentlyPlayedSongs(String userId, int limit) {
+        int pageSize = Math.min(Math.max(limit * 2, 50), RECENT_SCAN_LIMIT);
+        Set<String> songIds = new LinkedHashSet<>();
+
+        for (int page = 0; (page * pageSize) < RECENT_SCAN_LIMIT && songIds.size() < limit; page++) {
+            List<String> batch = playEventRepository.findRecentSongIds(userId, PageRequest.of(page, pageSize));
+            for (String songId : batch) {
+                songIds.add(songId);
+                if (songIds.size() >= limit) break;
+            }
+            if (batch.size() < pageSize) break; // event user sudah habis
         }
-        
-        // ✅ Ambil N pertama (karena index 0 = terbaru)
-        return playedSongs.stream()
-            .limit(limit)
-            .collect(Collectors.toList());
+
+        return loadSongsInOrder(songIds);
     }
 
     /**
@@ -164,17 +292,35 @@ public class HistoryService {
      */
     @Transactional(readOnly = true)
     public HistorySummary getHistorySummary(String userId) {
-        History history = historyRepository.findById(userId).orElse(null);
-        
-        if (history == null) {
-            return new HistorySummary(userId, 0, false);
-        }
-        
-        return new HistorySummary(
-            userId, 
-            history.getPlayedSongsCount(), 
-            true
-        );
+        int count = getPlayedSongsCount(userId);
+        return new HistorySummary(userId, count, count > 0);
+    }
+
+    /**
+     * ✅ Statistik dengar (top artist/genre/lagu) dalam rentang tanggal, dari rollup harian user_daily_stats
+     */
+    public ListeningStatsResponseDTO getListeningStats(String userId, LocalDate from, LocalDate to, int limit) {
+        return userStatsService.getStats(userId, from, to, limit);
+    }
+
+    // ==================== Helper ====================
+
+    // * Satu query IN (...) untuk semua lagu, lalu susun ulang sesuai urutan songIds
+    private List<Song> loadSongsInOrder(Collection<String> songIds) {
+        if (songIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Song> byId = songRepository.findAllById(songIds).stream()
+            .collect(Collectors.toMap(Song::getSongId, Function.identity()));
+
+        List<Song> ordered = new ArrayList<>(songIds.size());
+        for (String songId : songIds) {
+            Song song = byId.get(songId);
+            if (song != null) {
+                ordered.add(song);
+            }
+        }
+        return ordered;
     }
 
     // ==================== Inner Class: History Summary ====================
@@ -0,0 +1,380 @@
+package melodia.model.service.user;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.service.common.OptimisticRetry;
+
+/**
+ * Write-behind buffer untuk play event.
+ *
+ * Alur: request play → append ke journal lokal (PlayEventJournal) + masuk antrian in-memory → return.
+ * Flush ke play_events terjadi tiap flush-interval-ms atau begitu antrian mencapai flush-batch-size,
+ * pakai INSERT multi-row (ON CONFLICT (event_id) DO NOTHING) sehingga replay journal setelah crash aman diulang.
+ * Event untuk lagu / akun yang sudah dihapus di-skip lewat JOIN ke songs & accounts.
+ *
+ * Kegagalan flush:
+ * - DB menolak data batch (constraint): batch dipecah per user lalu per event, event lain tetap masuk;
+ *   event yang tetap ditolak dicoba ulang dengan backoff, lalu dipindah ke dead-letter setelah max-attempts.
+ * - DB / koneksi bermasalah: seluruh batch kembali ke antrian dan flush berikutnya di-backoff.
+ */
+@Component
+public class PlayEventBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayEventBuffer.class);
+
+    // * Satu baris event di buffer/journal. played_at disimpan sebagai epoch millis.
+    public record BufferedPlay(String eventId, String userId, String songId, long playedAtMillis) {}
+
+    @Autowired
+    private PlayEventWriter playEventWriter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${melodia.play-buffer.journal-dir:./data/play-journal}")
+    private String journalDir;
+
+    @Value("${melodia.play-buffer.flush-batch-size:500}")
+    private int flushBatchSize;
+
+    @Value("${melodia.play-buffer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${melodia.play-buffer.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    @Value("${melodia.play-buffer.retry-backoff-max-ms:300000}")
+    private long retryBackoffMaxMs;
+
+    // * Event yang ditolak DB saat ditulis sendirian; dicoba ulang terpisah dari antrian utama
+    private record Retry(BufferedPlay play, int attempts, long notBeforeMillis) {}
+
+    private final Object appendLock = new Object(); // * Menjaga append journal + enqueue + rotate tetap atomik
+    private final ConcurrentLinkedQueue<BufferedPlay> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final ConcurrentLinkedQueue<Retry> retries = new ConcurrentLinkedQueue<>();
+    private volatile List<BufferedPlay> inFlight = List.of(); // * Batch yang sedang di-insert (belum commit)
+    private volatile long flushNotBeforeMillis; // * Backoff setelah flush gagal karena DB / koneksi
+    private int consecutiveFailures; // * Hanya diakses di bawah flushLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flushExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "play-buffer-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PlayEventJournal journal;
+
+    @PostConstruct
+    void init() throws IOException {
+        journal = new PlayEventJournal(Path.of(journalDir));
+        List<BufferedPlay> replayed = journal.replayExisting();
+        if (!replayed.isEmpty()) {
+            queue.addAll(replayed);
+            pending.addAndGet(replayed.size());
+            logger.info("Replayed {} unflushed play events from journal {}", replayed.size(), journalDir);
+        }
+    }
+
+    // ==================== Record ====================
+
+    /**
+     * Terima satu play. Tidak menyentuh DB; hanya append journal + enqueue.
+     * @return eventId yang dipakai sebagai kunci idempotensi
+     */
+    public String record(String userId, String songId) {
+        BufferedPlay play = new BufferedPlay(UUID.randomUUID().toString(), userId, songId, System.currentTimeMillis());
+
+        synchronized (appendLock) {
+            try {
+                journal.append(play);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Play journal tidak bisa ditulis", e);
+            }
+            queue.add(play);
+        }
+
+        if (pending.incrementAndGet() >= flushBatchSize && flushRequested.compareAndSet(false, true)) {
+            flushExecutor.execute(() -> {
+                flushRequested.set(false);
+                flushIfDue();
+            });
+        }
+
+        eventPublisher.publishEvent(new PlayRecordedEvent(
+            play.eventId(), userId, songId, Instant.ofEpochMilli(play.playedAtMillis())));
+        return play.eventId();
+    }
+
+    public int getPendingCount() {
+        return pending.get() + retries.size();
+    }
+
+    /**
+     * playedAt play tertua yang belum ter-commit ke play_events (antrian, batch flush yang sedang jalan, retry).
+     * Semua play buffer dengan playedAt sebelum nilai ini sudah ada di DB. Long.MAX_VALUE kalau buffer kosong.
+     */
+    public long getOldestPendingMillis() {
+        long oldest = Long.MAX_VALUE;
+        synchronized (appendLock) {
+            for (BufferedPlay play : inFlight) {
+                oldest = Math.min(oldest, play.playedAtMillis());
+            }
+            for (BufferedPlay play : queue) {
+                oldest = Math.min(oldest, play.playedAtMillis());
+            }
+            for (Retry retry : retries) {
+                oldest = Math.min(oldest, retry.play().playedAtMillis());
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Jumlah play yang belum ter-commit ke play_events dengan playedAt >= sinceMillis
+     * (pelengkap COUNT di DB untuk statistik yang tidak boleh kehilangan play di buffer).
+     */
+    public long countPendingSince(long sinceMillis) {
+        long count = 0;
+        synchronized (appendLock) {
+            for (BufferedPlay play : inFlight) {
+                if (play.playedAtMillis() >= sinceMillis) count++;
+            }
+            for (BufferedPlay play : queue) {
+                if (play.playedAtMillis() >= sinceMillis) count++;
+            }
+            for (Retry retry : retries) {
+                if (retry.play().playedAtMillis() >= sinceMillis) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Lagu milik user yang sudah diterima tapi belum ter-commit ke play_events
+     * (masih di antrian atau di batch flush yang sedang jalan).
+     * Dipakai index yang di-load dari DB supaya play yang belum di-flush tidak hilang.
+     */
+    public Set<String> getPendingSongIds(String userId) {
+        Set<String> songIds = new HashSet<>();
+        synchronized (appendLock) {
+            for (BufferedPlay play : inFlight) {
+                if (play.userId().equals(userId)) songIds.add(play.songId());
+            }
+            for (BufferedPlay play : queue) {
+                if (play.userId().equals(userId)) songIds.add(play.songId());
+            }
+            for (Retry retry : retries) {
+                if (retry.play().userId().equals(userId)) songIds.add(retry.play().songId());
+            }
+        }
+        return songIds;
+    }
+
+    // ==================== Flush ====================
+
+    @Scheduled(fixedDelayString = "${melodia.play-buffer.flush-interval-ms:1000}")
+    public void scheduledFlush() {
+        flushIfDue();
+    }
+
+    private void flushIfDue() {
+        if (System.currentTimeMillis() >= flushNotBeforeMillis) {
+            flush();
+        }
+    }
+
+    /**
+     * Flush semua event di antrian (plus retry yang sudah jatuh tempo) ke DB.
+     * Journal di-rotate dulu supaya segment yang isinya sedang di-flush bisa dihapus setelah sukses;
+     * event yang masih akan dicoba ulang ditulis lagi ke segment aktif sebelum segment lama dihapus.
+     * Kalau DB / koneksi gagal, event dikembalikan ke antrian dan segment-nya tetap ada untuk replay.
+     * @return jumlah event yang di-flush (termasuk yang di-skip karena duplikat/lagu atau akun sudah dihapus)
+     */
+    public int flush() {
+        if (!flushLock.tryLock()) {
+            return 0; // flush lain sedang jalan
+        }
+        try {
+            long now = System.currentTimeMillis();
+            List<BufferedPlay> batch = new ArrayList<>();
+            Map<String, Integer> previousAttempts = new HashMap<>(); // * eventId → jumlah gagal sebelumnya (retry)
+            long sealedSeq;
+
+            synchronized (appendLock) {
+                for (Iterator<Retry> it = retries.iterator(); it.hasNext(); ) {
+                    Retry retry = it.next();
+                    if (retry.notBeforeMillis() <= now) {
+                        it.remove();
+                        batch.add(retry.play());
+                        previousAttempts.put(retry.play().eventId(), retry.attempts());
+                    }
+                }
+                if (queue.isEmpty() && batch.isEmpty()) {
+                    return 0;
+                }
+                sealedSeq = journal.rotate();
+                BufferedPlay play;
+                while ((play = queue.poll()) != null) {
+                    batch.add(play);
+                }
+                inFlight = batch;
+            }
+            pending.addAndGet(-(batch.size() - previousAttempts.size()));
+
+            try {
+                List<BufferedPlay> rejected = writeIsolating(batch);
+                List<BufferedPlay> retried = scheduleRetries(rejected, previousAttempts, now);
+                if (!retried.isEmpty()) {
+                    synchronized (appendLock) {
+                        for (BufferedPlay play : retried) {
+                            journal.append(play); // * Tetap ada di journal setelah segment lama dihapus
+                        }
+                    }
+                }
+                journal.deleteSegmentsUpTo(sealedSeq);
+                consecutiveFailures = 0;
+                logger.debug("Flushed {} play events ({} rejected)", batch.size(), rejected.size());
+            } catch (RuntimeException e) {
+                // Insert idempotent (ON CONFLICT event_id), jadi batch aman di-flush ulang
+                long backoff = backoffFor(++consecutiveFailures);
+                flushNotBeforeMillis = now + backoff;
+                logger.error("Play event flush failed, {} events re-queued, next attempt in {} ms: {}",
+                             batch.size(), backoff, e.getMessage());
+                for (BufferedPlay play : batch) {
+                    Integer attempts = previousAttempts.get(play.eventId());
+                    if (attempts != null) {
+                        retries.add(new Retry(play, attempts, now)); // * Kegagalan DB tidak dihitung sebagai percobaan
+                    } else {
+                        queue.add(play);
+                        pending.incrementAndGet();
+                    }
+                }
+            } finally {
+                inFlight = List.of();
+            }
+            return batch.size();
+        } catch (IOException e) {
+            logger.error("Play journal rotate/cleanup failed: {}", e.getMessage(), e);
+            return 0;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Tulis batch. Kalau DB menolak datanya, pecah per user lalu per event supaya satu baris bermasalah
+     * tidak menahan event lain.
+     * @return event yang tetap ditolak saat ditulis sendirian
+     * @throws RuntimeException kegagalan selain data (DB down, timeout) → seluruh batch di-flush ulang
+     */
+    private List<BufferedPlay> writeIsolating(List<BufferedPlay> batch) {
+        try {
+            playEventWriter.write(batch);
+            return List.of();
+        } catch (DataIntegrityViolationException e) {
+            if (OptimisticRetry.isRetryable(e)) {
+                throw e; // bentrok yang retry-nya habis, bukan data rusak → seluruh batch di-flush ulang
+            }
+            logger.warn("Play event batch of {} rejected, isolating failing events: {}", batch.size(), e.getMessage());
+        }
+
+        List<BufferedPlay> rejected = new ArrayList<>();
+        Map<String, List<BufferedPlay>> byUser = batch.stream()
+            .collect(Collectors.groupingBy(BufferedPlay::userId, LinkedHashMap::new, Collectors.toList()));
+        for (List<BufferedPlay> plays : byUser.values()) {
+            if (byUser.size() > 1 && tryWrite(plays)) {
+                continue;
+            }
+            for (BufferedPlay play : plays) {
+                if (!tryWrite(List.of(play))) {
+                    rejected.add(play);
+                }
+            }
+        }
+        return rejected;
+    }
+
+    private boolean tryWrite(List<BufferedPlay> plays) {
+        try {
+            playEventWriter.write(plays);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (OptimisticRetry.isRetryable(e)) {
+                throw e;
+            }
+            return false;
+        }
+    }
+
+    // * Jadwalkan ulang event yang ditolak; yang sudah max-attempts dipindah ke dead-letter
+    private List<BufferedPlay> scheduleRetries(List<BufferedPlay> rejected, Map<String, Integer> previousAttempts, long now) {
+        List<BufferedPlay> retried = new ArrayList<>();
+        for (BufferedPlay play : rejected) {
+            int attempts = previousAttempts.getOrDefault(play.eventId(), 0) + 1;
+            if (attempts < maxAttempts) {
+                retries.add(new Retry(play, attempts, now + backoffFor(attempts)));
+                retried.add(play);
+                continue;
+            }
+            logger.error("Dropping play event {} (user={}, song={}) after {} failed attempts, moved to dead-letter",
+                         play.eventId(), play.userId(), play.songId(), attempts);
+            try {
+                synchronized (appendLock) {
+                    journal.appendDeadLetter(play);
+                }
+            } catch (IOException e) {
+                logger.error("Could not write play event {} to dead-letter: {}", play.eventId(), e.getMessage());
+            }
+        }
+        return retried;
+    }
+
+    // * Backoff eksponensial: retry-backoff-ms, 2x, 4x, ... maksimal retry-backoff-max-ms
+    private long backoffFor(int failures) {
+        return Math.min(retryBackoffMs << Math.min(failures - 1, 20), retryBackoffMaxMs);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flushExecutor.shutdown();
+        flush();
+        try {
+            journal.close();
+        } catch (IOException e) {
+            logger.warn("Could not close play journal: {}", e.getMessage());
+        }
+    }
+}
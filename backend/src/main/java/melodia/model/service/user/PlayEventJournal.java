@@ -0,0 +1,165 @@
+package melodia.model.service.user;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journal append-only di disk lokal untuk play event yang belum di-flush ke DB.
+ * Dibagi per segment (plays-&lt;seq&gt;.log): segment aktif menerima append,
+ * segment yang sudah di-rotate dihapus setelah isinya sukses masuk DB.
+ *
+ * Format satu baris: eventId \t userId \t songId \t epochMillis
+ * Bukan thread-safe; sinkronisasi dilakukan oleh PlayEventBuffer.
+ */
+class PlayEventJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlayEventJournal.class);
+
+    private static final String PREFIX = "plays-";
+    private static final String SUFFIX = ".log";
+    private static final String DEAD_LETTER = "dead-letter.tsv"; // * Tidak cocok pola segment, jadi tidak ikut replay
+
+    private final Path dir;
+    private long activeSeq;
+    private FileChannel active;
+
+    PlayEventJournal(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+    }
+
+    /**
+     * Baca semua segment yang tersisa (sisa crash / flush gagal), lalu buka segment aktif baru.
+     * Segment lama tidak dihapus di sini: baru dihapus setelah flush berikutnya sukses.
+     */
+    List<PlayEventBuffer.BufferedPlay> replayExisting() throws IOException {
+        TreeMap<Long, Path> segments = listSegments();
+        List<PlayEventBuffer.BufferedPlay> plays = new ArrayList<>();
+
+        for (Path segment : segments.values()) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    PlayEventBuffer.BufferedPlay play = parse(line);
+                    if (play != null) {
+                        plays.add(play);
+                    } else if (!line.isBlank()) {
+                        // Baris terakhir bisa terpotong kalau proses mati di tengah write
+                        logger.warn("Skipping malformed journal line in {}", segment.getFileName());
+                    }
+                }
+            }
+        }
+
+        activeSeq = segments.isEmpty() ? 0 : segments.lastKey();
+        openNextSegment();
+        return plays;
+    }
+
+    void append(PlayEventBuffer.BufferedPlay play) throws IOException {
+        String line = play.eventId() + '\t' + play.userId() + '\t' + play.songId() + '\t' + play.playedAtMillis() + '\n';
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            active.write(buffer); // * Masuk page cache OS → aman dari crash proses
+        }
+    }
+
+    /**
+     * Simpan event yang menyerah di-flush ke file terpisah (format sama dengan segment) untuk diperiksa / diputar ulang manual.
+     */
+    void appendDeadLetter(PlayEventBuffer.BufferedPlay play) throws IOException {
+        String line = play.eventId() + '\t' + play.userId() + '\t' + play.songId() + '\t' + play.playedAtMillis() + '\n';
+        Files.writeString(dir.resolve(DEAD_LETTER), line, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Paksa isi segment aktif ke disk (fsync), membatasi data hilang saat mati listrik.
+     */
+    void force() throws IOException {
+        active.force(false);
+    }
+
+    /**
+     * Tutup segment aktif dan buka segment baru.
+     * @return nomor segment yang baru saja ditutup (semua event sebelum rotate ada di segment &lt;= nomor ini)
+     */
+    long rotate() throws IOException {
+        long sealed = activeSeq;
+        active.force(false);
+        active.close();
+        openNextSegment();
+        return sealed;
+    }
+
+    /**
+     * Hapus semua segment dengan nomor &lt;= seq (isinya sudah ter-commit ke DB).
+     */
+    void deleteSegmentsUpTo(long seq) throws IOException {
+        for (var entry : listSegments().headMap(seq, true).entrySet()) {
+            Files.deleteIfExists(entry.getValue());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (active != null && active.isOpen()) {
+            active.force(false);
+            active.close();
+        }
+    }
+
+    // ==================== Helper ====================
+
+    private void openNextSegment() throws IOException {
+        activeSeq++;
+        active = FileChannel.open(segmentPath(activeSeq),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long seq) {
+        return dir.resolve(PREFIX + String.format("%012d", seq) + SUFFIX);
+    }
+
+    private TreeMap<Long, Path> listSegments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                try {
+                    long seq = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                    segments.put(seq, path);
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file in journal dir: {}", name);
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static PlayEventBuffer.BufferedPlay parse(String line) {
+        String[] parts = line.split("\t");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            return new PlayEventBuffer.BufferedPlay(parts[0], parts[1], parts[2], Long.parseLong(parts[3]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package melodia.model.service.user;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import melodia.model.service.common.OptimisticRetry;
+import melodia.model.service.user.PlayEventBuffer.BufferedPlay;
+
+/**
+ * Penulisan batch play event ke play_events, dipakai flush PlayEventBuffer dan ingest batch dari client.
+ *
+ * Satu INSERT ... SELECT FROM (VALUES ...) per chunk dengan ON CONFLICT (event_id) DO NOTHING RETURNING event_id:
+ * event yang sudah pernah masuk (retry, replay journal, sync ulang dari client) otomatis di-skip,
+ * event untuk lagu / akun yang sudah dihapus di-skip lewat JOIN ke songs & accounts (tidak dicoba ulang).
+ * Rollup statistik harian & ring recent plays ikut di transaksi yang sama, hanya untuk event yang
+ * benar-benar masuk (jadi juga hanya untuk akun yang masih ada).
+ */
+@Component
+class PlayEventWriter {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private RecentPlaysService recentPlaysService;
+
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+
+    @Value("${melodia.play-buffer.max-rows-per-insert:500}")
+    private int maxRowsPerInsert;
+
+    /**
+     * Insert batch + rollup statistik + ring recent plays dalam satu transaksi (diulang kalau bentrok @Version).
+     * @return event yang benar-benar baru masuk (urutan sama dengan input)
+     */
+    List<BufferedPlay> write(List<BufferedPlay> plays) {
+        if (plays.isEmpty()) {
+            return List.of();
+        }
+        return optimisticRetry.inTransaction(() -> {
+            Set<String> insertedIds = new HashSet<>();
+            for (int from = 0; from < plays.size(); from += maxRowsPerInsert) {
+                insertedIds.addAll(insertChunk(plays.subList(from, Math.min(from + maxRowsPerInsert, plays.size()))));
+            }
+            List<BufferedPlay> inserted = plays.stream().filter(p -> insertedIds.contains(p.eventId())).toList();
+            userStatsService.applyPlays(inserted);
+            recentPlaysService.applyPlays(inserted);
+            return inserted;
+        });
+    }
+
+    // * Satu statement untuk seluruh chunk, RETURNING event yang benar-benar masuk
+    private List<String> insertChunk(List<BufferedPlay> chunk) {
+        StringBuilder sql = new StringBuilder(
+            "INSERT INTO play_events (event_id, user_id, song_id, played_at) " +
+            "SELECT v.event_id, v.user_id, v.song_id, v.played_at FROM (VALUES ");
+        Object[] args = new Object[chunk.size() * 4];
+        int i = 0;
+        for (BufferedPlay play : chunk) {
+            if (i > 0) sql.append(", ");
+            sql.append("(?, ?, ?, CAST(? AS timestamp))");
+            args[i++] = play.eventId();
+            args[i++] = play.userId();
+            args[i++] = play.songId();
+            args[i++] = new Timestamp(play.playedAtMillis());
+        }
+        sql.append(") AS v(event_id, user_id, song_id, played_at) ")
+           .append("JOIN songs s ON s.song_id = v.song_id ")
+           .append("JOIN accounts a ON a.account_id = v.user_id ")
+           .append("ON CONFLICT (event_id) DO NOTHING ")
+           .append("RETURNING event_id");
+
+        return jdbcTemplate.queryForList(sql.toString(), String.class, args);
+    }
+}
@@ -0,0 +1,142 @@
+package melodia.model.service.user;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PostConstruct;
+import melodia.model.dto.response.SongResponse;
+import melodia.model.event.AccountChangedEvent;
+import melodia.model.event.PlayRecordedEvent;
+import melodia.model.repository.PlayEventRepository;
+import melodia.model.repository.SongRepository;
+import melodia.model.service.music.MusicService;
+
+/**
+ * Index "lagu yang pernah diputar" per user: satu BitSet di atas song_ordinal.
+ *
+ * - Di-load sekali per user (satu query DISTINCT ordinal dari play_events + play yang masih di buffer),
+ *   lalu cek "has played" cukup BitSet.get → O(1), tanpa query/load koleksi.
+ * - Di-update tiap PlayRecordedEvent hanya kalau user sedang ada di cache.
+ * - BitSet diperlakukan immutable (copy-on-write), jadi pembaca tidak perlu lock.
+ * - Cache dibatasi total ukuran bitset (bytes) + expire-after-access.
+ */
+@Component
+public class PlayedSongsIndex {
+
+    @Autowired
+    private PlayEventRepository playEventRepository;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    @Autowired
+    private PlayEventBuffer playEventBuffer;
+
+    @Value("${melodia.played-index.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${melodia.played-index.expire-after-access:30m}")
+    private Duration expireAfterAccess;
+
+    private Cache<String, BitSet> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+            .maximumWeight(maxBytes)
+            .weigher((String userId, BitSet bits) -> 64 + bits.size() / 8)
+            .expireAfterAccess(expireAfterAccess)
+            .build();
+    }
+
+    // ==================== Query ====================
+
+    /**
+     * Cek apakah user pernah memutar lagu dengan ordinal ini.
+     */
+    public boolean hasPlayed(String userId, int songOrdinal) {
+        return cache.get(userId, this::load).get(songOrdinal);
+    }
+
+    /**
+     * Lookup untuk banyak lagu sekaligus: bitset user diambil sekali, tiap cek cukup BitSet.get.
+     */
+    public IntPredicate lookup(String userId) {
+        BitSet bits = cache.get(userId, this::load);
+        return bits::get;
+    }
+
+    // ==================== Update ====================
+
+    @EventListener
+    public void onPlayRecorded(PlayRecordedEvent event) {
+        SongResponse song = musicService.getSongResponseById(event.getSongId()); // cache hit dari recordPlay
+        if (song != null && song.getSongOrdinal() != null) {
+            markPlayed(event.getUserId(), song.getSongOrdinal());
+        }
+    }
+
+    public void markPlayed(String userId, int songOrdinal) {
+        // computeIfPresent menunggu load yang sedang jalan untuk key yang sama, jadi play tidak terlewat
+        cache.asMap().computeIfPresent(userId, (id, bits) -> {
+            if (bits.get(songOrdinal)) return bits;
+            BitSet copy = (BitSet) bits.clone();
+            copy.set(songOrdinal);
+            return copy;
+        });
+    }
+
+    public void unmarkPlayed(String userId, int songOrdinal) {
+        cache.asMap().computeIfPresent(userId, (id, bits) -> {
+            if (!bits.get(songOrdinal)) return bits;
+            BitSet copy = (BitSet) bits.clone();
+            copy.clear(songOrdinal);
+            return copy;
+        });
+    }
+
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+
+    // Akun dihapus (AccountDeletionService): buang bitset setelah commit supaya tidak di-load ulang dari data lama
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        if (event.getType() == AccountChangedEvent.Type.DELETED) {
+            invalidate(event.getAccountId());
+        }
+    }
+
+    // ==================== Load ====================
+
+    // * Ambil play yang belum di-flush DULU, baru query DB: play yang ter-flush di antaranya tetap tertangkap salah satunya
+    private BitSet load(String userId) {
+        Set<String> pendingSongIds = playEventBuffer.getPendingSongIds(userId);
+
+        BitSet bits = new BitSet();
+        for (Integer ordinal : playEventRepository.findDistinctSongOrdinalsByUserId(userId)) {
+            if (ordinal != null) bits.set(ordinal);
+        }
+        if (!pendingSongIds.isEmpty()) {
+            for (Object[] pair : songRepository.findOrdinalsBySongIds(pendingSongIds)) {
+                if (pair[1] != null) bits.set(((Number) pair[1]).intValue());
+            }
+        }
+        return bits;
+    }
+}
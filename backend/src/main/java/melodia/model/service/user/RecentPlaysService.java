@@ -0,0 +1,169 @@
+package melodia.model.service.user;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import melodia.model.entity.Song;
+import melodia.model.entity.UserRecentPlays;
+import melodia.model.repository.PlayEventRepository;
+import melodia.model.repository.SongRepository;
+import melodia.model.repository.UserRecentPlaysRepository;
+
+/**
+ * Mengelola ring "recently played" per user (tabel user_recent_plays, satu baris per user).
+ * Di-update dari jalur flush PlayEventBuffer dan ingest batch dari client (keduanya lewat applyPlays).
+ */
+@Service
+public class RecentPlaysService {
+
+    @Autowired
+    private UserRecentPlaysRepository recentPlaysRepository;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private PlayEventRepository playEventRepository;
+
+    @Value("${melodia.recent-plays.capacity:50}")
+    private int capacity;
+
+    // ==================== Update ====================
+
+    /**
+     * Terapkan satu batch play (hasil flush buffer) ke ring masing-masing user.
+     * Satu query ordinal untuk semua lagu, satu query untuk semua baris user, lalu saveAll.
+     */
+    @Transactional
+    public void applyPlays(List<PlayEventBuffer.BufferedPlay> plays) {
+        if (plays.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> ordinals = resolveOrdinals(
+            plays.stream().map(PlayEventBuffer.BufferedPlay::songId).collect(Collectors.toSet()));
+
+        Set<String> userIds = plays.stream().map(PlayEventBuffer.BufferedPlay::userId).collect(Collectors.toSet());
+        Map<String, UserRecentPlays> rows = new HashMap<>();
+        recentPlaysRepository.findAllById(userIds).forEach(row -> rows.put(row.getUserId(), row));
+        for (String userId : userIds) {
+            rows.computeIfAbsent(userId, this::seedFromEvents);
+        }
+
+        // Disisipkan sesuai playedAt: play lama hasil sync offline tidak menyalip play yang lebih baru
+        for (PlayEventBuffer.BufferedPlay play : plays) {
+            Integer ordinal = ordinals.get(play.songId());
+            if (ordinal != null) {
+                rows.get(play.userId()).recordPlay(ordinal, play.playedAtMillis(), capacity);
+            }
+        }
+
+        recentPlaysRepository.saveAll(rows.values());
+    }
+
+    @Transactional
+    public void removeSong(String userId, Song song) {
+        if (song == null || song.getSongOrdinal() == null) {
+            return;
+        }
+        recentPlaysRepository.findById(userId).ifPresent(row -> {
+            if (row.remove(song.getSongOrdinal())) {
+                recentPlaysRepository.save(row);
+            }
+        });
+    }
+
+    @Transactional
+    public void clear(String userId) {
+        if (recentPlaysRepository.existsById(userId)) {
+            recentPlaysRepository.deleteById(userId);
+        }
+    }
+
+    // ==================== Read ====================
+
+    /**
+     * N lagu terbaru dari ring user (maksimal sebesar kapasitas ring).
+     * Empty kalau user belum punya baris (pemanggil bisa fallback ke scan play_events).
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Song>> getRecentSongs(String userId, int limit) {
+        Optional<UserRecentPlays> row = recentPlaysRepository.findById(userId);
+        if (row.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int[] ordinals = row.get().getOrdinals();
+        List<Integer> wanted = new ArrayList<>(Math.min(limit, ordinals.length));
+        for (int i = 0; i < ordinals.length && i < limit; i++) {
+            wanted.add(ordinals[i]);
+        }
+        if (wanted.isEmpty()) {
+            return Optional.of(List.of());
+        }
+
+        // Lagu yang sudah dihapus otomatis terlewat (tidak ada di hasil query)
+        Map<Integer, Song> byOrdinal = songRepository.findBySongOrdinalIn(wanted).stream()
+            .collect(Collectors.toMap(Song::getSongOrdinal, Function.identity()));
+        List<Song> songs = new ArrayList<>(wanted.size());
+        for (Integer ordinal : wanted) {
+            Song song = byOrdinal.get(ordinal);
+            if (song != null) {
+                songs.add(song);
+            }
+        }
+        return Optional.of(songs);
+    }
+
+    // ==================== Helper ====================
+
+    // * Baris baru untuk user lama: isi dari event terbaru (bounded lewat index user_id + played_at DESC)
+    private UserRecentPlays seedFromEvents(String userId) {
+        UserRecentPlays row = new UserRecentPlays(userId);
+
+        // Play terakhir per lagu (hasil query urut terbaru dulu, jadi kemunculan pertama yang dipakai)
+        Map<String, Long> lastPlayed = new LinkedHashMap<>();
+        for (Object[] play : playEventRepository.findRecentPlays(userId, PageRequest.of(0, capacity * 4))) {
+            long playedAt = ((LocalDateTime) play[1]).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            lastPlayed.putIfAbsent((String) play[0], playedAt);
+        }
+        if (lastPlayed.isEmpty()) {
+            return row;
+        }
+
+        Map<String, Integer> ordinals = resolveOrdinals(lastPlayed.keySet());
+        lastPlayed.forEach((songId, playedAt) -> {
+            Integer ordinal = ordinals.get(songId);
+            if (ordinal != null) {
+                row.recordPlay(ordinal, playedAt, capacity);
+            }
+        });
+        return row;
+    }
+
+    private Map<String, Integer> resolveOrdinals(Collection<String> songIds) {
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (Object[] pair : songRepository.findOrdinalsBySongIds(songIds)) {
+            if (pair[1] != null) {
+                ordinals.put((String) pair[0], ((Number) pair[1]).intValue());
+            }
+        }
+        return ordinals;
+    }
+}
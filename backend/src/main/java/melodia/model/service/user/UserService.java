@@ -3,17 +3,17 @@ package melodia.model.service.user;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import melodia.config.CacheConfig;
 import melodia.controller.exception.user.UserNotFoundException;
 import melodia.model.entity.Account;
-import melodia.model.entity.History;
 import melodia.model.entity.Playlist;
-import melodia.model.entity.Song;
 import melodia.model.entity.User;
 import melodia.model.repository.AccountRepository;
-import melodia.model.repository.HistoryRepository;
+import melodia.model.repository.PlayEventRepository;
 
 @Service
 public class UserService {
@@ -22,7 +22,10 @@ public class UserService {
     private AccountRepository accountRepository;
 
     @Autowired
-    private HistoryRepository historyRepository;
+    private PlayEventRepository playEventRepository;
+
+    @Autowired
+    private AccountDeletionService accountDeletionService;
 
     // ==================== User CRUD ====================
 
@@ -33,6 +36,15 @@ public class UserService {
             .toList();
     }
 
+    /**
+     * Cek akun adalah User terdaftar. Dipanggil di setiap play event → di-cache,
+     * hanya hasil true yang disimpan (user baru tidak "terkunci" sebagai false).
+     */
+    @Cacheable(cacheNames = CacheConfig.REGISTERED_USERS, key = "#userId", unless = "!#result")
+    public boolean isRegisteredUser(String userId) {
+        return userId != null && getUserById(userId) != null;
+    }
+
     public User getUserById(String id) {
         Account account = accountRepository.findById(id).orElse(null);
         return account instanceof User ? (User) account : null;
@@ -67,58 +79,12 @@ public class UserService {
         return (User) accountRepository.save(user);
     }
 
-    @Transactional
     public void deleteUser(String id) {
         Account account = accountRepository.findById(id).orElse(null);
         if (account == null || !(account instanceof User)) return;
-        User user = (User) account;
-        
-        // Delete history by userId
-        historyRepository.findById(id).ifPresent(historyRepository::delete);
-        
-        // Delete user (cascade akan delete playlists)
-        accountRepository.delete(user);
-    }
-
-    // ==================== History Operations ====================
-
-    /**
-     * Get history milik user (query langsung dari repository)
-     */
-    public History getUserHistory(String userId) {
-        return historyRepository.findById(userId).orElse(null);
-    }
 
-    /**
-     * Tambahkan lagu ke history user
-     */
-    @Transactional
-    public void addSongToHistory(String userId, Song song) {
-        History history = historyRepository.findById(userId)
-            .orElseThrow(() -> new UserNotFoundException("History tidak ditemukan"));
-        
-        history.addPlayedSong(song);
-        historyRepository.save(history);
-    }
-
-    /**
-     * Get played songs dari history user
-     */
-    public List<Song> getUserPlayedSongs(String userId) {
-        History history = historyRepository.findById(userId).orElse(null);
-        return history != null ? history.getPlayedSongs() : List.of();
-    }
-
-    /**
-     * Clear history user
-     */
-    @Transactional
-    public void clearUserHistory(String userId) {
-        History history = historyRepository.findById(userId)
-            .orElseThrow(() -> new IllegalArgumentException("History tidak ditemukan"));
-        
-        history.getPlayedSongs().clear();
-        historyRepository.save(history);
+        // Riwayat putar, ring recent plays, rollup statistik & playlist ikut dihapus (lihat AccountDeletionService)
+        accountDeletionService.delete(account);
     }
 
     // ==================== Playlist Operations ====================
@@ -156,8 +122,7 @@ public class UserService {
      * Get history song count
      */
     public int getHistorySongCount(String userId) {
-        History history = historyRepository.findById(userId).orElse(null);
-        return history != null ? history.getPlayedSongs().size() : 0;
+        return (int) playEventRepository.countDistinctSongsByUserId(userId);
     }
     
     /**
@@ -0,0 +1,177 @@
+package melodia.model.service.user;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import melodia.model.dto.response.SongResponse;
+import melodia.model.dto.response.history.ListeningStatsResponseDTO;
+import melodia.model.dto.response.history.ListeningStatsResponseDTO.SongStatItem;
+import melodia.model.dto.response.history.ListeningStatsResponseDTO.StatItem;
+import melodia.model.entity.Artist;
+import melodia.model.entity.Genre;
+import melodia.model.entity.Song;
+import melodia.model.entity.UserDailyStats;
+import melodia.model.entity.UserDailyStatsId;
+import melodia.model.repository.ArtistRepository;
+import melodia.model.repository.GenreRepository;
+import melodia.model.repository.SongRepository;
+import melodia.model.repository.UserDailyStatsRepository;
+import melodia.model.service.music.MusicService;
+
+/**
+ * Rollup statistik dengar per user per hari (tabel user_daily_stats): jumlah play, detik didengar,
+ * serta hitungan per artist / genre / lagu.
+ * Ditulis oleh PlayEventWriter (satu transaksi dengan insert play_events, hanya event yang benar-benar baru);
+ * halaman statistik cukup menggabungkan maksimal MAX_RANGE_DAYS baris, tanpa scan play_events.
+ */
+@Service
+public class UserStatsService {
+
+    // * Rentang maksimum satu request statistik (≈ satu tahun = maksimal 366 baris per user)
+    private static final int MAX_RANGE_DAYS = 366;
+
+    @Autowired
+    private UserDailyStatsRepository dailyStatsRepository;
+
+    @Autowired
+    private SongRepository songRepository;
+
+    @Autowired
+    private ArtistRepository artistRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private MusicService musicService;
+
+    // ==================== Update ====================
+
+    /**
+     * Terapkan satu batch play ke rollup harian.
+     * Satu query untuk semua baris (user, tanggal) yang tersentuh, metadata lagu dari cache detail lagu.
+     */
+    @Transactional
+    public void applyPlays(List<PlayEventBuffer.BufferedPlay> plays) {
+        if (plays.isEmpty()) {
+            return;
+        }
+
+        Map<UserDailyStatsId, UserDailyStats> rows = new HashMap<>();
+        List<UserDailyStatsId> keys = plays.stream()
+            .map(play -> new UserDailyStatsId(play.userId(), toDate(play.playedAtMillis())))
+            .distinct()
+            .toList();
+        dailyStatsRepository.findAllById(keys).forEach(row -> rows.put(row.getId(), row));
+
+        Map<String, SongResponse> songs = new HashMap<>();
+        for (PlayEventBuffer.BufferedPlay play : plays) {
+            SongResponse song = songs.computeIfAbsent(play.songId(), musicService::getSongResponseById);
+            if (song == null || song.getSongOrdinal() == null) {
+                continue; // lagu sudah dihapus
+            }
+            UserDailyStatsId key = new UserDailyStatsId(play.userId(), toDate(play.playedAtMillis()));
+            rows.computeIfAbsent(key, UserDailyStats::new).addPlay(
+                song.getSongOrdinal(),
+                song.getArtistId(),
+                song.getGenres().stream().map(SongResponse.GenreItem::getId).toList(),
+                song.getDuration());
+        }
+
+        dailyStatsRepository.saveAll(rows.values());
+    }
+
+    @Transactional
+    public void clear(String userId) {
+        dailyStatsRepository.deleteByUserId(userId);
+    }
+
+    // ==================== Read ====================
+
+    /**
+     * Gabungkan rollup harian dalam rentang [from, to] lalu ambil top artist/genre/lagu.
+     * Default: bulan berjalan.
+     */
+    @Transactional(readOnly = true)
+    public ListeningStatsResponseDTO getStats(String userId, LocalDate from, LocalDate to, int limit) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Tanggal 'from' harus sebelum 'to'");
+        }
+        if (start.plusDays(MAX_RANGE_DAYS - 1).isBefore(end)) { // inklusif: [start, start + 365] = 366 hari
+            throw new IllegalArgumentException("Rentang maksimal " + MAX_RANGE_DAYS + " hari");
+        }
+
+        List<UserDailyStats> days = dailyStatsRepository.findByUserIdAndDateRange(userId, start, end);
+
+        long totalPlays = 0;
+        long listenedSeconds = 0;
+        Map<String, Long> artistPlays = new HashMap<>();
+        Map<String, Long> genrePlays = new HashMap<>();
+        Map<Integer, Long> songPlays = new HashMap<>();
+        for (UserDailyStats day : days) {
+            totalPlays += day.getPlayCount();
+            listenedSeconds += day.getListenedSeconds();
+            day.getArtistPlays().forEach((id, n) -> artistPlays.merge(id, (long) n, Long::sum));
+            day.getGenrePlays().forEach((id, n) -> genrePlays.merge(id, (long) n, Long::sum));
+            day.getSongPlays().forEach((ordinal, n) -> songPlays.merge(ordinal, (long) n, Long::sum));
+        }
+
+        List<Map.Entry<String, Long>> topArtistEntries = top(artistPlays, limit);
+        Map<String, String> artistNames = artistRepository.findAllById(keysOf(topArtistEntries)).stream()
+            .collect(Collectors.toMap(Artist::getArtistId, Artist::getArtistName));
+        List<StatItem> topArtists = topArtistEntries.stream()
+            .filter(e -> artistNames.containsKey(e.getKey()))
+            .map(e -> new StatItem(e.getKey(), artistNames.get(e.getKey()), e.getValue()))
+            .toList();
+
+        List<Map.Entry<String, Long>> topGenreEntries = top(genrePlays, limit);
+        Map<String, String> genreNames = genreRepository.findAllById(keysOf(topGenreEntries)).stream()
+            .collect(Collectors.toMap(Genre::getId, Genre::getName));
+        List<StatItem> topGenres = topGenreEntries.stream()
+            .filter(e -> genreNames.containsKey(e.getKey()))
+            .map(e -> new StatItem(e.getKey(), genreNames.get(e.getKey()), e.getValue()))
+            .toList();
+
+        List<Map.Entry<Integer, Long>> topSongEntries = top(songPlays, limit);
+        Map<Integer, SongResponse> songsByOrdinal = topSongEntries.isEmpty() ? Map.of()
+            : songRepository.findBySongOrdinalInForListing(keysOf(topSongEntries)).stream()
+                .collect(Collectors.toMap(Song::getSongOrdinal, SongResponse::from, (a, b) -> a));
+        List<SongStatItem> topSongs = topSongEntries.stream()
+            .filter(e -> songsByOrdinal.containsKey(e.getKey()))
+            .map(e -> new SongStatItem(songsByOrdinal.get(e.getKey()), e.getValue()))
+            .toList();
+
+        return new ListeningStatsResponseDTO(userId, start, end, days.size(), totalPlays, listenedSeconds,
+                                             topArtists, topGenres, topSongs);
+    }
+
+    // ==================== Helper ====================
+
+    private static LocalDate toDate(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    private static <K> List<Map.Entry<K, Long>> top(Map<K, Long> counts, int limit) {
+        return counts.entrySet().stream()
+            .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(Math.max(limit, 1))
+            .toList();
+    }
+
+    private static <K> List<K> keysOf(List<Map.Entry<K, Long>> entries) {
+        return entries.stream().map(Map.Entry::getKey).collect(Collectors.toCollection(ArrayList::new));
+    }
+}
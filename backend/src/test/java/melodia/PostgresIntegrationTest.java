@@ -0,0 +1,108 @@
+package melodia;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import melodia.model.entity.Artist;
+import melodia.model.entity.Song;
+import melodia.model.repository.ArtistRepository;
+import melodia.model.repository.SongRepository;
+
+/**
+ * Basis test integrasi: context Spring penuh di PostgreSQL asli (Testcontainers), schema dari entity.
+ * Di-skip kalau Docker tidak tersedia. Container di-start ulang per class → context juga dibuang per class.
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+    "spring.datasource.hikari.maximum-pool-size=40",
+    "melodia.optimistic-retry.max-attempts=50",
+    "supabase.url=http://localhost",
+    "supabase.key=test",
+    "supabase.bucket.name=test",
+    "supabase.service.role.key=test",
+    "jwt.secret=integration-test-secret-integration-test-0123456789",
+    "jwt.expiration=3600000"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+public abstract class PostgresIntegrationTest {
+
+    @Container
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Path JOURNAL_DIR = createJournalDir();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("melodia.play-buffer.journal-dir", JOURNAL_DIR::toString);
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected ArtistRepository artistRepository;
+
+    @Autowired
+    protected SongRepository songRepository;
+
+    @BeforeAll
+    void prepareSchema() {
+        // * Di produksi song_ordinal = IDENTITY (DDL manual); schema test dibuat Hibernate dari entity
+        jdbcTemplate.execute("ALTER TABLE songs ALTER COLUMN song_ordinal SET NOT NULL");
+        jdbcTemplate.execute("ALTER TABLE songs ALTER COLUMN song_ordinal ADD GENERATED BY DEFAULT AS IDENTITY");
+    }
+
+    // ==================== Helper ====================
+
+    protected Artist createArtist(String name) {
+        return artistRepository.save(new Artist(name + " " + shortId(), null));
+    }
+
+    protected List<Song> createSongs(Artist artist, int count) {
+        List<Song> songs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Song song = new Song("Song " + i, artist, "test/song-" + i + ".mp3", 180, 2024);
+            song.setSongId("SNG" + shortId().toUpperCase());
+            song.setArtistName(artist.getArtistName());
+            songs.add(songRepository.save(song));
+        }
+        return songs;
+    }
+
+    protected static String shortId() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static Path createJournalDir() {
+        try {
+            return Files.createTempDirectory("melodia-play-journal");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package melodia.controller.admin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import melodia.PostgresIntegrationTest;
+import melodia.model.entity.Album;
+import melodia.model.entity.Artist;
+import melodia.model.entity.Genre;
+import melodia.model.entity.Song;
+import melodia.model.repository.AlbumRepository;
+import melodia.model.repository.GenreRepository;
+import melodia.model.service.auth.RegistrationService;
+import melodia.model.service.music.AlbumService;
+import melodia.model.service.music.PlaylistService;
+
+class GenreControllerTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private GenreController genreController;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // * Rename genre lewat controller → ETag (version) album & playlist yang menampilkan genre itu ikut naik
+    @Test
+    void renamingGenreBumpsVersionOfAlbumsAndPlaylistsShowingIt() {
+        Genre genre = genreRepository.save(new Genre("GEN" + shortId(), "Genre " + shortId(), null));
+        Artist artist = createArtist("Genre Artist");
+        Song song = createSongs(artist, 1).get(0);
+        song.setGenres(List.of(genre));
+        songRepository.save(song);
+
+        Album album = transactionTemplate.execute(status -> {
+            Album created = new Album("Genre Album", artist, 2024);
+            created.setGenres(List.of(genre));
+            created.addSong(song);
+            return albumRepository.save(created);
+        });
+
+        String suffix = shortId();
+        String userId = registrationService.registerUser("genre-" + suffix, "genre-" + suffix + "@test.local", "password")
+            .getAccountId();
+        String playlistId = playlistService.createPlaylist(userId, "Genre Playlist", null).getPlaylistId();
+        playlistService.addSongToPlaylist(playlistId, song.getSongId(), userId);
+
+        long albumVersion = albumService.getAlbumVersion(album.getAlbumId());
+        long playlistVersion = playlistService.getPlaylistVersion(playlistId);
+
+        genreController.updateGenre(genre.getId(), "Renamed " + shortId(), null);
+
+        assertEquals(albumVersion + 1, albumService.getAlbumVersion(album.getAlbumId()));
+        assertEquals(playlistVersion + 1, playlistService.getPlaylistVersion(playlistId));
+        Long songChanges = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM playlist_changes WHERE playlist_id = ? AND version = ? AND op = 'SONG'",
+            Long.class, playlistId, playlistVersion + 1);
+        assertEquals(1L, songChanges);
+    }
+}
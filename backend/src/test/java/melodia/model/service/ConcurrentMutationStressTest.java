@@ -0,0 +1,213 @@
+package melodia.model.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import melodia.PostgresIntegrationTest;
+import melodia.model.dto.request.user.PlayEventBatchRequestDTO.PlayEventItem;
+import melodia.model.service.auth.RegistrationService;
+import melodia.model.service.music.PlaylistService;
+import melodia.model.service.user.HistoryService;
+import melodia.model.service.user.PlayEventBuffer;
+
+/**
+ * Stress test mutasi bersamaan untuk satu user / satu playlist (OptimisticRetry + @Version).
+ *
+ * Properti yang dibuktikan: setiap panggilan yang sukses tercermin tepat satu kali di state akhir
+ * (tidak ada update yang hilang / dobel), panggilan yang menyerah setelah retry melempar exception, tidak diam-diam hilang.
+ */
+class ConcurrentMutationStressTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int SONGS = 40;
+    private static final int PLAYS_PER_THREAD = 50;
+    private static final int MOVES_PER_THREAD = 25;
+
+    @Autowired
+    private HistoryService historyService;
+
+    @Autowired
+    private PlaylistService playlistService;
+
+    @Autowired
+    private PlayEventBuffer playEventBuffer;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    private final List<String> songIds = new ArrayList<>();
+
+    @BeforeAll
+    void createCatalog() {
+        createSongs(createArtist("Stress Artist"), SONGS).forEach(song -> songIds.add(song.getSongId()));
+    }
+
+    // ==================== History ====================
+
+    @Test
+    void concurrentPlaysForOneUserAreAllCounted() throws Exception {
+        String userId = registerUser();
+        int total = THREADS * PLAYS_PER_THREAD;
+
+        // Separuh lewat write-behind buffer, separuh lewat ingest batch: dua jalur yang sama-sama menulis
+        // rollup harian & ring recent plays user ini
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < PLAYS_PER_THREAD; i++) {
+                String songId = songIds.get((thread * PLAYS_PER_THREAD + i) % SONGS);
+                if (i % 2 == 0) {
+                    historyService.recordPlay(userId, songId);
+                } else {
+                    historyService.ingestPlayEvents(userId, List.of(
+                        new PlayEventItem(UUID.randomUUID().toString(), songId, Instant.now())));
+                }
+            }
+        });
+        drainPlayBuffer();
+
+        assertEquals(total, count("SELECT COUNT(*) FROM play_events WHERE user_id = ?", userId));
+        assertEquals(total, count("SELECT COALESCE(SUM(play_count), 0) FROM user_daily_stats WHERE user_id = ?", userId));
+        assertEquals(SONGS, count("SELECT COUNT(DISTINCT song_id) FROM play_events WHERE user_id = ?", userId));
+        assertEquals(SONGS, historyService.getRecentlyPlayedSongs(userId, SONGS).size());
+    }
+
+    // ==================== Playlist ====================
+
+    @Test
+    void concurrentPlaylistAddsAndMovesLoseNoUpdates() throws Exception {
+        String userId = registerUser();
+        String playlistId = playlistService.createPlaylist(userId, "Stress", null).getPlaylistId();
+        long initialVersion = playlistService.getPlaylistVersion(playlistId);
+
+        // 1. Tambah semua lagu paralel (tiap lagu tepat satu thread)
+        Set<String> added = ConcurrentHashMap.newKeySet();
+        AtomicInteger addsGivenUp = new AtomicInteger();
+        runConcurrently(THREADS, thread -> {
+            for (int i = thread; i < SONGS; i += THREADS) {
+                try {
+                    playlistService.addSongToPlaylist(playlistId, songIds.get(i), userId);
+                    added.add(songIds.get(i));
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    addsGivenUp.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(SONGS, added.size() + addsGivenUp.get());
+        assertFalse(added.isEmpty());
+        Map<String, Long> positions = positions(playlistId);
+        assertEquals(added, positions.keySet());
+        assertEquals(added.size(), new HashSet<>(positions.values()).size(), "posisi entry harus unik");
+        assertEquals(added.size(), playlistService.getPlaylistById(playlistId).getSongCount());
+        assertEquals(initialVersion + added.size(), playlistService.getPlaylistVersion(playlistId));
+        assertEquals(added.size(), count("SELECT COUNT(*) FROM playlist_changes WHERE playlist_id = ? AND op = 'ADD'", playlistId));
+
+        // 2. Pindah-pindah lagu paralel: tiap move yang sukses menaikkan version tepat satu kali
+        List<String> members = new ArrayList<>(added);
+        long versionBeforeMoves = playlistService.getPlaylistVersion(playlistId);
+        AtomicInteger moves = new AtomicInteger();
+        AtomicInteger movesGivenUp = new AtomicInteger();
+        runConcurrently(THREADS, thread -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < MOVES_PER_THREAD; i++) {
+                String songId = members.get(random.nextInt(members.size()));
+                String afterSongId = random.nextInt(5) == 0 ? null : members.get(random.nextInt(members.size()));
+                if (songId.equals(afterSongId)) {
+                    continue; // no-op, tidak menaikkan version
+                }
+                try {
+                    playlistService.moveSongInPlaylist(playlistId, songId, afterSongId, userId);
+                    moves.incrementAndGet();
+                } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                    movesGivenUp.incrementAndGet();
+                }
+            }
+        });
+
+        assertTrue(moves.get() > 0);
+        positions = positions(playlistId);
+        assertEquals(added, positions.keySet(), "move tidak boleh menambah / menghilangkan lagu");
+        assertEquals(added.size(), new HashSet<>(positions.values()).size(), "posisi entry harus unik");
+        assertEquals(added.size(), playlistService.getPlaylistById(playlistId).getSongCount());
+        assertEquals(versionBeforeMoves + moves.get(), playlistService.getPlaylistVersion(playlistId));
+    }
+
+    // ==================== Helper ====================
+
+    @FunctionalInterface
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    // * Semua thread mulai bersamaan (latch) supaya benar-benar bentrok; exception worker menggagalkan test
+    private static void runConcurrently(int threads, Worker worker) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    worker.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void drainPlayBuffer() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (playEventBuffer.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+            if (playEventBuffer.flush() == 0) {
+                Thread.sleep(50); // flush terjadwal sedang jalan
+            }
+        }
+        assertEquals(0, playEventBuffer.getPendingCount(), "buffer play harus kosong setelah flush");
+    }
+
+    private String registerUser() {
+        String suffix = shortId();
+        return registrationService.registerUser("stress-" + suffix, "stress-" + suffix + "@test.local", "password")
+            .getAccountId();
+    }
+
+    private Map<String, Long> positions(String playlistId) {
+        Map<String, Long> positions = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT song_id, position FROM playlist_entries WHERE playlist_id = ?",
+            rs -> { positions.put(rs.getString("song_id"), rs.getLong("position")); }, playlistId);
+        return positions;
+    }
+
+    private long count(String sql, String id) {
+        Long value = jdbcTemplate.queryForObject(sql, Long.class, id);
+        return value != null ? value : 0;
+    }}
@@ -0,0 +1,59 @@
+package melodia.model.service.music;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import melodia.PostgresIntegrationTest;
+import melodia.model.dto.response.AlbumDetailResponse;
+import melodia.model.entity.Album;
+import melodia.model.entity.Artist;
+import melodia.model.entity.Genre;
+import melodia.model.entity.Song;
+import melodia.model.repository.AlbumRepository;
+import melodia.model.repository.GenreRepository;
+
+class AlbumServiceTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AlbumService albumService;
+
+    @Autowired
+    private AlbumRepository albumRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // * Detail album fetch artist + songs; genres (bag) tidak boleh ikut dikalikan jumlah track
+    @Test
+    void albumDetailListsEachGenreOnce() {
+        Artist artist = createArtist("Album Artist");
+        List<Song> songs = createSongs(artist, 3);
+        List<Genre> genres = List.of(
+            genreRepository.save(new Genre("GEN" + shortId(), "Genre A " + shortId(), null)),
+            genreRepository.save(new Genre("GEN" + shortId(), "Genre B " + shortId(), null)));
+
+        Album album = transactionTemplate.execute(status -> {
+            Album created = new Album("Detail Album", artist, 2024);
+            created.setGenres(genres);
+            songs.forEach(created::addSong);
+            return albumRepository.save(created);
+        });
+
+        long version = albumService.getAlbumVersion(album.getAlbumId());
+        AlbumDetailResponse detail = albumService.getAlbumDetail(album.getAlbumId(), version);
+
+        assertEquals(2, detail.getGenres().size());
+        assertEquals(3, detail.getSongs().size());
+        assertEquals(3, detail.getSongCount());
+        assertEquals(songs.stream().map(Song::getSongId).toList(),
+                     detail.getSongs().stream().map(AlbumDetailResponse.Track::getSongId).toList());
+    }
+}
@@ -1,7 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import { Link } from 'react-router-dom';
 import { adminService, handleApiError } from '../../services/adminService';
-import { musicService } from '../../services/musicService'; // ✅ Import musicService
 import styles from './AdminDashboard.module.css';
 
 const AdminDashboard = () => {
@@ -23,45 +22,15 @@ const AdminDashboard = () => {
     setIsLoading(true);
     setError(null);
     try {
-      // Users & banned count
-      const allUsers = await adminService.getAllUsers();
-
-      const totalUsers = allUsers.length;
-      const bannedCount = allUsers.filter((u) => u.banned).length;
-
-      // Genres
-      let genresCount = 0;
-      try {
-        const genres = await adminService.getAllGenres();
-        genresCount = genres.length;
-      } catch (err) {
-        console.warn('Could not fetch genres:', err);
-      }
-
-      // Artists (metadata entity)
-      let artistsCount = 0;
-      try {
-        const artists = await adminService.getAllArtists();
-        artistsCount = artists.length;
-      } catch (err) {
-        console.warn('Could not fetch artists:', err);
-      }
-
-      // ✅ Albums (NEW)
-      let albumsCount = 0;
-      try {
-        const albums = await musicService.getAllAlbums();
-        albumsCount = albums.length;
-      } catch (err) {
-        console.warn('Could not fetch albums:', err);
-      }
+      // Semua angka dari satu endpoint (counter server-side), tanpa memuat daftar user/artist/genre/album
+      const data = await adminService.getStats();
 
       setStats({
-        totalUsers,
-        totalArtists: artistsCount,
-        totalGenres: genresCount,
-        totalAlbums: albumsCount, // ✅ NEW
-        bannedAccounts: bannedCount,
+        totalUsers: data.totalUsers ?? 0,
+        totalArtists: data.totalArtists ?? 0,
+        totalGenres: data.totalGenres ?? 0,
+        totalAlbums: data.totalAlbums ?? 0,
+        bannedAccounts: data.bannedAccounts ?? 0,
       });
     } catch (err) {
       console.error('Error fetching stats:', err);
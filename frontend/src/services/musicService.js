@@ -4,8 +4,10 @@ import { api } from './api';
 export const musicService = {
   // ==================== SONG ENDPOINTS ====================
 
-  getAllSongs: async () => {
-    const response = await api.get('/songs');
+  // userId opsional → tiap lagu ikut membawa flag `played`
+  getAllSongs: async (userId) => {
+    const query = userId ? `?userId=${encodeURIComponent(userId)}` : '';
+    const response = await api.get(`/songs${query}`);
     if (!response.ok) throw new Error('Failed to fetch songs');
     const responseBody = await response.json();
     return responseBody.data || responseBody;
@@ -68,6 +70,25 @@ export const musicService = {
     return (songId) => `${baseUrl}/songs/stream/${songId}`;
   },
 
+  // URL ZIP satu album / playlist (dipakai langsung sebagai href download, satu request untuk semua lagu)
+  getAlbumDownloadUrl: async (albumId) => {
+    const baseUrl = await api.getURL();
+    return `${baseUrl}/albums/${albumId}/download`;
+  },
+
+  getPlaylistDownloadUrl: async (playlistId) => {
+    const baseUrl = await api.getURL();
+    return `${baseUrl}/playlists/${playlistId}/download`;
+  },
+
+  // Satu request untuk seluruh home page (lagu terbaru, album pilihan, genre, lagu populer)
+  getHomeFeed: async () => {
+    const response = await api.get('/home/feed');
+    if (!response.ok) throw new Error('Failed to fetch home feed');
+    const responseBody = await response.json();
+    return responseBody.data || responseBody;
+  },
+
   // ==================== PLAYLIST ENDPOINTS ====================
 
   createPlaylist: async (userId, name, description = '') => {
@@ -185,6 +206,58 @@ export const musicService = {
     return responseBody.data || responseBody;
   },
 
+  // operations: [{ op: 'add' | 'remove' | 'move', songId, afterSongId? }], diterapkan atomik
+  applyPlaylistBatch: async (playlistId, userId, operations) => {
+    const response = await api.post(`/playlists/${playlistId}/songs:batch`, {
+      userId, operations
+    });
+
+    if (!response.ok) {
+      const errorData = await response
+        .json()
+        .catch(() => ({ message: 'Failed to update playlist' }));
+      throw new Error(errorData.message || 'Failed to update playlist');
+    }
+
+    const responseBody = await response.json();
+    return responseBody.data || responseBody;
+  },
+
+  // afterSongId null = pindah ke paling atas playlist
+  moveSongInPlaylist: async (playlistId, songId, userId, afterSongId = null) => {
+    const response = await api.put(
+      `/playlists/${playlistId}/songs/${songId}/position`,
+      { userId, afterSongId }
+    );
+
+    if (!response.ok) {
+      const errorData = await response
+        .json()
+        .catch(() => ({ message: 'Failed to move song' }));
+      throw new Error(
+        errorData.message || 'Failed to move song in playlist'
+      );
+    }
+
+    const responseBody = await response.json();
+    return responseBody.data || responseBody;
+  },
+
+  // Delta sync: since = version playlist yang dimiliki client (field version / header ETag).
+  // Kalau hasilnya reset: true, fetch ulang getPlaylistSongs.
+  getPlaylistChanges: async (playlistId, since) => {
+    const response = await api.get(
+      `/playlists/${playlistId}/changes?since=${since}`
+    );
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch playlist changes');
+    }
+
+    const responseBody = await response.json();
+    return responseBody.data || responseBody;
+  },
+
   searchPlaylists: async (query) => {
     const response = await api.get(
       `/playlists/search?query=${encodeURIComponent(query)}`
@@ -273,6 +346,21 @@ export const musicService = {
     return responseBody.data || responseBody;
   },
 
+  // Sync banyak play sekaligus; events: [{ eventId (UUID), songId, playedAt (ISO) }]
+  // Aman dikirim ulang: event yang sudah diterima server di-skip
+  syncPlayEvents: async (userId, events) => {
+    const response = await api.post(`/history/${userId}/events:batch`, {
+      events
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to sync play events');
+    }
+
+    const responseBody = await response.json();
+    return responseBody.data || responseBody;
+  },
+
   removeSongFromHistory: async (userId, songId) => {
     const response = await api.delete(
       `/history/${userId}/songs/${songId}`
@@ -326,6 +414,21 @@ export const musicService = {
     return responseBody.data || responseBody;
   },
 
+  // Status played banyak lagu sekaligus → { [songId]: boolean }
+  checkSongsPlayed: async (userId, songIds) => {
+    const response = await api.post(`/history/${userId}/songs/played`, {
+      songIds
+    });
+
+    if (!response.ok) {
+      throw new Error('Failed to check songs played status');
+    }
+
+    const responseBody = await response.json();
+    const data = responseBody.data || responseBody;
+    return data.played || {};
+  },
+
   getHistorySummary: async (userId) => {
     const response = await api.get(`/history/${userId}/summary`);
 
@@ -337,6 +440,22 @@ export const musicService = {
     return responseBody.data || responseBody;
   },
 
+  // from/to format YYYY-MM-DD (opsional, default bulan berjalan)
+  getListeningStats: async (userId, { from, to, limit = 10 } = {}) => {
+    const params = new URLSearchParams({ limit: String(limit) });
+    if (from) params.set('from', from);
+    if (to) params.set('to', to);
+
+    const response = await api.get(`/history/${userId}/stats?${params}`);
+
+    if (!response.ok) {
+      throw new Error('Failed to fetch listening stats');
+    }
+
+    const responseBody = await response.json();
+    return responseBody.data || responseBody;
+  },
+
   // ==================== ALBUM ENDPOINTS ====================
 
   /**